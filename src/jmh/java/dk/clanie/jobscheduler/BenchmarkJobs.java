@@ -0,0 +1,59 @@
+/*
+ * Copyright (C) 2026, Claus Nielsen, clausn999@gmail.com
+ *
+ * This program is free software; you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation; either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License along
+ * with this program; if not, write to the Free Software Foundation, Inc.,
+ * 51 Franklin Street, Fifth Floor, Boston, MA 02110-1301 USA.
+ */
+package dk.clanie.jobscheduler;
+
+import java.time.Duration;
+import java.util.UUID;
+import java.util.concurrent.atomic.LongAdder;
+
+import org.springframework.context.support.GenericApplicationContext;
+
+/**
+ * Bean with a trivial job method, and helpers for setting up the benchmarks.
+ */
+public class BenchmarkJobs {
+
+	static final String BEAN_NAME = "benchmarkJobs";
+
+	private final LongAdder invocations = new LongAdder();
+
+
+	public void run() {
+		invocations.increment();
+	}
+
+
+	public long getInvocations() {
+		return invocations.sum();
+	}
+
+
+	static GenericApplicationContext applicationContext() {
+		GenericApplicationContext applicationContext = new GenericApplicationContext();
+		applicationContext.registerBean(BEAN_NAME, BenchmarkJobs.class);
+		applicationContext.refresh();
+		return applicationContext;
+	}
+
+
+	static Job job(UUID tenantId) {
+		return new Job(tenantId, "benchmark", new JobName(BEAN_NAME, "run"), JobSchedule.delay(Duration.ofMinutes(1)));
+	}
+
+
+}
@@ -0,0 +1,112 @@
+/*
+ * Copyright (C) 2026, Claus Nielsen, clausn999@gmail.com
+ *
+ * This program is free software; you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation; either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License along
+ * with this program; if not, write to the Free Software Foundation, Inc.,
+ * 51 Franklin Street, Fifth Floor, Boston, MA 02110-1301 USA.
+ */
+package dk.clanie.jobscheduler;
+
+import java.time.Clock;
+import java.time.ZonedDateTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.context.support.GenericApplicationContext;
+import org.springframework.test.util.ReflectionTestUtils;
+
+/**
+ * One round of the JobScheduler claim and dispatch loop against the in-memory JobStore: claiming a batch of due jobs,
+ * submitting them to virtual threads, and waiting for all of them to complete.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Benchmark)
+public class DispatchBenchmark {
+
+	@Param({ "1", "16", "64" })
+	private int maxParallelJobs;
+
+	private GenericApplicationContext applicationContext;
+	private JobStore jobStore;
+	private JobScheduler jobScheduler;
+	private Semaphore semaphore;
+	private UUID tenantId;
+	private final List<UUID> jobIds = new ArrayList<>();
+
+
+	@Setup
+	public void setup() {
+		applicationContext = BenchmarkJobs.applicationContext();
+		jobStore = new InMemoryJobStore(1000);
+		jobScheduler = new JobScheduler();
+		ReflectionTestUtils.setField(jobScheduler, "jobStore", jobStore);
+		ReflectionTestUtils.setField(jobScheduler, "jobExecutionService", new JobExecutionService(applicationContext, jobStore, Clock.systemDefaultZone()));
+		ReflectionTestUtils.setField(jobScheduler, "clock", Clock.systemDefaultZone());
+		ReflectionTestUtils.setField(jobScheduler, "maxParallelJobs", maxParallelJobs);
+		ReflectionTestUtils.setField(jobScheduler, "claimCriteria", ClaimCriteria.matching(Arrays.asList(null, "")));
+		ReflectionTestUtils.setField(jobScheduler, "dispatchPolicy", DispatchPolicy.NEXT_EXECUTION);
+		semaphore = new Semaphore(maxParallelJobs);
+		tenantId = UUID.randomUUID();
+		for (int i = 0; i < maxParallelJobs; i++) {
+			Job job = BenchmarkJobs.job(tenantId);
+			jobStore.save(job);
+			jobIds.add(job.getId());
+		}
+	}
+
+
+	@Setup(Level.Invocation)
+	public void makeJobsDue() {
+		ZonedDateTime due = ZonedDateTime.now().minusSeconds(1);
+		jobIds.forEach(id -> jobStore.setNextExecution(tenantId, id, due));
+	}
+
+
+	@TearDown
+	public void tearDown() {
+		applicationContext.close();
+	}
+
+
+	@Benchmark
+	public int claimAndDispatch() throws InterruptedException {
+		int submitted = jobScheduler.claimAndSubmit(semaphore).size();
+		// Wait for the submitted jobs to complete
+		semaphore.acquire(maxParallelJobs);
+		semaphore.release(maxParallelJobs);
+		return submitted;
+	}
+
+
+}
@@ -0,0 +1,78 @@
+/*
+ * Copyright (C) 2026, Claus Nielsen, clausn999@gmail.com
+ *
+ * This program is free software; you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation; either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License along
+ * with this program; if not, write to the Free Software Foundation, Inc.,
+ * 51 Franklin Street, Fifth Floor, Boston, MA 02110-1301 USA.
+ */
+package dk.clanie.jobscheduler;
+
+import java.time.Clock;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.context.support.GenericApplicationContext;
+
+/**
+ * The JobExecutionService.execute path - MDC handling, method lookup and invocation, and recording
+ * the result - for a job doing nothing, against the in-memory JobStore.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Benchmark)
+public class ExecutionBenchmark {
+
+	private GenericApplicationContext applicationContext;
+	private JobExecutionService jobExecutionService;
+	private Job job;
+
+
+	@Setup
+	public void setup() {
+		applicationContext = BenchmarkJobs.applicationContext();
+		JobStore jobStore = new InMemoryJobStore(1000);
+		jobExecutionService = new JobExecutionService(applicationContext, jobStore, Clock.systemDefaultZone());
+		job = BenchmarkJobs.job(UUID.randomUUID());
+		jobStore.save(job);
+	}
+
+
+	@TearDown
+	public void tearDown() {
+		applicationContext.close();
+	}
+
+
+	@Benchmark
+	public long execute() {
+		job.setJobExecutionId(UUID.randomUUID());
+		jobExecutionService.execute(job);
+		return job.getExecutionCount();
+	}
+
+
+}
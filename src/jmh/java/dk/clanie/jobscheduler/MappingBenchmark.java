@@ -0,0 +1,179 @@
+/*
+ * Copyright (C) 2026, Claus Nielsen, clausn999@gmail.com
+ *
+ * This program is free software; you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation; either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License along
+ * with this program; if not, write to the Free Software Foundation, Inc.,
+ * 51 Franklin Street, Fifth Floor, Boston, MA 02110-1301 USA.
+ */
+package dk.clanie.jobscheduler;
+
+import java.time.Duration;
+import java.time.ZoneId;
+import java.time.ZonedDateTime;
+import java.util.Date;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+import org.bson.BsonDocument;
+import org.bson.BsonDocumentReader;
+import org.bson.BsonDocumentWriter;
+import org.bson.Document;
+import org.bson.UuidRepresentation;
+import org.bson.codecs.Codec;
+import org.bson.codecs.DecoderContext;
+import org.bson.codecs.EncoderContext;
+import org.bson.codecs.configuration.CodecRegistries;
+import org.bson.codecs.configuration.CodecRegistry;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.core.convert.converter.Converter;
+import org.springframework.data.convert.ReadingConverter;
+import org.springframework.data.convert.WritingConverter;
+import org.springframework.data.mongodb.core.convert.MappingMongoConverter;
+import org.springframework.data.mongodb.core.convert.MongoCustomConversions;
+import org.springframework.data.mongodb.core.convert.NoOpDbRefResolver;
+import org.springframework.data.mongodb.core.mapping.MongoMappingContext;
+
+import com.mongodb.MongoClientSettings;
+
+/**
+ * Compares mapping Jobs and JobExecutions to and from BSON with Spring Data's MappingMongoConverter
+ * and with the hand-written codecs in {@link JobCodecs}.
+ * <p>
+ * The converter benchmarks include the conversion between Document and BSON done by the driver,
+ * so both sides cover the full way from entity to BSON and back.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Benchmark)
+public class MappingBenchmark {
+
+	private MappingMongoConverter converter;
+	private CodecRegistry registry;
+	private Codec<Document> documentCodec;
+	private Codec<Job> jobCodec;
+	private Codec<JobExecution> jobExecutionCodec;
+
+	private Job job;
+	private JobExecution jobExecution;
+	private BsonDocument jobBson;
+
+
+	@Setup
+	public void setup() {
+		MongoCustomConversions conversions = new MongoCustomConversions(List.of(new ZonedDateTimeToDate(), new DateToZonedDateTime()));
+		MongoMappingContext mappingContext = new MongoMappingContext();
+		mappingContext.setSimpleTypeHolder(conversions.getSimpleTypeHolder());
+		mappingContext.afterPropertiesSet();
+		converter = new MappingMongoConverter(NoOpDbRefResolver.INSTANCE, mappingContext);
+		converter.setCustomConversions(conversions);
+		converter.afterPropertiesSet();
+
+		registry = JobCodecs.registry(CodecRegistries.withUuidRepresentation(
+				MongoClientSettings.getDefaultCodecRegistry(), UuidRepresentation.STANDARD));
+		documentCodec = registry.get(Document.class);
+		jobCodec = registry.get(Job.class);
+		jobExecutionCodec = registry.get(JobExecution.class);
+
+		job = new Job(UUID.randomUUID(), "benchmark", new JobName("benchmarkJobs", "run"), JobSchedule.rate(Duration.ofMinutes(5)));
+		job.setJobExecutionId(UUID.randomUUID());
+		job.setPoppedForExecution(ZonedDateTime.now());
+		job.setProfile("batch");
+		job.setExecutionCount(1234);
+		job.setLastSuccessfullyExecuted(ZonedDateTime.now().minusMinutes(5));
+		jobExecution = new JobExecution(job.getId(), true, null, 0, 0);
+		jobExecution.setId(UUID.randomUUID());
+		jobExecution.setTenantId(job.getTenantId());
+		jobBson = encodeWithCodec();
+	}
+
+
+	@Benchmark
+	public BsonDocument encodeWithConverter() {
+		Document document = new Document();
+		converter.write(job, document);
+		return encode(documentCodec, document);
+	}
+
+
+	@Benchmark
+	public BsonDocument encodeWithCodec() {
+		return encode(jobCodec, job);
+	}
+
+
+	@Benchmark
+	public Job decodeWithConverter() {
+		Document document = documentCodec.decode(new BsonDocumentReader(jobBson), DecoderContext.builder().build());
+		return converter.read(Job.class, document);
+	}
+
+
+	@Benchmark
+	public Job decodeWithCodec() {
+		return jobCodec.decode(new BsonDocumentReader(jobBson), DecoderContext.builder().build());
+	}
+
+
+	@Benchmark
+	public BsonDocument encodeExecutionWithConverter() {
+		Document document = new Document();
+		converter.write(jobExecution, document);
+		return encode(documentCodec, document);
+	}
+
+
+	@Benchmark
+	public BsonDocument encodeExecutionWithCodec() {
+		return encode(jobExecutionCodec, jobExecution);
+	}
+
+
+	private static <T> BsonDocument encode(Codec<T> codec, T value) {
+		BsonDocument document = new BsonDocument();
+		codec.encode(new BsonDocumentWriter(document), value, EncoderContext.builder().build());
+		return document;
+	}
+
+
+	@WritingConverter
+	static class ZonedDateTimeToDate implements Converter<ZonedDateTime, Date> {
+		@Override
+		public Date convert(ZonedDateTime source) {
+			return Date.from(source.toInstant());
+		}
+	}
+
+
+	@ReadingConverter
+	static class DateToZonedDateTime implements Converter<Date, ZonedDateTime> {
+		@Override
+		public ZonedDateTime convert(Date source) {
+			return source.toInstant().atZone(ZoneId.systemDefault());
+		}
+	}
+
+
+}
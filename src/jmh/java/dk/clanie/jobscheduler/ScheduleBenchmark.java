@@ -0,0 +1,104 @@
+/*
+ * Copyright (C) 2026, Claus Nielsen, clausn999@gmail.com
+ *
+ * This program is free software; you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation; either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License along
+ * with this program; if not, write to the Free Software Foundation, Inc.,
+ * 51 Franklin Street, Fifth Floor, Boston, MA 02110-1301 USA.
+ */
+package dk.clanie.jobscheduler;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.ZoneId;
+import java.time.ZonedDateTime;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Calculation of next execution times for each kind of JobSchedule, one at a time and in bulk.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Benchmark)
+public class ScheduleBenchmark {
+
+	private final Clock clock = Clock.systemDefaultZone();
+	private Job job;
+	private JobSchedule cron;
+	private JobSchedule zonedCron;
+	private JobSchedule delay;
+	private JobSchedule rate;
+
+
+	@Setup
+	public void setup() {
+		job = BenchmarkJobs.job(UUID.randomUUID());
+		cron = JobSchedule.cron("0 */5 8-17 * * MON-FRI");
+		zonedCron = JobSchedule.cron("0 */5 8-17 * * MON-FRI", ZoneId.of("America/New_York"));
+		delay = JobSchedule.delay(Duration.ofMinutes(5));
+		rate = new JobSchedule.Rate(Duration.ofMinutes(5), ZonedDateTime.now().minusDays(30), Duration.ofMinutes(1));
+	}
+
+
+	@Benchmark
+	public ZonedDateTime cron() {
+		return cron.calculateNextExecution(job, clock);
+	}
+
+
+	@Benchmark
+	public ZonedDateTime zonedCron() {
+		return zonedCron.calculateNextExecution(job, clock);
+	}
+
+
+	@Benchmark
+	public List<ZonedDateTime> cronNext100() {
+		return cron.nextExecutions(job, ZonedDateTime.now(clock), 100);
+	}
+
+
+	@Benchmark
+	public List<ZonedDateTime> rateNext100() {
+		return rate.nextExecutions(job, ZonedDateTime.now(clock), 100);
+	}
+
+
+	@Benchmark
+	public ZonedDateTime delay() {
+		return delay.calculateNextExecution(job, clock);
+	}
+
+
+	@Benchmark
+	public ZonedDateTime rate() {
+		return rate.calculateNextExecution(job, clock);
+	}
+
+
+}
@@ -0,0 +1,333 @@
+/*
+ * Copyright (C) 2026, Claus Nielsen, clausn999@gmail.com
+ *
+ * This program is free software; you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation; either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License along
+ * with this program; if not, write to the Free Software Foundation, Inc.,
+ * 51 Franklin Street, Fifth Floor, Boston, MA 02110-1301 USA.
+ */
+package dk.clanie.jobscheduler;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.time.ZoneId;
+import java.time.ZonedDateTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.PriorityQueue;
+import java.util.Random;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+/**
+ * Simulates scheduling of many Jobs on several nodes in virtual time, for capacity planning.
+ * <p>
+ * A discrete event simulation of the JobScheduler loop against a shared in-memory JobStore using a
+ * {@link SimulatedClock}: each node claims as many due Jobs as it has free permits, and when nothing is due,
+ * sleeps until the next planned execution, at most the poll interval. Jobs run for an exponentially distributed
+ * time around a mean specific to each Job. Nodes waking at the same instant claim concurrently on separate threads, so claim contention is real.
+ * <p>
+ * Reports dispatch lag (time from a Job's planned execution until it is claimed) percentiles and claim contention.
+ * <p>
+ * Run with: {@code mvn -P benchmarks test-compile exec:java -Dexec.classpathScope=test
+ * -Dexec.mainClass=dk.clanie.jobscheduler.SchedulingSimulation -Dexec.args="jobs=100000 nodes=4"}.
+ * See {@link Settings} for the arguments.
+ */
+public class SchedulingSimulation {
+
+	private static final ClaimCriteria CLAIM_CRITERIA = ClaimCriteria.matching(Arrays.asList(null, ""));
+
+
+	/**
+	 * Simulation settings, given as name=value arguments.
+	 *
+	 * @param jobs number of Jobs
+	 * @param nodes number of scheduler nodes
+	 * @param maxParallelJobs permits per node, as jobScheduler.maxParallelJobs
+	 * @param pollInterval maximum sleep when no Jobs are due, as jobScheduler.pollInterval
+	 * @param simulatedTime virtual time to simulate
+	 * @param meanJobDuration mean Job execution time - each Job's mean is drawn from an exponential distribution with this mean
+	 * @param spread spread of cron scheduled Jobs, as ScheduledJob.spread - PT0S for none
+	 * @param dispatchPolicy order of Jobs due at the same time, as jobScheduler.dispatchPolicy
+	 * @param seed random seed, for repeatable runs
+	 */
+	record Settings(int jobs, int nodes, int maxParallelJobs, Duration pollInterval, Duration simulatedTime, Duration meanJobDuration,
+			Duration spread, DispatchPolicy dispatchPolicy, long seed) {
+
+		static Settings parse(String... args) {
+			Map<String, String> values = new HashMap<>();
+			for (String arg : args) {
+				String[] nameAndValue = arg.split("=", 2);
+				if (nameAndValue.length != 2) throw new IllegalArgumentException("Expected name=value, got " + arg);
+				values.put(nameAndValue[0], nameAndValue[1]);
+			}
+			return new Settings(
+					Integer.parseInt(values.getOrDefault("jobs", "100000")),
+					Integer.parseInt(values.getOrDefault("nodes", "4")),
+					Integer.parseInt(values.getOrDefault("maxParallelJobs", "64")),
+					Duration.parse(values.getOrDefault("pollInterval", "PT1M")),
+					Duration.parse(values.getOrDefault("simulatedTime", "PT24H")),
+					Duration.parse(values.getOrDefault("meanJobDuration", "PT0.5S")),
+					Duration.parse(values.getOrDefault("spread", "PT0S")),
+					DispatchPolicy.valueOf(values.getOrDefault("dispatchPolicy", "NEXT_EXECUTION")),
+					Long.parseLong(values.getOrDefault("seed", "42")));
+		}
+
+	}
+
+
+	/**
+	 * A simulated scheduler node.
+	 */
+	private static final class Node {
+		private int freePermits;
+		private long wakeupAt;
+		private List<Job> claimed = List.of();
+
+		private Node(int permits) {
+			this.freePermits = permits;
+		}
+	}
+
+
+	/**
+	 * A node waking up, or - if job is not null - a Job completing on a node.
+	 */
+	private record Event(long time, long sequence, Node node, Job job) {
+	}
+
+
+	private final Settings settings;
+	private final SimulatedClock clock;
+	private final InMemoryJobStore jobStore;
+	private final Random random;
+	private final PriorityQueue<Event> events = new PriorityQueue<>((a, b) -> a.time() != b.time()
+			? Long.compare(a.time(), b.time())
+			: Long.compare(a.sequence(), b.sequence()));
+	private long eventSequence;
+
+	private final Map<UUID, Long> meanDurations = new HashMap<>();
+	private final LagHistogram lag = new LagHistogram();
+	private long polls;
+	private long emptyPolls;
+
+
+	SchedulingSimulation(Settings settings) {
+		this.settings = settings;
+		this.clock = new SimulatedClock(Instant.parse("2026-01-05T00:00:00Z"), ZoneId.of("UTC"));
+		this.jobStore = new InMemoryJobStore(1000, clock);
+		this.random = new Random(settings.seed());
+	}
+
+
+	public static void main(String[] args) throws Exception {
+		Settings settings = Settings.parse(args);
+		long started = System.nanoTime();
+		SchedulingSimulation simulation = new SchedulingSimulation(settings);
+		simulation.createJobs();
+		simulation.run();
+		System.out.printf("Simulated %s of %d jobs on %d nodes with %d parallel jobs each in %.1f s.%n",
+				settings.simulatedTime(), settings.jobs(), settings.nodes(), settings.maxParallelJobs(),
+				(System.nanoTime() - started) / 1e9);
+		simulation.report();
+	}
+
+
+	/**
+	 * Creates Jobs with a mix of schedules: fixed rates, fixed delays, and cron schedules firing on the hour or quarter hour.
+	 */
+	void createJobs() {
+		ZonedDateTime now = ZonedDateTime.now(clock);
+		Duration[] durations = { Duration.ofMinutes(1), Duration.ofMinutes(5), Duration.ofMinutes(15), Duration.ofHours(1), Duration.ofHours(6) };
+		UUID tenantId = UUID.randomUUID();
+		for (int i = 0; i < settings.jobs(); i++) {
+			Duration duration = durations[random.nextInt(durations.length)];
+			JobSchedule schedule = switch (random.nextInt(5)) {
+			case 0, 1 -> new JobSchedule.Rate(duration, now.minus(Duration.ofMillis(random.nextLong(duration.toMillis()))), null);
+			case 2, 3 -> JobSchedule.delay(duration);
+			default -> JobSchedule.cron(random.nextBoolean() ? "0 0 * * * *" : "0 */15 * * * *", null, settings.spread());
+			};
+			Job job = new Job(tenantId, "simulation", new JobName("simulatedJobs", "job" + i), schedule, clock);
+			jobStore.save(job);
+			meanDurations.put(job.getId(), exponential(settings.meanJobDuration().toMillis()));
+		}
+	}
+
+
+	void run() throws InterruptedException {
+		List<Node> nodes = new ArrayList<>();
+		for (int i = 0; i < settings.nodes(); i++) {
+			Node node = new Node(settings.maxParallelJobs());
+			nodes.add(node);
+			wakeup(node, clock.millis());
+		}
+		long end = clock.millis() + settings.simulatedTime().toMillis();
+		try (ExecutorService executor = Executors.newFixedThreadPool(settings.nodes())) {
+			while (!events.isEmpty() && events.peek().time() <= end) {
+				long now = events.peek().time();
+				clock.advanceTo(now);
+				Set<Node> woken = new LinkedHashSet<>();
+				while (!events.isEmpty() && events.peek().time() == now) {
+					Event event = events.poll();
+					if (event.job() != null) {
+						complete(event.job());
+						// A node blocked waiting for a permit wakes up when one is released
+						if (event.node().freePermits++ == 0) woken.add(event.node());
+					} else if (event.node().wakeupAt == now) {
+						woken.add(event.node());
+					}
+				}
+				claim(woken, executor);
+				for (Node node : woken) {
+					dispatch(node, now);
+				}
+			}
+		}
+	}
+
+
+	/**
+	 * Lets the woken nodes claim Jobs, concurrently if more than one.
+	 */
+	private void claim(Set<Node> woken, ExecutorService executor) throws InterruptedException {
+		polls += woken.size();
+		if (woken.size() == 1) {
+			Node node = woken.iterator().next();
+			node.claimed = jobStore.popForExecution(claimCriteria(node), node.freePermits);
+			return;
+		}
+		List<Callable<Void>> claims = woken.stream()
+				.map(node -> (Callable<Void>) () -> {
+					node.claimed = jobStore.popForExecution(claimCriteria(node), node.freePermits);
+					return null;
+				})
+				.toList();
+		executor.invokeAll(claims);
+	}
+
+
+	private ClaimCriteria claimCriteria(Node node) {
+		return CLAIM_CRITERIA.withOrder(settings.dispatchPolicy().order(node.freePermits, settings.maxParallelJobs()));
+	}
+
+
+	/**
+	 * Starts the Jobs claimed by a node, and plans when the node polls again, like JobScheduler.
+	 */
+	private void dispatch(Node node, long now) {
+		for (Job job : node.claimed) {
+			lag.record(now - job.getNextExecution().toInstant().toEpochMilli());
+			node.freePermits--;
+			long duration = exponential(meanDurations.get(job.getId()));
+			events.add(new Event(now + duration, eventSequence++, node, job));
+		}
+		if (node.claimed.isEmpty()) {
+			emptyPolls++;
+			long sleep = jobStore.findNextExecutionTime(CLAIM_CRITERIA)
+					.map(next -> Math.min(next.toInstant().toEpochMilli() - now, settings.pollInterval().toMillis()))
+					.orElse(settings.pollInterval().toMillis());
+			wakeup(node, now + Math.max(1, sleep));
+		} else if (node.freePermits > 0) {
+			wakeup(node, now);
+		} else {
+			node.wakeupAt = Long.MAX_VALUE; // Blocked until a Job completes
+		}
+		node.claimed = List.of();
+	}
+
+
+	/**
+	 * Draws a duration, of at least 1 ms, from an exponential distribution with the given mean.
+	 */
+	private long exponential(long mean) {
+		return Math.max(1, (long) (-Math.log(1 - random.nextDouble()) * mean));
+	}
+
+
+	private void wakeup(Node node, long time) {
+		node.wakeupAt = time;
+		events.add(new Event(time, eventSequence++, node, null));
+	}
+
+
+	/**
+	 * Completes a Job, like JobExecutionService.
+	 */
+	private void complete(Job job) {
+		JobExecution jobExecution = JobExecution.of(job, true, null);
+		job.registerCompletedSuccessfully(clock);
+		jobStore.complete(job, jobExecution);
+	}
+
+
+	void report() {
+		System.out.printf("Dispatches: %d, dispatch lag mean: %s, p50: %s, p90: %s, p99: %s, p99.9: %s, max: %s%n",
+				lag.count(), lag.mean(), lag.percentile(50), lag.percentile(90), lag.percentile(99), lag.percentile(99.9), lag.max());
+		System.out.printf("Polls: %d, of which %d found no due jobs. Claim conflicts (races lost to other nodes): %d%n",
+				polls, emptyPolls, jobStore.getClaimConflicts());
+	}
+
+
+	/**
+	 * Histogram of dispatch lag with 10 ms resolution up to one hour.
+	 */
+	private static final class LagHistogram {
+
+		private static final long RESOLUTION = 10;
+		private final long[] counts = new long[(int) (Duration.ofHours(1).toMillis() / RESOLUTION) + 1];
+		private long count;
+		private long sum;
+		private long max;
+
+		void record(long lagMillis) {
+			long lag = Math.max(0, lagMillis);
+			counts[(int) Math.min(lag / RESOLUTION, counts.length - 1)]++;
+			count++;
+			sum += lag;
+			max = Math.max(max, lag);
+		}
+
+		long count() {
+			return count;
+		}
+
+		Duration mean() {
+			return Duration.ofMillis(count == 0 ? 0 : sum / count);
+		}
+
+		Duration max() {
+			return Duration.ofMillis(max);
+		}
+
+		Duration percentile(double percentile) {
+			long rank = (long) Math.ceil(count * percentile / 100);
+			long seen = 0;
+			for (int i = 0; i < counts.length; i++) {
+				seen += counts[i];
+				if (seen >= rank && seen > 0) {
+					return i == counts.length - 1 ? max() : Duration.ofMillis(i * RESOLUTION);
+				}
+			}
+			return Duration.ZERO;
+		}
+
+	}
+
+
+}
@@ -0,0 +1,80 @@
+/*
+ * Copyright (C) 2026, Claus Nielsen, clausn999@gmail.com
+ *
+ * This program is free software; you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation; either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License along
+ * with this program; if not, write to the Free Software Foundation, Inc.,
+ * 51 Franklin Street, Fifth Floor, Boston, MA 02110-1301 USA.
+ */
+package dk.clanie.jobscheduler;
+
+import java.time.Clock;
+import java.time.Instant;
+import java.time.ZoneId;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Clock showing virtual time, which only moves when advanced.
+ */
+public class SimulatedClock extends Clock {
+
+	private final AtomicLong millis;
+	private final ZoneId zone;
+
+
+	public SimulatedClock(Instant start, ZoneId zone) {
+		this(new AtomicLong(start.toEpochMilli()), zone);
+	}
+
+
+	private SimulatedClock(AtomicLong millis, ZoneId zone) {
+		this.millis = millis;
+		this.zone = zone;
+	}
+
+
+	/**
+	 * Moves the clock forward to given time; the clock never moves backwards.
+	 */
+	public void advanceTo(long epochMillis) {
+		millis.accumulateAndGet(epochMillis, Math::max);
+	}
+
+
+	@Override
+	public long millis() {
+		return millis.get();
+	}
+
+
+	@Override
+	public Instant instant() {
+		return Instant.ofEpochMilli(millis.get());
+	}
+
+
+	@Override
+	public ZoneId getZone() {
+		return zone;
+	}
+
+
+	/**
+	 * Returns a clock in given zone, sharing this clock's time.
+	 */
+	@Override
+	public Clock withZone(ZoneId zone) {
+		return new SimulatedClock(millis, zone);
+	}
+
+
+}
@@ -0,0 +1,142 @@
+/*
+ * Copyright (C) 2026, Claus Nielsen, clausn999@gmail.com
+ *
+ * This program is free software; you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation; either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License along
+ * with this program; if not, write to the Free Software Foundation, Inc.,
+ * 51 Franklin Street, Fifth Floor, Boston, MA 02110-1301 USA.
+ */
+package dk.clanie.jobscheduler;
+
+import java.time.Duration;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.Semaphore;
+
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Permits for parallel job executions, with a limit which adapts to the observed job latency and errors.
+ * <p>
+ * The limit is adjusted with AIMD (additive increase, multiplicative decrease): it is multiplied by the backoff ratio
+ * when an execution fails, or takes more than latencyTolerance times the usual duration of that job, and otherwise
+ * grows by one for each limit's worth of executions completed while at least half of the permits are in use.
+ * Jobs differ widely in duration, so latency is compared per job, against an exponentially weighted moving average
+ * of its earlier durations.
+ * <p>
+ * The limit stays within the configured bounds. When it is reduced below the number of permits in use, the surplus
+ * is withheld as the executions complete.
+ */
+@Slf4j
+public class AdaptiveConcurrencyLimit extends Semaphore {
+
+	private static final long serialVersionUID = 1L;
+
+	private static final double SMOOTHING = 0.2;
+
+	private final int minLimit;
+	private final int maxLimit;
+	private final double backoffRatio;
+	private final double latencyTolerance;
+
+	private final transient Map<JobName, Double> usualDurations = new HashMap<>();
+	private double estimatedLimit;
+	private int limit;
+	private int withheld; // Permits to withhold as they are released, because the limit was reduced while they were in use
+
+
+	/**
+	 * @param initialLimit limit to start with
+	 * @param minLimit lower bound of the limit
+	 * @param maxLimit upper bound of the limit
+	 * @param backoffRatio factor, between 0 and 1, to multiply the limit by when an execution is slow or fails
+	 * @param latencyTolerance how many times its usual duration an execution may take before it is considered slow
+	 */
+	public AdaptiveConcurrencyLimit(int initialLimit, int minLimit, int maxLimit, double backoffRatio, double latencyTolerance) {
+		super(Math.clamp(initialLimit, minLimit, maxLimit));
+		if (minLimit < 1 || maxLimit < minLimit) throw new IllegalArgumentException("Invalid limit bounds: " + minLimit + "-" + maxLimit);
+		this.minLimit = minLimit;
+		this.maxLimit = maxLimit;
+		this.backoffRatio = backoffRatio;
+		this.latencyTolerance = latencyTolerance;
+		this.limit = availablePermits();
+		this.estimatedLimit = limit;
+	}
+
+
+	/**
+	 * Returns the current limit on parallel job executions.
+	 */
+	public synchronized int getLimit() {
+		return limit;
+	}
+
+
+	/**
+	 * Adjusts the limit according to a completed execution.
+	 * <p>
+	 * Must be called before the execution's permit is released.
+	 *
+	 * @param name name of the executed job
+	 * @param duration duration of the execution
+	 * @param succeeded whether the execution succeeded
+	 */
+	public synchronized void onCompleted(JobName name, Duration duration, boolean succeeded) {
+		double nanos = duration.toNanos();
+		Double usualDuration = usualDurations.get(name);
+		usualDurations.put(name, usualDuration == null ? nanos : usualDuration + SMOOTHING * (nanos - usualDuration));
+		boolean slow = usualDuration != null && nanos > usualDuration * latencyTolerance;
+		if (!succeeded || slow) {
+			estimatedLimit = Math.max(minLimit, estimatedLimit * backoffRatio);
+		} else if (2 * (limit - withheld - availablePermits()) >= limit) {
+			estimatedLimit = Math.min(maxLimit, estimatedLimit + 1 / estimatedLimit);
+		}
+		resize((int) estimatedLimit);
+	}
+
+
+	@Override
+	public void release() {
+		release(1);
+	}
+
+
+	@Override
+	public void release(int permits) {
+		synchronized (this) {
+			int withhold = Math.min(withheld, permits);
+			withheld -= withhold;
+			permits -= withhold;
+		}
+		if (permits > 0) super.release(permits);
+	}
+
+
+	private void resize(int newLimit) {
+		if (newLimit == limit) return;
+		log.debug("Changing limit on parallel jobs from {} to {}.", limit, newLimit);
+		if (newLimit > limit) {
+			int increase = newLimit - limit;
+			int unwithheld = Math.min(withheld, increase);
+			withheld -= unwithheld;
+			if (increase > unwithheld) super.release(increase - unwithheld);
+		} else {
+			int decrease = limit - newLimit;
+			int taken = 0;
+			while (taken < decrease && tryAcquire()) taken++;
+			withheld += decrease - taken;
+		}
+		limit = newLimit;
+	}
+
+
+}
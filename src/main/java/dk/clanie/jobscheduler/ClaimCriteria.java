@@ -0,0 +1,173 @@
+/*
+ * Copyright (C) 2026, Claus Nielsen, clausn999@gmail.com
+ *
+ * This program is free software; you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation; either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License along
+ * with this program; if not, write to the Free Software Foundation, Inc.,
+ * 51 Franklin Street, Fifth Floor, Boston, MA 02110-1301 USA.
+ */
+package dk.clanie.jobscheduler;
+
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.HashSet;
+import java.util.Set;
+
+/**
+ * Criteria a node applies when claiming Jobs, in addition to the Job being enabled, not running and due.
+ *
+ * @param matchProfiles profile values to match against the Jobs' profile
+ * @param excludeDeferrable whether to leave Jobs marked deferrable unclaimed, eg. because the node is under load
+ * @param maxWeight maximum weight of the Jobs, eg. the node's free permits for parallel job executions
+ * @param weightLimit weight counted for Jobs heavier than it, eg. the node's limit on parallel job executions,
+ *        so such Jobs take all the node's permits instead of never being claimed - see {@link #weightOf(Job)}
+ * @param order order of Jobs due at the same time
+ * @param excludedLockGroups lock groups to leave Jobs unclaimed in, because the groups are known to be full
+ * @param excludedRateLimits rate limit buckets to leave Jobs unclaimed in, because the buckets are known to be empty
+ * @param nodeLabels labels of the node, to match the Jobs' label selectors against
+ * @param excludedLabelRequirements label requirements of Jobs to leave unclaimed, because the node is known not to satisfy them
+ */
+public record ClaimCriteria(
+		Collection<String> matchProfiles,
+		boolean excludeDeferrable,
+		int maxWeight,
+		int weightLimit,
+		Order order,
+		Set<String> excludedLockGroups,
+		Set<String> excludedRateLimits,
+		NodeLabels nodeLabels,
+		Set<String> excludedLabelRequirements) {
+
+
+	/**
+	 * Order in which Jobs due at the same time are claimed - Jobs are always claimed in order of next execution first.
+	 */
+	public enum Order {
+
+		/** No particular order. */
+		NEXT_EXECUTION(null),
+
+		/** Shortest {@link Job#getAverageDurationMillis() average duration} first. */
+		SHORTEST_FIRST(Comparator.comparingLong(Job::getAverageDurationMillis)),
+
+		/** Longest {@link Job#getAverageDurationMillis() average duration} first. */
+		LONGEST_FIRST(Comparator.comparingLong(Job::getAverageDurationMillis).reversed());
+
+		private final Comparator<Job> comparator;
+
+		Order(Comparator<Job> comparator) {
+			this.comparator = comparator;
+		}
+
+		/**
+		 * Returns the order of Jobs due at the same time, or null if there is no particular order.
+		 */
+		public Comparator<Job> comparator() {
+			return comparator;
+		}
+
+	}
+
+
+	public static ClaimCriteria matching(Collection<String> matchProfiles) {
+		return new ClaimCriteria(matchProfiles, false, Integer.MAX_VALUE, Integer.MAX_VALUE, Order.NEXT_EXECUTION, Set.of(), Set.of(), NodeLabels.NONE, Set.of());
+	}
+
+
+	public ClaimCriteria withExcludeDeferrable(boolean excludeDeferrable) {
+		return excludeDeferrable == this.excludeDeferrable ? this : new ClaimCriteria(matchProfiles, excludeDeferrable, maxWeight, weightLimit, order, excludedLockGroups, excludedRateLimits, nodeLabels, excludedLabelRequirements);
+	}
+
+
+	public ClaimCriteria withMaxWeight(int maxWeight) {
+		return maxWeight == this.maxWeight ? this : new ClaimCriteria(matchProfiles, excludeDeferrable, maxWeight, weightLimit, order, excludedLockGroups, excludedRateLimits, nodeLabels, excludedLabelRequirements);
+	}
+
+
+	public ClaimCriteria withWeightLimit(int weightLimit) {
+		return weightLimit == this.weightLimit ? this : new ClaimCriteria(matchProfiles, excludeDeferrable, maxWeight, weightLimit, order, excludedLockGroups, excludedRateLimits, nodeLabels, excludedLabelRequirements);
+	}
+
+
+	public ClaimCriteria withOrder(Order order) {
+		return order == this.order ? this : new ClaimCriteria(matchProfiles, excludeDeferrable, maxWeight, weightLimit, order, excludedLockGroups, excludedRateLimits, nodeLabels, excludedLabelRequirements);
+	}
+
+
+	public ClaimCriteria withExcludedLockGroup(String lockGroup) {
+		Set<String> lockGroups = new HashSet<>(excludedLockGroups);
+		lockGroups.add(lockGroup);
+		return new ClaimCriteria(matchProfiles, excludeDeferrable, maxWeight, weightLimit, order, Set.copyOf(lockGroups), excludedRateLimits, nodeLabels, excludedLabelRequirements);
+	}
+
+
+	public ClaimCriteria withExcludedRateLimit(String bucket) {
+		Set<String> buckets = new HashSet<>(excludedRateLimits);
+		buckets.add(bucket);
+		return new ClaimCriteria(matchProfiles, excludeDeferrable, maxWeight, weightLimit, order, excludedLockGroups, Set.copyOf(buckets), nodeLabels, excludedLabelRequirements);
+	}
+
+
+	/**
+	 * Returns criteria for a node with the given labels, leaving Jobs with any of the given label requirements unclaimed.
+	 *
+	 * @param requirements label requirements of Jobs - those not satisfied by the node are excluded
+	 */
+	public ClaimCriteria withNodeLabels(NodeLabels nodeLabels, Collection<String> requirements) {
+		return new ClaimCriteria(matchProfiles, excludeDeferrable, maxWeight, weightLimit, order, excludedLockGroups, excludedRateLimits,
+				nodeLabels, Set.copyOf(nodeLabels.unsatisfied(requirements)));
+	}
+
+
+	/**
+	 * Returns criteria also excluding the label requirements of a Job which the node doesn't satisfy.
+	 */
+	public ClaimCriteria withExcludedLabelRequirementsOf(Job job) {
+		Set<String> requirements = new HashSet<>(excludedLabelRequirements);
+		requirements.addAll(nodeLabels.unsatisfied(job.getLabelSelector()));
+		return new ClaimCriteria(matchProfiles, excludeDeferrable, maxWeight, weightLimit, order, excludedLockGroups, excludedRateLimits,
+				nodeLabels, Set.copyOf(requirements));
+	}
+
+
+	/**
+	 * Returns the weight a Job counts with - its weight, but at most the weightLimit.
+	 */
+	public int weightOf(Job job) {
+		return Math.min(job.getWeight(), weightLimit);
+	}
+
+
+	/**
+	 * Tests whether the Jobs' weight is limited by these criteria.
+	 * <p>
+	 * When it is, the Jobs selected are those with a weight of at most maxWeight, as maxWeight is then below the weightLimit.
+	 */
+	public boolean limitsWeight() {
+		return maxWeight < weightLimit;
+	}
+
+
+	/**
+	 * Tests whether a Job, which is otherwise claimable, matches these criteria.
+	 */
+	public boolean matches(Job job) {
+		return matchProfiles.contains(job.getProfile())
+				&& !(excludeDeferrable && job.isDeferrable())
+				&& weightOf(job) <= maxWeight
+				&& (job.getLockGroup() == null || !excludedLockGroups.contains(job.getLockGroup()))
+				&& (job.getRateLimit() == null || !excludedRateLimits.contains(job.getRateLimit().bucket()))
+				&& nodeLabels.satisfies(job);
+	}
+
+
+}
@@ -0,0 +1,57 @@
+/*
+ * Copyright (C) 2026, Claus Nielsen, clausn999@gmail.com
+ *
+ * This program is free software; you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation; either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License along
+ * with this program; if not, write to the Free Software Foundation, Inc.,
+ * 51 Franklin Street, Fifth Floor, Boston, MA 02110-1301 USA.
+ */
+package dk.clanie.jobscheduler;
+
+import static java.nio.charset.StandardCharsets.UTF_8;
+
+import java.util.Base64;
+import java.util.Date;
+import java.util.UUID;
+
+/**
+ * Position of the last element of a {@link CursorPage}, ie. the sort key value and id.
+ * <p>
+ * Encoded as an url-safe string which clients should treat as opaque.
+ *
+ * @param position sort key value of the last element, may be null
+ * @param id id of the last element
+ */
+record ContinuationToken(Date position, UUID id) {
+
+
+	String encode() {
+		String plain = (position == null ? "-" : Long.toString(position.getTime())) + ':' + id;
+		return Base64.getUrlEncoder().withoutPadding().encodeToString(plain.getBytes(UTF_8));
+	}
+
+
+	static ContinuationToken decode(String token) {
+		try {
+			String plain = new String(Base64.getUrlDecoder().decode(token), UTF_8);
+			int separator = plain.indexOf(':');
+			String position = plain.substring(0, separator);
+			return new ContinuationToken(
+					position.equals("-") ? null : new Date(Long.parseLong(position)),
+					UUID.fromString(plain.substring(separator + 1)));
+		} catch (IllegalArgumentException | IndexOutOfBoundsException e) {
+			throw new IllegalArgumentException("Invalid continuation token: " + token, e);
+		}
+	}
+
+
+}
@@ -0,0 +1,66 @@
+/*
+ * Copyright (C) 2026, Claus Nielsen, clausn999@gmail.com
+ *
+ * This program is free software; you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation; either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License along
+ * with this program; if not, write to the Free Software Foundation, Inc.,
+ * 51 Franklin Street, Fifth Floor, Boston, MA 02110-1301 USA.
+ */
+package dk.clanie.jobscheduler;
+
+import java.util.List;
+import java.util.function.Function;
+
+/**
+ * A page of results from a keyset (cursor) paginated query.
+ * <p>
+ * Pass {@link #continuationToken()} to the next call to fetch the following page.
+ * The token is opaque and only valid for the query it was returned from.
+ *
+ * @param content the results on this page
+ * @param continuationToken token for fetching the next page, or null if this is the last page
+ * @param totalCount total number of matching results, or null if not requested
+ */
+public record CursorPage<T>(
+		List<T> content,
+		String continuationToken,
+		Long totalCount) {
+
+
+	public boolean hasNext() {
+		return continuationToken != null;
+	}
+
+
+	/**
+	 * Creates a page from the result of a query fetching one more element than the page size.
+	 * <p>
+	 * The extra element only tells whether there is a next page - it is not included in the content.
+	 */
+	static <T> CursorPage<T> of(List<T> fetched, int size, Function<T, ContinuationToken> tokenOf, Long totalCount) {
+		return ofEncoded(fetched, size, element -> tokenOf.apply(element).encode(), totalCount);
+	}
+
+
+	/**
+	 * Like {@link #of(List, int, Function, Long)}, for stores with their own encoding of continuation tokens.
+	 */
+	static <T> CursorPage<T> ofEncoded(List<T> fetched, int size, Function<T, String> encodedTokenOf, Long totalCount) {
+		if (fetched.size() <= size) {
+			return new CursorPage<>(fetched, null, totalCount);
+		}
+		List<T> content = fetched.subList(0, size);
+		return new CursorPage<>(content, encodedTokenOf.apply(content.getLast()), totalCount);
+	}
+
+
+}
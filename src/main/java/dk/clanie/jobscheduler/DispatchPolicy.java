@@ -0,0 +1,62 @@
+/*
+ * Copyright (C) 2026, Claus Nielsen, clausn999@gmail.com
+ *
+ * This program is free software; you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation; either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License along
+ * with this program; if not, write to the Free Software Foundation, Inc.,
+ * 51 Franklin Street, Fifth Floor, Boston, MA 02110-1301 USA.
+ */
+package dk.clanie.jobscheduler;
+
+import dk.clanie.jobscheduler.ClaimCriteria.Order;
+
+/**
+ * Policy for which of the Jobs due at the same time a node claims first, based on the Jobs' average duration.
+ * <p>
+ * Set with {@code jobScheduler.dispatchPolicy}.
+ */
+public enum DispatchPolicy {
+
+	/**
+	 * Jobs due at the same time are claimed in no particular order.
+	 */
+	NEXT_EXECUTION,
+
+	/**
+	 * Jobs due at the same time are claimed shortest first, which minimizes the mean dispatch lag
+	 * when many Jobs are due at once, eg. at the top of the hour.
+	 */
+	SHORTEST_FIRST,
+
+	/**
+	 * A node with at least half of its permits free claims the longest Jobs first, and a busier node the shortest first,
+	 * so long Jobs are packed onto nodes with spare capacity, and don't hold up the short ones.
+	 */
+	PACKING;
+
+
+	/**
+	 * Returns the order in which a node should claim Jobs due at the same time.
+	 *
+	 * @param freePermits the node's free permits
+	 * @param limit the node's limit on parallel job executions
+	 */
+	public Order order(int freePermits, int limit) {
+		return switch (this) {
+		case NEXT_EXECUTION -> Order.NEXT_EXECUTION;
+		case SHORTEST_FIRST -> Order.SHORTEST_FIRST;
+		case PACKING -> 2 * freePermits >= limit ? Order.LONGEST_FIRST : Order.SHORTEST_FIRST;
+		};
+	}
+
+
+}
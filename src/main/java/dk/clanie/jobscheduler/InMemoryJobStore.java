@@ -0,0 +1,980 @@
+/*
+ * Copyright (C) 2026, Claus Nielsen, clausn999@gmail.com
+ *
+ * This program is free software; you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation; either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License along
+ * with this program; if not, write to the Free Software Foundation, Inc.,
+ * 51 Franklin Street, Fifth Floor, Boston, MA 02110-1301 USA.
+ */
+package dk.clanie.jobscheduler;
+
+import static java.nio.charset.StandardCharsets.UTF_8;
+import static org.apache.commons.lang3.BooleanUtils.isFalse;
+import static org.apache.commons.lang3.BooleanUtils.isTrue;
+import static org.apache.commons.lang3.StringUtils.isNotBlank;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.ZonedDateTime;
+import java.util.ArrayList;
+import java.util.Base64;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.Date;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.NavigableSet;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.Set;
+import java.util.TreeSet;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentNavigableMap;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.concurrent.ConcurrentSkipListSet;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Predicate;
+import java.util.stream.Stream;
+
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.Pageable;
+
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * {@link JobStore} keeping Jobs and JobExecutions in memory.
+ * <p>
+ * For single-node deployments, tests and benchmarks - nothing is persisted, and nothing is
+ * coordinated with other nodes.
+ * <p>
+ * Jobs ready to be scheduled are kept in a skip list ordered by nextExecution, and are claimed by
+ * compare-and-set on the Job's claim reference, so claiming never blocks. Mutations of a single Job
+ * synchronize on its entry, and re-index it in the skip list.
+ * <p>
+ * Jobs are copied when saved and when returned, so callers can't modify the stored Jobs.
+ * <p>
+ * Only the latest {@code maxExecutions} JobExecutions are kept.
+ */
+@Slf4j
+public class InMemoryJobStore implements JobStore {
+
+
+	/**
+	 * Position of a Job in the skip list of Jobs ready to be scheduled.
+	 */
+	private record DueKey(long nextExecution, UUID id) implements Comparable<DueKey> {
+
+		private static final Comparator<DueKey> ORDER = Comparator.comparingLong(DueKey::nextExecution).thenComparing(DueKey::id);
+
+		@Override
+		public int compareTo(DueKey other) {
+			return ORDER.compare(this, other);
+		}
+
+	}
+
+
+	private static final class Entry {
+
+		private volatile Job job;
+
+		/**
+		 * The jobExecutionId of the running execution, if any.
+		 */
+		private final AtomicReference<UUID> claim = new AtomicReference<>();
+
+		/**
+		 * Key in the skip list of Jobs ready to be scheduled, if present there. Guarded by this.
+		 */
+		private DueKey dueKey;
+
+		private Entry(Job job) {
+			this.job = job;
+		}
+
+	}
+
+
+	/**
+	 * JobExecution fields exported by {@link #streamExecutionsAsJson(UUID, Instant, Instant, Collection)}, named as in MongoDB.
+	 */
+	private static final List<String> EXPORTED_FIELDS = List.of(
+			"_id", "tenantId", "jobId", "success", "stackTrace", "executionCount", "failureCount", "createdDate");
+
+	private static final Comparator<Long> NULLS_FIRST = Comparator.nullsFirst(Comparator.naturalOrder());
+
+	/**
+	 * Order of Jobs in listings, same as in MongoDB where null sorts before any date.
+	 */
+	private static final Comparator<Job> JOB_ORDER = Comparator
+			.comparing(InMemoryJobStore::epochMillis, NULLS_FIRST)
+			.thenComparing(Job::getId);
+
+
+	private final Map<UUID, Entry> entries = new ConcurrentHashMap<>();
+	private final ConcurrentSkipListSet<DueKey> due = new ConcurrentSkipListSet<>();
+	private final Object reconcileLock = new Object();
+
+	private final ConcurrentSkipListMap<Long, RecordedExecution> executions = new ConcurrentSkipListMap<>();
+	private final Map<UUID, Long> executionSequenceNumbers = new ConcurrentHashMap<>();
+	private final AtomicLong executionSequence = new AtomicLong();
+	private final AtomicInteger executionCount = new AtomicInteger();
+	private final int maxExecutions;
+
+	private final LongAdder claimConflicts = new LongAdder();
+
+	/**
+	 * Ids of the running Jobs of each lock group. Guarded by itself.
+	 */
+	private final Map<String, Set<UUID>> lockGroupHolders = new HashMap<>();
+
+	/**
+	 * State of a rate limit bucket.
+	 */
+	private record Bucket(double tokens, long refilled) {
+	}
+
+	/**
+	 * Rate limit buckets by name. Guarded by itself.
+	 */
+	private final Map<String, Bucket> rateLimitBuckets = new HashMap<>();
+
+	/**
+	 * Tasks by id. Guarded by itself, like dueTasks.
+	 */
+	private final Map<UUID, Task> tasks = new HashMap<>();
+
+	/**
+	 * Keys of the Tasks with a nextExecution, in order of it.
+	 */
+	private final NavigableSet<DueKey> dueTasks = new TreeSet<>();
+
+	private final Clock clock;
+
+
+	public InMemoryJobStore(int maxExecutions) {
+		this(maxExecutions, Clock.systemDefaultZone());
+	}
+
+
+	public InMemoryJobStore(int maxExecutions, Clock clock) {
+		this.maxExecutions = maxExecutions;
+		this.clock = clock;
+	}
+
+
+	/**
+	 * Number of times a claim attempt lost the race for a Job to another claim.
+	 */
+	public long getClaimConflicts() {
+		return claimConflicts.sum();
+	}
+
+
+	// ----- Scheduling -----
+
+
+	@Override
+	public Optional<ZonedDateTime> findNextExecutionTime(ClaimCriteria criteria) {
+		for (DueKey key : due) {
+			Entry entry = entries.get(key.id());
+			if (entry != null && criteria.matches(entry.job)) {
+				return Optional.of(entry.job.getNextExecution());
+			}
+		}
+		return Optional.empty();
+	}
+
+
+	@Override
+	public Set<String> findLabelRequirements() {
+		Set<String> requirements = new HashSet<>();
+		entries.values().forEach(entry -> {
+			if (entry.job.getLabelSelector() != null) requirements.addAll(entry.job.getLabelSelector());
+		});
+		return requirements;
+	}
+
+
+	@Override
+	public Optional<Job> popForExecution(ClaimCriteria claimCriteria) {
+		ClaimCriteria criteria = claimCriteria;
+		long now = clock.millis();
+		for (DueKey key : due) {
+			if (key.nextExecution() > now) break;
+			Entry entry = entries.get(key.id());
+			if (entry == null || !criteria.matches(entry.job)) continue;
+			if (criteria.order().comparator() != null) entry = firstOfTies(key, entry, criteria);
+			UUID jobExecutionId = UUID.randomUUID();
+			if (!entry.claim.compareAndSet(null, jobExecutionId)) {
+				claimConflicts.increment();
+				continue;
+			}
+			Job job = entry.job;
+			// The Job may have been changed, replaced or deleted since it was looked at
+			if (entries.get(job.getId()) != entry || !isDue(job, now) || !criteria.matches(job)) {
+				unclaim(entry, jobExecutionId);
+				continue;
+			}
+			if (!acquireLockGroup(job)) {
+				unclaim(entry, jobExecutionId);
+				criteria = criteria.withExcludedLockGroup(job.getLockGroup());
+				continue;
+			}
+			if (!takeToken(job)) {
+				releaseLockGroup(job);
+				unclaim(entry, jobExecutionId);
+				criteria = criteria.withExcludedRateLimit(job.getRateLimit().bucket());
+				continue;
+			}
+			synchronized (entry) {
+				job.setJobExecutionId(jobExecutionId);
+				job.setPoppedForExecution(ZonedDateTime.now(clock));
+				reindex(entry);
+				return Optional.of(copyOf(job));
+			}
+		}
+		return Optional.empty();
+	}
+
+
+	private static boolean isDue(Job job, long now) {
+		return job.isConfigEnabled() && job.isUserEnabled() && job.getNextExecution() != null
+				&& job.getNextExecution().toInstant().toEpochMilli() <= now;
+	}
+
+
+	/**
+	 * Releases a claim which turned out not to hold, unless it has been cleared or replaced meanwhile.
+	 */
+	private void unclaim(Entry entry, UUID jobExecutionId) {
+		if (entry.claim.compareAndSet(jobExecutionId, null)) reindex(entry);
+	}
+
+
+	/**
+	 * Takes a token from the Job's rate limit bucket, if it has a rate limit.
+	 *
+	 * @return false if the bucket is empty
+	 */
+	private boolean takeToken(Job job) {
+		RateLimit rateLimit = job.getRateLimit();
+		if (rateLimit == null) return true;
+		synchronized (rateLimitBuckets) {
+			long now = clock.millis();
+			Bucket bucket = rateLimitBuckets.get(rateLimit.bucket());
+			double tokens = bucket == null ? rateLimit.permits() : rateLimit.refill(bucket.tokens(), now - bucket.refilled());
+			if (tokens < 1) return false;
+			rateLimitBuckets.put(rateLimit.bucket(), new Bucket(tokens - 1, now));
+			return true;
+		}
+	}
+
+
+	/**
+	 * Takes a place in the Job's lock group, if it has one, unless the group already holds lockGroupLimit Jobs.
+	 *
+	 * @return false if the group is full
+	 */
+	private boolean acquireLockGroup(Job job) {
+		if (job.getLockGroup() == null) return true;
+		synchronized (lockGroupHolders) {
+			Set<UUID> holders = lockGroupHolders.computeIfAbsent(job.getLockGroup(), _ -> new HashSet<>());
+			if (holders.size() < job.getLockGroupLimit()) {
+				holders.add(job.getId());
+				return true;
+			}
+			return holders.contains(job.getId());
+		}
+	}
+
+
+	private void releaseLockGroup(Job job) {
+		if (job.getLockGroup() == null) return;
+		synchronized (lockGroupHolders) {
+			Set<UUID> holders = lockGroupHolders.get(job.getLockGroup());
+			if (holders != null) holders.remove(job.getId());
+		}
+	}
+
+
+	/**
+	 * Returns the entry to claim first, according to the criteria's order, among the matching entries due at the same time as the given one.
+	 */
+	private Entry firstOfTies(DueKey key, Entry entry, ClaimCriteria criteria) {
+		Entry first = entry;
+		for (DueKey tie : due.tailSet(key, false)) {
+			if (tie.nextExecution() != key.nextExecution()) break;
+			Entry candidate = entries.get(tie.id());
+			if (candidate != null && criteria.matches(candidate.job) && criteria.order().comparator().compare(candidate.job, first.job) < 0) {
+				first = candidate;
+			}
+		}
+		return first;
+	}
+
+
+	@Override
+	public void complete(Job job, JobExecution jobExecution) {
+		addExecution(jobExecution);
+		Entry entry = entries.get(job.getId());
+		if (entry == null) {
+			releaseLockGroup(job); // Deleted while running
+			return;
+		}
+		synchronized (entry) {
+			UUID claim = entry.claim.get();
+			if (claim != null && !claim.equals(jobExecution.getId())) {
+				log.warn("Job {} was claimed by another execution while execution {} was running - Job not updated.",
+						job.getName().displayName(), jobExecution.getId());
+				return;
+			}
+			// The place in the lock group is now held by this execution, or was released when the running status was cleared
+			if (claim != null) releaseLockGroup(job);
+			Job stored = entry.job;
+			stored.setSchedule(job.getSchedule());
+			stored.setNextExecution(job.getNextExecution());
+			stored.setExecutionCount(job.getExecutionCount());
+			stored.setAverageDurationMillis(job.getAverageDurationMillis());
+			stored.setLastSuccessfullyExecuted(job.getLastSuccessfullyExecuted());
+			stored.setLastFailedExecution(job.getLastFailedExecution());
+			stored.setCheckpoint(job.getCheckpoint());
+			stored.setPoppedForExecution(null);
+			stored.setJobExecutionId(null);
+			entry.claim.set(null);
+			reindex(entry);
+		}
+	}
+
+
+	@Override
+	public void recordSummary(JobExecution summary, long totalDurationMillis, ZonedDateTime lastSucceeded, ZonedDateTime lastFailed) {
+		addExecution(summary);
+		Entry entry = entries.get(summary.getJobId());
+		if (entry == null) return;
+		synchronized (entry) {
+			Job stored = entry.job;
+			long count = stored.getExecutionCount();
+			long executions = summary.getExecutionCount();
+			stored.setAverageDurationMillis(Math.round(((double) stored.getAverageDurationMillis() * count + totalDurationMillis) / (count + executions)));
+			stored.setExecutionCount(count + executions);
+			if (lastSucceeded != null && (stored.getLastSuccessfullyExecuted() == null || stored.getLastSuccessfullyExecuted().isBefore(lastSucceeded))) {
+				stored.setLastSuccessfullyExecuted(lastSucceeded);
+			}
+			if (lastFailed != null && (stored.getLastFailedExecution() == null || stored.getLastFailedExecution().isBefore(lastFailed))) {
+				stored.setLastFailedExecution(lastFailed);
+			}
+		}
+	}
+
+
+	@Override
+	public boolean checkpoint(Job job, String checkpoint) {
+		Entry entry = entries.get(job.getId());
+		if (entry == null) return false;
+		synchronized (entry) {
+			if (!Objects.equals(entry.claim.get(), job.getJobExecutionId())) return false;
+			entry.job.setCheckpoint(checkpoint);
+			return true;
+		}
+	}
+
+
+	/**
+	 * Adds or removes the entry's Job in the skip list of Jobs ready to be scheduled according to its current state.
+	 */
+	private void reindex(Entry entry) {
+		synchronized (entry) {
+			Job job = entry.job;
+			DueKey key = job.isConfigEnabled() && job.isUserEnabled() && entry.claim.get() == null && job.getNextExecution() != null
+					? new DueKey(job.getNextExecution().toInstant().toEpochMilli(), job.getId())
+					: null;
+			if (Objects.equals(key, entry.dueKey)) return;
+			if (entry.dueKey != null) due.remove(entry.dueKey);
+			if (key != null) due.add(key);
+			entry.dueKey = key;
+		}
+	}
+
+
+	// ----- Jobs -----
+
+
+	@Override
+	public List<Job> find(UUID tenantId, Pageable pageable, JobFilter filter) {
+		Stream<Job> jobs = jobs(tenantId, filter).sorted(JOB_ORDER);
+		if (pageable.isPaged()) jobs = jobs.skip(pageable.getOffset()).limit(pageable.getPageSize());
+		return jobs.map(InMemoryJobStore::copyOf).toList();
+	}
+
+
+	@Override
+	public CursorPage<Job> find(UUID tenantId, JobFilter filter, String continuationToken, int size, boolean includeCount) {
+		if (size < 1) throw new IllegalArgumentException("Page size must be positive, was " + size);
+		Stream<Job> jobs = jobs(tenantId, filter).sorted(JOB_ORDER);
+		if (continuationToken != null) {
+			ContinuationToken token = ContinuationToken.decode(continuationToken);
+			Long position = token.position() == null ? null : token.position().getTime();
+			jobs = jobs.filter(job -> {
+				int order = NULLS_FIRST.compare(epochMillis(job), position);
+				return order > 0 || order == 0 && job.getId().compareTo(token.id()) > 0;
+			});
+		}
+		List<Job> fetched = jobs.limit(size + 1L).map(InMemoryJobStore::copyOf).toList();
+		Long totalCount = includeCount ? count(tenantId, filter) : null;
+		return CursorPage.of(fetched, size, job -> new ContinuationToken(
+				job.getNextExecution() == null ? null : new Date(epochMillis(job)), job.getId()),
+				totalCount);
+	}
+
+
+	private static Long epochMillis(Job job) {
+		return job.getNextExecution() == null ? null : job.getNextExecution().toInstant().toEpochMilli();
+	}
+
+
+	@Override
+	public List<UUID> findIds(UUID tenantId, JobFilter filter) {
+		return jobs(tenantId, filter).map(Job::getId).toList();
+	}
+
+
+	@Override
+	public long count(UUID tenantId, JobFilter filter) {
+		return jobs(tenantId, filter).count();
+	}
+
+
+	private Stream<Job> jobs(UUID tenantId, JobFilter filter) {
+		return entries.values().stream()
+				.map(entry -> entry.job)
+				.filter(job -> Objects.equals(job.getTenantId(), tenantId))
+				.filter(filterPredicate(filter));
+	}
+
+
+	/**
+	 * Predicate with the same semantics as the criteria built by JobRepositoryImpl.filterCriteria.
+	 */
+	private static Predicate<Job> filterPredicate(JobFilter filter) {
+		Predicate<Job> predicate = job -> true;
+		if (isNotBlank(filter.getMatch())) {
+			String match = filter.getMatch().strip();
+			int dot = match.indexOf('.');
+			predicate = dot > 0
+					? job -> job.getName().bean().equals(match.substring(0, dot)) && startsWith(job.getName().method(), match.substring(dot + 1))
+					: job -> startsWith(job.getName().bean(), match) || startsWith(job.getName().method(), match)
+					|| startsWith(job.getApplicationName(), match) || startsWith(job.getProfile(), match);
+		}
+		if (isNotBlank(filter.getScheduleType())) {
+			predicate = predicate.and(job -> filter.getScheduleType().equals(job.getSchedule().getType()));
+		}
+		if (filter.getRunning() != null) {
+			predicate = predicate.and(job -> (job.getJobExecutionId() != null) == filter.getRunning());
+		}
+		if (isTrue(filter.getExcludeDisabled()) || isTrue(filter.getEnabled())) {
+			predicate = predicate.and(job -> job.isConfigEnabled() && job.isUserEnabled());
+		} else if (isFalse(filter.getEnabled())) {
+			predicate = predicate.and(job -> !job.isConfigEnabled() || !job.isUserEnabled());
+		}
+		if (filter.getIds() != null) {
+			Set<UUID> ids = Set.copyOf(filter.getIds());
+			predicate = predicate.and(job -> ids.contains(job.getId()));
+		}
+		return predicate;
+	}
+
+
+	private static boolean startsWith(String value, String prefix) {
+		return value != null && value.startsWith(prefix);
+	}
+
+
+	@Override
+	public void save(Job job) {
+		Job stored = copyOf(job);
+		Entry entry = entries.computeIfAbsent(job.getId(), id -> new Entry(stored));
+		synchronized (entry) {
+			entry.job = stored;
+			entry.claim.set(stored.getJobExecutionId());
+			reindex(entry);
+		}
+	}
+
+
+	@Override
+	public void delete(UUID tenantId, UUID jobId) {
+		update(tenantId, jobId, entry -> {
+			entries.remove(jobId);
+			if (entry.dueKey != null) due.remove(entry.dueKey);
+			entry.dueKey = null;
+			return true;
+		});
+	}
+
+
+	@Override
+	public void deleteByIdIn(UUID tenantId, Collection<UUID> jobIds) {
+		jobIds.forEach(jobId -> delete(tenantId, jobId));
+	}
+
+
+	@Override
+	public boolean setUserEnabled(UUID tenantId, UUID id, boolean userEnabled) {
+		return update(tenantId, id, entry -> {
+			entry.job.setUserEnabled(userEnabled);
+			return true;
+		});
+	}
+
+
+	@Override
+	public BulkUpdateResult setUserEnabled(UUID tenantId, JobFilter filter, boolean userEnabled) {
+		return updateAll(tenantId, jobs(tenantId, filter), entry -> {
+			if (entry.job.isUserEnabled() == userEnabled) return false;
+			entry.job.setUserEnabled(userEnabled);
+			return true;
+		});
+	}
+
+
+	@Override
+	public boolean setNextExecution(UUID tenantId, UUID id, ZonedDateTime nextExecution) {
+		return update(tenantId, id, entry -> {
+			if (entry.claim.get() != null) return false;
+			entry.job.setNextExecution(nextExecution);
+			return true;
+		});
+	}
+
+
+	@Override
+	public long trigger(UUID tenantId, JobFilter filter, Duration coalescingWindow) {
+		ZonedDateTime now = ZonedDateTime.now(clock);
+		ZonedDateTime coalescedUntil = now.minus(coalescingWindow);
+		return jobs(tenantId, filter).filter(job -> update(tenantId, job.getId(), entry -> {
+			Job candidate = entry.job;
+			if (entry.claim.get() != null || candidate.isLocal()) return false;
+			if (candidate.getNextExecution() != null && !candidate.getNextExecution().isAfter(now)) return false;
+			if (candidate.getTriggeredAt() != null && candidate.getTriggeredAt().isAfter(coalescedUntil)) return false;
+			candidate.setNextExecution(now);
+			candidate.setTriggeredAt(now);
+			return true;
+		})).count();
+	}
+
+
+	@Override
+	public boolean clearRunningStatus(UUID tenantId, UUID id) {
+		return update(tenantId, id, entry -> {
+			entry.job.setPoppedForExecution(null);
+			entry.job.setJobExecutionId(null);
+			entry.claim.set(null);
+			releaseLockGroup(entry.job);
+			return true;
+		});
+	}
+
+
+	@Override
+	public BulkUpdateResult clearRunningStatus(UUID tenantId, JobFilter filter, ZonedDateTime startedBefore) {
+		Predicate<Job> stale = job -> job.getJobExecutionId() != null
+				&& job.getPoppedForExecution() != null && job.getPoppedForExecution().isBefore(startedBefore);
+		return updateAll(tenantId, jobs(tenantId, filter).filter(stale), entry -> {
+			if (!stale.test(entry.job)) return false; // Completed meanwhile
+			entry.job.setPoppedForExecution(null);
+			entry.job.setJobExecutionId(null);
+			entry.claim.set(null);
+			releaseLockGroup(entry.job);
+			return true;
+		});
+	}
+
+
+	@Override
+	public boolean setProfile(UUID tenantId, UUID id, String profile) {
+		return update(tenantId, id, entry -> {
+			entry.job.setProfile(profile);
+			return true;
+		});
+	}
+
+
+	@Override
+	public BulkUpdateResult setProfile(UUID tenantId, JobFilter filter, String profile) {
+		return updateAll(tenantId, jobs(tenantId, filter), entry -> {
+			if (Objects.equals(entry.job.getProfile(), profile)) return false;
+			entry.job.setProfile(profile);
+			return true;
+		});
+	}
+
+
+	/**
+	 * Applies an update to each of the matched Jobs.
+	 */
+	private BulkUpdateResult updateAll(UUID tenantId, Stream<Job> matched, Predicate<Entry> update) {
+		List<UUID> ids = matched.map(Job::getId).toList();
+		long modified = ids.stream().filter(id -> update(tenantId, id, update)).count();
+		return new BulkUpdateResult(ids.size(), modified);
+	}
+
+
+	@Override
+	public boolean clearProfile(UUID tenantId, UUID id) {
+		return setProfile(tenantId, id, null);
+	}
+
+
+	/**
+	 * Applies an update to the Job with given id, if it belongs to the tenant, and re-indexes it.
+	 *
+	 * @return the result of the update, or false if the Job was not found
+	 */
+	private boolean update(UUID tenantId, UUID id, Predicate<Entry> update) {
+		Entry entry = entries.get(id);
+		if (entry == null) return false;
+		synchronized (entry) {
+			if (!Objects.equals(entry.job.getTenantId(), tenantId)) return false;
+			boolean updated = update.test(entry);
+			if (updated) reindex(entry);
+			return updated;
+		}
+	}
+
+
+	@Override
+	public Set<JobName> findNames(String applicationName) {
+		Set<JobName> names = new HashSet<>();
+		entries.values().forEach(entry -> {
+			if (Objects.equals(entry.job.getApplicationName(), applicationName)) names.add(entry.job.getName());
+		});
+		return names;
+	}
+
+
+	@Override
+	public List<Job> findLocal(String applicationName) {
+		return entries.values().stream()
+				.map(entry -> entry.job)
+				.filter(job -> job.isLocal() && Objects.equals(job.getApplicationName(), applicationName))
+				.map(InMemoryJobStore::copyOf)
+				.toList();
+	}
+
+
+	@Override
+	public void reconcile(String applicationName, Collection<Job> newJobs, Collection<JobName> configEnabled, Collection<JobName> configDisabled) {
+		synchronized (reconcileLock) {
+			Set<JobName> existingNames = findNames(applicationName);
+			newJobs.stream()
+			.filter(job -> !existingNames.contains(job.getName()))
+			.forEach(this::save);
+			for (Entry entry : entries.values()) {
+				Job job = entry.job;
+				if (!Objects.equals(job.getApplicationName(), applicationName)) continue;
+				boolean enable = configEnabled.contains(job.getName());
+				boolean disable = configDisabled.contains(job.getName());
+				if (enable || disable) {
+					synchronized (entry) {
+						job.setConfigEnabled(enable);
+						reindex(entry);
+					}
+				}
+			}
+		}
+	}
+
+
+	// ----- Job executions -----
+
+
+	/**
+	 * A JobExecution and the time it was recorded, in place of the createdDate maintained by the other stores.
+	 */
+	private record RecordedExecution(JobExecution execution, Instant createdDate) {
+	}
+
+
+	private void addExecution(JobExecution jobExecution) {
+		long sequenceNumber = executionSequence.incrementAndGet();
+		executions.put(sequenceNumber, new RecordedExecution(jobExecution, clock.instant()));
+		executionSequenceNumbers.put(jobExecution.getId(), sequenceNumber);
+		if (executionCount.incrementAndGet() > maxExecutions) {
+			Map.Entry<Long, RecordedExecution> oldest = executions.pollFirstEntry();
+			if (oldest != null) {
+				executionSequenceNumbers.remove(oldest.getValue().execution().getId());
+				executionCount.decrementAndGet();
+			}
+		}
+	}
+
+
+	/**
+	 * A tenant's executions, newest first.
+	 */
+	private Stream<JobExecution> executions(UUID tenantId, ConcurrentNavigableMap<Long, RecordedExecution> source) {
+		return source.descendingMap().values().stream()
+				.map(RecordedExecution::execution)
+				.filter(execution -> Objects.equals(execution.getTenantId(), tenantId));
+	}
+
+
+	@Override
+	public List<JobExecution> findExecutionsByJobId(UUID tenantId, UUID jobId, Pageable pageable) {
+		Stream<JobExecution> result = executions(tenantId, executions)
+				.filter(execution -> Objects.equals(execution.getJobId(), jobId));
+		if (pageable.isPaged()) result = result.skip(pageable.getOffset()).limit(pageable.getPageSize());
+		return result.toList();
+	}
+
+
+	@Override
+	public Optional<JobExecution> findExecution(UUID tenantId, UUID jobExecutionId) {
+		return Optional.ofNullable(executionSequenceNumbers.get(jobExecutionId))
+				.map(executions::get)
+				.map(RecordedExecution::execution)
+				.filter(execution -> Objects.equals(execution.getTenantId(), tenantId));
+	}
+
+
+	@Override
+	public Page<JobExecution> findExecutions(UUID tenantId, Boolean success, Pageable pageable) {
+		List<JobExecution> matching = executions(tenantId, executions)
+				.filter(execution -> success == null || execution.isSuccess() == success)
+				.toList();
+		if (pageable.isUnpaged()) return new PageImpl<>(matching);
+		int from = (int) Math.min(pageable.getOffset(), matching.size());
+		int to = Math.min(from + pageable.getPageSize(), matching.size());
+		return new PageImpl<>(matching.subList(from, to), pageable, matching.size());
+	}
+
+
+	/**
+	 * Keyset pagination over executions.
+	 * <p>
+	 * Executions are ordered by an internal sequence number rather than createdDate, which may be the same
+	 * for several executions. The continuation token holds the sequence number of the last execution on the page -
+	 * see {@link #encodeSequenceToken(long)}.
+	 */
+	@Override
+	public CursorPage<JobExecution> findExecutions(UUID tenantId, Boolean success, String continuationToken, int size, boolean includeCount) {
+		if (size < 1) throw new IllegalArgumentException("Page size must be positive, was " + size);
+		ConcurrentNavigableMap<Long, RecordedExecution> remaining = continuationToken == null ? executions
+				: executions.headMap(decodeSequenceToken(continuationToken), false);
+		Predicate<JobExecution> successFilter = execution -> success == null || execution.isSuccess() == success;
+		List<JobExecution> fetched = executions(tenantId, remaining)
+				.filter(successFilter)
+				.limit(size + 1L)
+				.toList();
+		Long totalCount = includeCount ? executions(tenantId, executions).filter(successFilter).count() : null;
+		return CursorPage.ofEncoded(fetched, size,
+				execution -> encodeSequenceToken(executionSequenceNumbers.getOrDefault(execution.getId(), 0L)),
+				totalCount);
+	}
+
+
+	/**
+	 * Encodes an execution sequence number as an url-safe continuation token.
+	 * <p>
+	 * Unlike {@link ContinuationToken}, the position is not a date, and the sequence number alone identifies the execution.
+	 */
+	private static String encodeSequenceToken(long sequenceNumber) {
+		return Base64.getUrlEncoder().withoutPadding().encodeToString(("seq:" + sequenceNumber).getBytes(UTF_8));
+	}
+
+
+	private static long decodeSequenceToken(String token) {
+		try {
+			String plain = new String(Base64.getUrlDecoder().decode(token), UTF_8);
+			if (!plain.startsWith("seq:")) throw new IllegalArgumentException("Invalid continuation token: " + token);
+			return Long.parseLong(plain.substring(4));
+		} catch (IllegalArgumentException e) {
+			throw new IllegalArgumentException("Invalid continuation token: " + token, e);
+		}
+	}
+
+
+	/**
+	 * Streams the executions kept in memory, oldest first, with field names as in the MongoDB documents.
+	 * <p>
+	 * The createdDate is the time the execution was recorded in this store.
+	 */
+	@Override
+	public Stream<String> streamExecutionsAsJson(UUID tenantId, Instant from, Instant to, Collection<String> fields) {
+		for (String field : fields) {
+			if (!EXPORTED_FIELDS.contains(field)) throw new IllegalArgumentException("Unknown field: " + field);
+		}
+		Collection<String> exportedFields = fields.isEmpty() ? EXPORTED_FIELDS : fields;
+		return executions.values().stream()
+				.filter(recorded -> Objects.equals(recorded.execution().getTenantId(), tenantId))
+				.filter(recorded -> from == null || !recorded.createdDate().isBefore(from))
+				.filter(recorded -> to == null || recorded.createdDate().isBefore(to))
+				.map(recorded -> {
+					Map<String, Object> document = new LinkedHashMap<>();
+					exportedFields.forEach(field -> document.put(field, exportedValue(recorded, field)));
+					return JsonPayloads.toJson(document);
+				});
+	}
+
+
+	private static Object exportedValue(RecordedExecution recorded, String field) {
+		JobExecution execution = recorded.execution();
+		return switch (field) {
+		case "_id" -> execution.getId();
+		case "tenantId" -> execution.getTenantId();
+		case "jobId" -> execution.getJobId();
+		case "success" -> execution.isSuccess();
+		case "stackTrace" -> execution.getStackTrace();
+		case "executionCount" -> execution.getExecutionCount();
+		case "failureCount" -> execution.getFailureCount();
+		case "createdDate" -> recorded.createdDate();
+		default -> throw new IllegalArgumentException("Unknown field: " + field);
+		};
+	}
+
+
+	// ----- Tasks -----
+
+
+	@Override
+	public void enqueue(Collection<Task> newTasks) {
+		synchronized (tasks) {
+			newTasks.forEach(task -> {
+				Task stored = copyOf(task);
+				tasks.put(stored.getId(), stored);
+				if (stored.getNextExecution() != null) dueTasks.add(dueKey(stored));
+			});
+		}
+	}
+
+
+	@Override
+	public List<Task> popTasks(Collection<String> queues, int max, Duration lease) {
+		ZonedDateTime now = ZonedDateTime.now(clock);
+		long nowMillis = now.toInstant().toEpochMilli();
+		UUID claimId = UUID.randomUUID();
+		List<Task> claimed = new ArrayList<>();
+		synchronized (tasks) {
+			for (DueKey key : dueTasks) {
+				if (key.nextExecution() > nowMillis || claimed.size() == max) break;
+				Task task = tasks.get(key.id());
+				if (queues.contains(task.getQueue())) claimed.add(task);
+			}
+			for (Task task : claimed) {
+				dueTasks.remove(dueKey(task));
+				task.setNextExecution(now.plus(lease));
+				task.setClaimId(claimId);
+				dueTasks.add(dueKey(task));
+			}
+		}
+		return claimed.stream().map(InMemoryJobStore::copyOf).toList();
+	}
+
+
+	@Override
+	public void completeTask(Task task) {
+		deleteTask(task.getId());
+	}
+
+
+	@Override
+	public void failTask(Task task) {
+		synchronized (tasks) {
+			Task stored = tasks.get(task.getId());
+			if (stored == null || !Objects.equals(stored.getClaimId(), task.getClaimId())) return;
+			dueTasks.remove(dueKey(stored));
+			stored.setNextExecution(task.getNextExecution());
+			stored.setAttempts(task.getAttempts());
+			stored.setStackTrace(task.getStackTrace());
+			stored.setClaimId(null);
+			if (stored.getNextExecution() != null) dueTasks.add(dueKey(stored));
+		}
+	}
+
+
+	@Override
+	public boolean deleteTask(UUID id) {
+		synchronized (tasks) {
+			Task removed = tasks.remove(id);
+			if (removed == null) return false;
+			if (removed.getNextExecution() != null) dueTasks.remove(dueKey(removed));
+			return true;
+		}
+	}
+
+
+	private static DueKey dueKey(Task task) {
+		return new DueKey(task.getNextExecution().toInstant().toEpochMilli(), task.getId());
+	}
+
+
+	/**
+	 * Copies a Job, so callers can't modify the stored Jobs.
+	 */
+	private static Job copyOf(Job job) {
+		Job copy = new Job();
+		copy.setId(job.getId());
+		copy.setTenantId(job.getTenantId());
+		copy.setCreatedDate(job.getCreatedDate());
+		copy.setApplicationName(job.getApplicationName());
+		copy.setName(job.getName());
+		copy.setSchedule(job.getSchedule());
+		copy.setConfigEnabled(job.isConfigEnabled());
+		copy.setUserEnabled(job.isUserEnabled());
+		copy.setNextExecution(job.getNextExecution());
+		copy.setPoppedForExecution(job.getPoppedForExecution());
+		copy.setJobExecutionId(job.getJobExecutionId());
+		copy.setProfile(job.getProfile());
+		copy.setDeferrable(job.isDeferrable());
+		copy.setWeight(job.getWeight());
+		copy.setLockGroup(job.getLockGroup());
+		copy.setLockGroupLimit(job.getLockGroupLimit());
+		copy.setRateLimit(job.getRateLimit());
+		copy.setLabelSelector(job.getLabelSelector() == null ? null : List.copyOf(job.getLabelSelector()));
+		copy.setLocal(job.isLocal());
+		copy.setCheckpoint(job.getCheckpoint());
+		copy.setTriggeredAt(job.getTriggeredAt());
+		copy.setExecutionCount(job.getExecutionCount());
+		copy.setAverageDurationMillis(job.getAverageDurationMillis());
+		copy.setLastSuccessfullyExecuted(job.getLastSuccessfullyExecuted());
+		copy.setLastFailedExecution(job.getLastFailedExecution());
+		return copy;
+	}
+
+
+	/**
+	 * Copies a Task, so callers can't modify the stored Tasks.
+	 */
+	private static Task copyOf(Task task) {
+		Task copy = new Task();
+		copy.setId(task.getId());
+		copy.setQueue(task.getQueue());
+		copy.setPayload(task.getPayload());
+		copy.setNextExecution(task.getNextExecution());
+		copy.setClaimId(task.getClaimId());
+		copy.setAttempts(task.getAttempts());
+		copy.setStackTrace(task.getStackTrace());
+		return copy;
+	}
+
+
+}
@@ -0,0 +1,1093 @@
+/*
+ * Copyright (C) 2026, Claus Nielsen, clausn999@gmail.com
+ *
+ * This program is free software; you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation; either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License along
+ * with this program; if not, write to the Free Software Foundation, Inc.,
+ * 51 Franklin Street, Fifth Floor, Boston, MA 02110-1301 USA.
+ */
+package dk.clanie.jobscheduler;
+
+import static dk.clanie.core.Utils.opt;
+import static org.apache.commons.lang3.BooleanUtils.isFalse;
+import static org.apache.commons.lang3.BooleanUtils.isTrue;
+import static org.apache.commons.lang3.StringUtils.isNotBlank;
+
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.OffsetDateTime;
+import java.time.ZoneId;
+import java.time.ZoneOffset;
+import java.time.ZonedDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Date;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+import javax.sql.DataSource;
+
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
+import org.springframework.jdbc.core.namedparam.MapSqlParameterSource;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.jdbc.core.namedparam.SqlParameterSource;
+import org.springframework.jdbc.datasource.DataSourceTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * {@link JobStore} backed by a relational database through JDBC.
+ * <p>
+ * Written for PostgreSQL, and also works with H2 in PostgreSQL compatibility mode.
+ * The schema, with indexes corresponding to those of the MongoDB store, is in {@link #SCHEMA_LOCATION}.
+ * <p>
+ * Jobs are claimed in batches with {@code SELECT ... FOR UPDATE SKIP LOCKED}, so nodes claiming
+ * concurrently never wait for each other, and never claim the same Job.
+ * On H2 the claiming query locks all the due Jobs it sorts, not just those returned, so while one node
+ * claims, the others find nothing to claim - H2 is meant for tests and single node installations.
+ * <p>
+ * Schedules are stored as JSON. Timestamps are stored with millisecond precision, like in MongoDB.
+ * Notice that the createdDate of JobExecutions is only maintained in the database, and is not set
+ * on the JobExecutions returned.
+ */
+@Slf4j
+public class JdbcJobStore implements JobStore {
+
+	public static final String SCHEMA_LOCATION = "META-INF/clanie-jobscheduler/jdbc/schema.sql";
+
+
+	/**
+	 * Columns of the jobs table and the corresponding parameter names used by {@link #jobParams(Job)}.
+	 */
+	private static final Map<String, String> JOB_COLUMNS = columns(
+			"id", "id",
+			"tenant_id", "tenantId",
+			"application_name", "applicationName",
+			"bean", "bean",
+			"method", "method",
+			"schedule", "schedule",
+			"schedule_type", "scheduleType",
+			"config_enabled", "configEnabled",
+			"user_enabled", "userEnabled",
+			"next_execution", "nextExecution",
+			"popped_for_execution", "poppedForExecution",
+			"job_execution_id", "jobExecutionId",
+			"profile", "profile",
+			"deferrable", "deferrable",
+			"local_execution", "local",
+			"weight", "weight",
+			"lock_group", "lockGroup",
+			"lock_group_limit", "lockGroupLimit",
+			"rate_limit_bucket", "rateLimitBucket",
+			"rate_limit_permits", "rateLimitPermits",
+			"rate_limit_period_millis", "rateLimitPeriodMillis",
+			"execution_count", "executionCount",
+			"average_duration_millis", "averageDurationMillis",
+			"last_successfully_executed", "lastSuccessfullyExecuted",
+			"last_failed_execution", "lastFailedExecution",
+			"checkpoint", "checkpoint",
+			"triggered_at", "triggeredAt",
+			"label_selector", "labelSelector");
+
+	private static final String SELECT_JOBS = "SELECT " + String.join(", ", JOB_COLUMNS.keySet()) + " FROM jobs";
+
+	private static final String INSERT_JOB = "INSERT INTO jobs (" + String.join(", ", JOB_COLUMNS.keySet()) + ") VALUES ("
+			+ JOB_COLUMNS.values().stream().map(param -> ":" + param).collect(Collectors.joining(", ")) + ")";
+
+	private static final String UPDATE_JOB = "UPDATE jobs SET "
+			+ JOB_COLUMNS.entrySet().stream().skip(1).map(e -> e.getKey() + " = :" + e.getValue()).collect(Collectors.joining(", "))
+			+ " WHERE id = :id";
+
+	/**
+	 * Job properties which can be sorted on, and their columns.
+	 */
+	private static final Map<String, String> JOB_SORT_COLUMNS = columns(
+			"id", "id",
+			"applicationName", "application_name",
+			"name.bean", "bean",
+			"name.method", "method",
+			"nextExecution", "next_execution",
+			"profile", "profile",
+			"executionCount", "execution_count",
+			"lastSuccessfullyExecuted", "last_successfully_executed",
+			"lastFailedExecution", "last_failed_execution");
+
+	/**
+	 * JobExecution document fields, named as in the MongoDB store, and their columns.
+	 */
+	private static final Map<String, String> EXECUTION_COLUMNS = columns(
+			"_id", "id",
+			"tenantId", "tenant_id",
+			"jobId", "job_id",
+			"success", "success",
+			"stackTrace", "stack_trace",
+			"executionCount", "execution_count",
+			"failureCount", "failure_count",
+			"createdDate", "created_date");
+
+	private static final String SELECT_EXECUTIONS = "SELECT id, tenant_id, job_id, success, stack_trace, execution_count, failure_count, created_date FROM job_executions";
+
+	private static final String SELECT_TASKS = "SELECT id, queue, payload, next_execution, claim_id, attempts, stack_trace FROM job_tasks";
+
+	private static final int EXPORT_CHUNK_SIZE = 1000;
+
+
+	private final NamedParameterJdbcTemplate jdbc;
+	private final Clock clock;
+	private final TransactionTemplate transactionTemplate;
+	private final LongAdder labelMismatches = new LongAdder();
+
+
+	public JdbcJobStore(DataSource dataSource) {
+		this(dataSource, Clock.systemDefaultZone());
+	}
+
+
+	public JdbcJobStore(DataSource dataSource, Clock clock) {
+		this.jdbc = new NamedParameterJdbcTemplate(dataSource);
+		this.clock = clock;
+		this.transactionTemplate = new TransactionTemplate(new DataSourceTransactionManager(dataSource));
+	}
+
+
+	// ----- Scheduling -----
+
+
+	@Override
+	public Optional<ZonedDateTime> findNextExecutionTime(ClaimCriteria criteria) {
+		MapSqlParameterSource params = new MapSqlParameterSource();
+		String sql = "SELECT MIN(next_execution) FROM jobs WHERE " + schedulable(criteria, params);
+		return opt(jdbc.queryForObject(sql, params, OffsetDateTime.class)).map(JdbcJobStore::toZoned);
+	}
+
+
+	@Override
+	public long getLabelMismatches() {
+		return labelMismatches.sum();
+	}
+
+
+	@Override
+	public Optional<Job> popForExecution(ClaimCriteria criteria) {
+		return popForExecution(criteria, 1).stream().findFirst();
+	}
+
+
+	/**
+	 * Claims up to {@code capacity} due Jobs which fit in the capacity, in order of next execution.
+	 * <p>
+	 * The Jobs are claimed first, and then given places in their lock groups and tokens from their rate limit buckets,
+	 * each in a short transaction of its own, so a claim never waits for a lock group or bucket while holding the locks
+	 * on other rows, which could deadlock with a claim on another node. A Job is unclaimed again if its lock group is full,
+	 * or its bucket empty, and more Jobs outside the group or bucket are then looked for.
+	 */
+	@Override
+	public List<Job> popForExecution(ClaimCriteria criteria, int capacity) {
+		List<Job> jobs = new ArrayList<>();
+		Set<UUID> examined = new HashSet<>();
+		ClaimCriteria claimCriteria = criteria;
+		int remaining = capacity;
+		boolean excludedMore;
+		do {
+			Candidates candidates = claimCandidates(claimCriteria, remaining, examined);
+			claimCriteria = candidates.criteria();
+			excludedMore = candidates.excludedMore();
+			for (Job job : candidates.claimed()) {
+				if (!claimCriteria.matches(job)) {
+					// In a lock group or bucket found to be full or empty after the Job was claimed
+					unclaim(job, false);
+				} else if (job.getLockGroup() != null && !transactionTemplate.execute(status -> acquireLockGroup(job))) {
+					unclaim(job, false);
+					claimCriteria = claimCriteria.withExcludedLockGroup(job.getLockGroup());
+					excludedMore = true;
+				} else if (job.getRateLimit() != null && !transactionTemplate.execute(status -> takeToken(job.getRateLimit()))) {
+					unclaim(job, job.getLockGroup() != null);
+					claimCriteria = claimCriteria.withExcludedRateLimit(job.getRateLimit().bucket());
+					excludedMore = true;
+				} else {
+					jobs.add(job);
+					remaining -= claimCriteria.weightOf(job);
+				}
+			}
+		} while (excludedMore && remaining > 0);
+		return jobs;
+	}
+
+
+	/**
+	 * Jobs claimed by {@link #claimCandidates(ClaimCriteria, int, Set)}, and the criteria extended with label requirements
+	 * found to be unsatisfied.
+	 */
+	private record Candidates(List<Job> claimed, ClaimCriteria criteria, boolean excludedMore) {}
+
+
+	/**
+	 * Locks up to {@code capacity} due Jobs which fit in the capacity, and claims those of them which fit together.
+	 * The locks on the rest are released when the transaction ends.
+	 * <p>
+	 * Jobs already looked at are excluded explicitly, as Jobs left unclaimed because they didn't fit may be selected again.
+	 */
+	private Candidates claimCandidates(ClaimCriteria criteria, int capacity, Set<UUID> examined) {
+		String tieOrder = switch (criteria.order()) {
+		case NEXT_EXECUTION -> "";
+		case SHORTEST_FIRST -> ", average_duration_millis";
+		case LONGEST_FIRST -> ", average_duration_millis DESC";
+		};
+		return transactionTemplate.execute(status -> {
+			ClaimCriteria claimCriteria = criteria;
+			boolean excludedMore = false;
+			MapSqlParameterSource params = new MapSqlParameterSource()
+					.addValue("now", toOffset(ZonedDateTime.now(clock)))
+					.addValue("limit", capacity)
+					.addValue("examined", examined);
+			List<Job> candidates = jdbc.query(SELECT_JOBS + " WHERE " + schedulable(claimCriteria.withMaxWeight(Math.min(capacity, claimCriteria.maxWeight())), params)
+					+ (examined.isEmpty() ? "" : " AND id NOT IN (:examined)")
+					+ " AND next_execution <= :now ORDER BY next_execution" + tieOrder + " LIMIT :limit FOR UPDATE SKIP LOCKED",
+					params, this::mapJob);
+			List<Job> claimed = new ArrayList<>(candidates.size());
+			int remaining = capacity;
+			for (Job candidate : candidates) {
+				examined.add(candidate.getId());
+				if (!claimCriteria.nodeLabels().satisfies(candidate)) {
+					// A requirement added since the node last looked for requirements it doesn't satisfy
+					claimCriteria = claimCriteria.withExcludedLabelRequirementsOf(candidate);
+					labelMismatches.increment();
+					excludedMore = true;
+					continue;
+				}
+				if (claimCriteria.weightOf(candidate) > remaining || !claimCriteria.matches(candidate)) continue;
+				claimed.add(candidate);
+				remaining -= claimCriteria.weightOf(candidate);
+			}
+			claim(claimed);
+			return new Candidates(claimed, claimCriteria, excludedMore);
+		});
+	}
+
+
+	private void claim(List<Job> jobs) {
+		if (jobs.isEmpty()) return;
+		ZonedDateTime poppedForExecution = ZonedDateTime.now(clock);
+		for (Job job : jobs) {
+			job.setJobExecutionId(UUID.randomUUID());
+			job.setPoppedForExecution(poppedForExecution);
+		}
+		jdbc.batchUpdate("UPDATE jobs SET job_execution_id = :jobExecutionId, popped_for_execution = :poppedForExecution WHERE id = :id",
+				jobs.stream().map(this::jobParams).toArray(SqlParameterSource[]::new));
+	}
+
+
+	/**
+	 * Reverts a claim which turned out not to fit in the Job's lock group or rate limit, unless the claim has been cleared meanwhile.
+	 */
+	private void unclaim(Job job, boolean releaseLockGroup) {
+		transactionTemplate.executeWithoutResult(status -> {
+			if (releaseLockGroup) releaseLockGroup(job.getJobExecutionId());
+			jdbc.update("UPDATE jobs SET popped_for_execution = NULL, job_execution_id = NULL WHERE id = :id AND job_execution_id = :jobExecutionId",
+					new MapSqlParameterSource("id", job.getId()).addValue("jobExecutionId", job.getJobExecutionId()));
+		});
+	}
+
+
+	/**
+	 * Takes a place in the Job's lock group for the execution it is claimed by, unless the group already holds lockGroupLimit Jobs.
+	 * <p>
+	 * Must be called in a transaction. The group's row is locked while counting and adding holders, so nodes
+	 * claiming Jobs of the same group concurrently take turns.
+	 */
+	private boolean acquireLockGroup(Job job) {
+		MapSqlParameterSource params = new MapSqlParameterSource()
+				.addValue("lockGroup", job.getLockGroup())
+				.addValue("jobExecutionId", job.getJobExecutionId());
+		jdbc.update("INSERT INTO job_lock_groups (name) VALUES (:lockGroup) ON CONFLICT DO NOTHING", params);
+		jdbc.queryForList("SELECT name FROM job_lock_groups WHERE name = :lockGroup FOR UPDATE", params, String.class);
+		Integer holders = jdbc.queryForObject("SELECT COUNT(*) FROM job_lock_group_holders WHERE lock_group = :lockGroup", params, Integer.class);
+		if (holders != null && holders >= job.getLockGroupLimit()) return false;
+		jdbc.update("INSERT INTO job_lock_group_holders (job_execution_id, lock_group) VALUES (:jobExecutionId, :lockGroup)", params);
+		return true;
+	}
+
+
+	/**
+	 * Takes a token from a rate limit bucket, if it has one after refilling.
+	 * <p>
+	 * Must be called in a transaction. The bucket's row is locked until the transaction ends. A bucket is created full when first used.
+	 *
+	 * @return false if the bucket is empty
+	 */
+	private boolean takeToken(RateLimit rateLimit) {
+		ZonedDateTime now = ZonedDateTime.now(clock);
+		MapSqlParameterSource params = new MapSqlParameterSource()
+				.addValue("bucket", rateLimit.bucket())
+				.addValue("permits", (double) rateLimit.permits())
+				.addValue("now", toOffset(now));
+		jdbc.update("INSERT INTO job_rate_limits (bucket, tokens, refilled) VALUES (:bucket, :permits, :now) ON CONFLICT DO NOTHING", params);
+		Double tokens = jdbc.queryForObject("SELECT tokens, refilled FROM job_rate_limits WHERE bucket = :bucket FOR UPDATE", params,
+				(rs, _) -> rateLimit.refill(rs.getDouble("tokens"),
+						now.toInstant().toEpochMilli() - rs.getObject("refilled", OffsetDateTime.class).toInstant().toEpochMilli()));
+		if (tokens == null || tokens < 1) return false;
+		jdbc.update("UPDATE job_rate_limits SET tokens = :tokens, refilled = :now WHERE bucket = :bucket", params.addValue("tokens", tokens - 1));
+		return true;
+	}
+
+
+	private void releaseLockGroup(UUID jobExecutionId) {
+		jdbc.update("DELETE FROM job_lock_group_holders WHERE job_execution_id = :jobExecutionId", new MapSqlParameterSource("jobExecutionId", jobExecutionId));
+	}
+
+
+	/**
+	 * Condition selecting Jobs which may be scheduled, corresponding to JobRepositoryImpl.nextToSchedule.
+	 */
+	private static String schedulable(ClaimCriteria criteria, MapSqlParameterSource params) {
+		List<String> profiles = criteria.matchProfiles().stream().filter(Objects::nonNull).toList();
+		boolean matchNoProfile = criteria.matchProfiles().stream().anyMatch(Objects::isNull);
+		params.addValue("profiles", profiles);
+		params.addValue("maxWeight", criteria.maxWeight());
+		params.addValue("excludedLockGroups", criteria.excludedLockGroups());
+		params.addValue("excludedRateLimits", criteria.excludedRateLimits());
+		params.addValue("excludedLabelRequirements", criteria.excludedLabelRequirements());
+		String profileCondition = profiles.isEmpty()
+				? matchNoProfile ? "profile IS NULL" : "FALSE"
+				: matchNoProfile ? "(profile IS NULL OR profile IN (:profiles))" : "profile IN (:profiles)";
+		return "config_enabled AND user_enabled AND job_execution_id IS NULL AND next_execution IS NOT NULL AND " + profileCondition
+				+ (criteria.excludeDeferrable() ? " AND NOT deferrable" : "")
+				+ (criteria.limitsWeight() ? " AND weight <= :maxWeight" : "")
+				+ (criteria.excludedLockGroups().isEmpty() ? "" : " AND (lock_group IS NULL OR lock_group NOT IN (:excludedLockGroups))")
+				+ (criteria.excludedRateLimits().isEmpty() ? "" : " AND (rate_limit_bucket IS NULL OR rate_limit_bucket NOT IN (:excludedRateLimits))")
+				+ (criteria.excludedLabelRequirements().isEmpty() ? "" : " AND NOT EXISTS (SELECT 1 FROM job_label_requirements r"
+						+ " WHERE r.job_id = jobs.id AND r.requirement IN (:excludedLabelRequirements))");
+	}
+
+
+	@Override
+	public Set<String> findLabelRequirements() {
+		return new HashSet<>(jdbc.queryForList("SELECT DISTINCT requirement FROM job_label_requirements", new MapSqlParameterSource(), String.class));
+	}
+
+
+	@Override
+	public void complete(Job job, JobExecution jobExecution) {
+		transactionTemplate.executeWithoutResult(status -> {
+			insertExecution(jobExecution);
+			MapSqlParameterSource params = jobParams(job).addValue("claimedJobExecutionId", jobExecution.getId());
+			int updated = jdbc.update("""
+					UPDATE jobs SET schedule = :schedule, schedule_type = :scheduleType, next_execution = :nextExecution,
+					execution_count = :executionCount, average_duration_millis = :averageDurationMillis, last_successfully_executed = :lastSuccessfullyExecuted,
+					last_failed_execution = :lastFailedExecution, checkpoint = :checkpoint, popped_for_execution = NULL, job_execution_id = NULL
+					WHERE id = :id AND (job_execution_id = :claimedJobExecutionId OR job_execution_id IS NULL)""", params);
+			if (updated == 0) {
+				log.warn("Job {} was deleted or claimed by another execution while execution {} was running - Job not updated.",
+						job.getName().displayName(), jobExecution.getId());
+			}
+			// Holders are execution ids, so a stale execution never releases the place of the one which claimed the Job again
+			if (job.getLockGroup() != null) releaseLockGroup(jobExecution.getId());
+		});
+	}
+
+
+	@Override
+	public void recordSummary(JobExecution summary, long totalDurationMillis, ZonedDateTime lastSucceeded, ZonedDateTime lastFailed) {
+		transactionTemplate.executeWithoutResult(status -> {
+			insertExecution(summary);
+			MapSqlParameterSource params = new MapSqlParameterSource("id", summary.getJobId())
+					.addValue("executions", summary.getExecutionCount())
+					.addValue("totalDurationMillis", totalDurationMillis)
+					.addValue("lastSucceeded", toOffset(lastSucceeded))
+					.addValue("lastFailed", toOffset(lastFailed));
+			// Evaluated against the old values, so the average is weighted by the stored execution count
+			StringBuilder sql = new StringBuilder("""
+					UPDATE jobs SET execution_count = execution_count + :executions,
+					average_duration_millis = ROUND((CAST(average_duration_millis AS DOUBLE PRECISION) * execution_count + :totalDurationMillis)
+					/ (execution_count + :executions))""");
+			if (lastSucceeded != null) sql.append("""
+					, last_successfully_executed = CASE WHEN last_successfully_executed IS NULL OR last_successfully_executed < :lastSucceeded
+					THEN :lastSucceeded ELSE last_successfully_executed END""");
+			if (lastFailed != null) sql.append("""
+					, last_failed_execution = CASE WHEN last_failed_execution IS NULL OR last_failed_execution < :lastFailed
+					THEN :lastFailed ELSE last_failed_execution END""");
+			sql.append(" WHERE id = :id");
+			if (jdbc.update(sql.toString(), params) == 0) {
+				log.warn("Job {} was deleted - summary {} not merged into it.", summary.getJobId(), summary.getId());
+			}
+		});
+	}
+
+
+	@Override
+	public boolean checkpoint(Job job, String checkpoint) {
+		return jdbc.update("UPDATE jobs SET checkpoint = :checkpoint WHERE id = :id AND job_execution_id = :jobExecutionId",
+				new MapSqlParameterSource("id", job.getId())
+				.addValue("jobExecutionId", job.getJobExecutionId())
+				.addValue("checkpoint", checkpoint)) == 1;
+	}
+
+
+	// ----- Jobs -----
+
+
+	@Override
+	public List<Job> find(UUID tenantId, Pageable pageable, JobFilter filter) {
+		MapSqlParameterSource params = new MapSqlParameterSource();
+		StringBuilder sql = new StringBuilder(SELECT_JOBS)
+				.append(" WHERE ").append(filterCondition(tenantId, filter, params))
+				.append(orderBy(pageable.getSort(), JOB_SORT_COLUMNS, "next_execution NULLS FIRST, id"));
+		if (pageable.isPaged()) {
+			sql.append(" LIMIT :limit OFFSET :offset");
+			params.addValue("limit", pageable.getPageSize()).addValue("offset", pageable.getOffset());
+		}
+		return jdbc.query(sql.toString(), params, this::mapJob);
+	}
+
+
+	@Override
+	public CursorPage<Job> find(UUID tenantId, JobFilter filter, String continuationToken, int size, boolean includeCount) {
+		if (size < 1) throw new IllegalArgumentException("Page size must be positive, was " + size);
+		MapSqlParameterSource params = new MapSqlParameterSource().addValue("limit", size + 1);
+		String condition = filterCondition(tenantId, filter, params);
+		String pageCondition = condition;
+		if (continuationToken != null) {
+			ContinuationToken token = ContinuationToken.decode(continuationToken);
+			params.addValue("afterId", token.id());
+			if (token.position() == null) {
+				pageCondition += " AND (next_execution IS NULL AND id > :afterId OR next_execution IS NOT NULL)";
+			} else {
+				params.addValue("afterPosition", toOffset(token.position()));
+				pageCondition += " AND (next_execution > :afterPosition OR next_execution = :afterPosition AND id > :afterId)";
+			}
+		}
+		List<Job> jobs = jdbc.query(SELECT_JOBS + " WHERE " + pageCondition + " ORDER BY next_execution NULLS FIRST, id LIMIT :limit", params, this::mapJob);
+		Long totalCount = includeCount ? jdbc.queryForObject("SELECT COUNT(*) FROM jobs WHERE " + condition, params, Long.class) : null;
+		return CursorPage.of(jobs, size, job -> new ContinuationToken(
+				job.getNextExecution() == null ? null : Date.from(job.getNextExecution().toInstant()), job.getId()),
+				totalCount);
+	}
+
+
+	@Override
+	public List<UUID> findIds(UUID tenantId, JobFilter filter) {
+		MapSqlParameterSource params = new MapSqlParameterSource();
+		return jdbc.queryForList("SELECT id FROM jobs WHERE " + filterCondition(tenantId, filter, params), params, UUID.class);
+	}
+
+
+	@Override
+	public long count(UUID tenantId, JobFilter filter) {
+		MapSqlParameterSource params = new MapSqlParameterSource();
+		return jdbc.queryForObject("SELECT COUNT(*) FROM jobs WHERE " + filterCondition(tenantId, filter, params), params, Long.class);
+	}
+
+
+	/**
+	 * Condition with the same semantics as the criteria built by JobRepositoryImpl.filterCriteria.
+	 */
+	private static String filterCondition(UUID tenantId, JobFilter filter, MapSqlParameterSource params) {
+		List<String> conditions = new ArrayList<>();
+		conditions.add("tenant_id = :tenantId");
+		params.addValue("tenantId", tenantId);
+		if (isNotBlank(filter.getMatch())) {
+			String match = filter.getMatch().strip();
+			int dot = match.indexOf('.');
+			if (dot > 0) {
+				conditions.add("bean = :matchBean AND method LIKE :matchPrefix ESCAPE '\\'");
+				params.addValue("matchBean", match.substring(0, dot)).addValue("matchPrefix", likePrefix(match.substring(dot + 1)));
+			} else {
+				conditions.add("(bean LIKE :matchPrefix ESCAPE '\\' OR method LIKE :matchPrefix ESCAPE '\\'"
+						+ " OR application_name LIKE :matchPrefix ESCAPE '\\' OR profile LIKE :matchPrefix ESCAPE '\\')");
+				params.addValue("matchPrefix", likePrefix(match));
+			}
+		}
+		if (isNotBlank(filter.getScheduleType())) {
+			conditions.add("schedule_type = :scheduleType");
+			params.addValue("scheduleType", filter.getScheduleType());
+		}
+		if (isTrue(filter.getRunning())) {
+			conditions.add("job_execution_id IS NOT NULL");
+		} else if (isFalse(filter.getRunning())) {
+			conditions.add("job_execution_id IS NULL");
+		}
+		if (isTrue(filter.getExcludeDisabled()) || isTrue(filter.getEnabled())) {
+			conditions.add("config_enabled AND user_enabled");
+		} else if (isFalse(filter.getEnabled())) {
+			conditions.add("NOT (config_enabled AND user_enabled)");
+		}
+		if (filter.getIds() != null) {
+			conditions.add(filter.getIds().isEmpty() ? "FALSE" : "id IN (:ids)");
+			params.addValue("ids", filter.getIds());
+		}
+		return String.join(" AND ", conditions);
+	}
+
+
+	private static String likePrefix(String prefix) {
+		return prefix.replace("\\", "\\\\").replace("%", "\\%").replace("_", "\\_") + "%";
+	}
+
+
+	/**
+	 * ORDER BY clause for given Sort, with nulls ordered as in MongoDB, ie. before any other value.
+	 */
+	private static String orderBy(Sort sort, Map<String, String> columns, String defaultOrder) {
+		if (sort.isUnsorted()) return " ORDER BY " + defaultOrder;
+		return " ORDER BY " + sort.stream()
+		.map(order -> {
+			String column = columns.get(order.getProperty());
+			if (column == null) throw new IllegalArgumentException("Sorting on " + order.getProperty() + " is not supported.");
+			return column + (order.isAscending() ? " ASC NULLS FIRST" : " DESC NULLS LAST");
+		})
+		.collect(Collectors.joining(", "));
+	}
+
+
+	@Override
+	public void save(Job job) {
+		MapSqlParameterSource params = jobParams(job);
+		transactionTemplate.executeWithoutResult(status -> {
+			if (jdbc.update(UPDATE_JOB, params) == 0) {
+				jdbc.update(INSERT_JOB, params);
+			}
+			jdbc.update("DELETE FROM job_label_requirements WHERE job_id = :id", params);
+			insertLabelRequirements(List.of(job));
+		});
+	}
+
+
+	@Override
+	public void delete(UUID tenantId, UUID jobId) {
+		jdbc.update("DELETE FROM jobs WHERE tenant_id = :tenantId AND id = :id", idParams(tenantId, jobId));
+	}
+
+
+	@Override
+	public void deleteByIdIn(UUID tenantId, Collection<UUID> jobIds) {
+		if (jobIds.isEmpty()) return;
+		jdbc.update("DELETE FROM jobs WHERE tenant_id = :tenantId AND id IN (:ids)",
+				new MapSqlParameterSource("tenantId", tenantId).addValue("ids", jobIds));
+	}
+
+
+	@Override
+	public boolean setUserEnabled(UUID tenantId, UUID id, boolean userEnabled) {
+		return jdbc.update("UPDATE jobs SET user_enabled = :userEnabled WHERE tenant_id = :tenantId AND id = :id",
+				idParams(tenantId, id).addValue("userEnabled", userEnabled)) == 1;
+	}
+
+
+	@Override
+	public BulkUpdateResult setUserEnabled(UUID tenantId, JobFilter filter, boolean userEnabled) {
+		return updateAll(tenantId, filter, "user_enabled = :userEnabled", "user_enabled <> :userEnabled",
+				new MapSqlParameterSource("userEnabled", userEnabled));
+	}
+
+
+	@Override
+	public boolean setNextExecution(UUID tenantId, UUID id, ZonedDateTime nextExecution) {
+		return jdbc.update("UPDATE jobs SET next_execution = :nextExecution WHERE tenant_id = :tenantId AND id = :id AND job_execution_id IS NULL",
+				idParams(tenantId, id).addValue("nextExecution", toOffset(nextExecution))) == 1;
+	}
+
+
+	@Override
+	public long trigger(UUID tenantId, JobFilter filter, Duration coalescingWindow) {
+		ZonedDateTime now = ZonedDateTime.now(clock);
+		MapSqlParameterSource params = new MapSqlParameterSource()
+				.addValue("now", toOffset(now))
+				.addValue("coalescedUntil", toOffset(now.minus(coalescingWindow)));
+		return jdbc.update("UPDATE jobs SET next_execution = :now, triggered_at = :now WHERE " + filterCondition(tenantId, filter, params)
+				+ " AND job_execution_id IS NULL AND NOT local_execution AND (next_execution IS NULL OR next_execution > :now)"
+				+ " AND (triggered_at IS NULL OR triggered_at <= :coalescedUntil)", params);
+	}
+
+
+	@Override
+	public boolean clearRunningStatus(UUID tenantId, UUID id) {
+		MapSqlParameterSource params = idParams(tenantId, id);
+		return transactionTemplate.execute(status -> {
+			List<UUID> jobExecutionIds = jdbc.queryForList("SELECT job_execution_id FROM jobs WHERE tenant_id = :tenantId AND id = :id FOR UPDATE",
+					params, UUID.class);
+			if (jobExecutionIds.isEmpty()) return false;
+			if (jobExecutionIds.getFirst() != null) releaseLockGroup(jobExecutionIds.getFirst());
+			jdbc.update("UPDATE jobs SET popped_for_execution = NULL, job_execution_id = NULL WHERE tenant_id = :tenantId AND id = :id", params);
+			return true;
+		});
+	}
+
+
+	@Override
+	public BulkUpdateResult clearRunningStatus(UUID tenantId, JobFilter filter, ZonedDateTime startedBefore) {
+		MapSqlParameterSource params = new MapSqlParameterSource("startedBefore", toOffset(startedBefore));
+		String stale = filterCondition(tenantId, filter, params) + " AND job_execution_id IS NOT NULL AND popped_for_execution < :startedBefore";
+		return transactionTemplate.execute(status -> {
+			jdbc.update("DELETE FROM job_lock_group_holders WHERE job_execution_id IN (SELECT job_execution_id FROM jobs WHERE " + stale + ")", params);
+			int cleared = jdbc.update("UPDATE jobs SET popped_for_execution = NULL, job_execution_id = NULL WHERE " + stale, params);
+			return new BulkUpdateResult(cleared, cleared);
+		});
+	}
+
+
+	@Override
+	public boolean setProfile(UUID tenantId, UUID id, String profile) {
+		return jdbc.update("UPDATE jobs SET profile = :profile WHERE tenant_id = :tenantId AND id = :id",
+				idParams(tenantId, id).addValue("profile", profile)) == 1;
+	}
+
+
+	@Override
+	public BulkUpdateResult setProfile(UUID tenantId, JobFilter filter, String profile) {
+		if (profile == null) return updateAll(tenantId, filter, "profile = NULL", "profile IS NOT NULL", new MapSqlParameterSource());
+		return updateAll(tenantId, filter, "profile = :profile", "(profile IS NULL OR profile <> :profile)",
+				new MapSqlParameterSource("profile", profile));
+	}
+
+
+	/**
+	 * Updates the Jobs matching a filter, counting the matches and writing only the rows the change applies to.
+	 *
+	 * @param assignments the SET clause
+	 * @param changing condition matching the rows the assignments would change
+	 */
+	private BulkUpdateResult updateAll(UUID tenantId, JobFilter filter, String assignments, String changing, MapSqlParameterSource params) {
+		String condition = filterCondition(tenantId, filter, params);
+		return transactionTemplate.execute(status -> {
+			Long matched = jdbc.queryForObject("SELECT COUNT(*) FROM jobs WHERE " + condition, params, Long.class);
+			int modified = jdbc.update("UPDATE jobs SET " + assignments + " WHERE " + condition + " AND " + changing, params);
+			return new BulkUpdateResult(matched, modified);
+		});
+	}
+
+
+	@Override
+	public boolean clearProfile(UUID tenantId, UUID id) {
+		return setProfile(tenantId, id, null);
+	}
+
+
+	@Override
+	public Set<JobName> findNames(String applicationName) {
+		return new HashSet<>(jdbc.query("SELECT bean, method FROM jobs WHERE application_name = :applicationName",
+				new MapSqlParameterSource("applicationName", applicationName),
+				(rs, rowNum) -> new JobName(rs.getString("bean"), rs.getString("method"))));
+	}
+
+
+	@Override
+	public List<Job> findLocal(String applicationName) {
+		return jdbc.query(SELECT_JOBS + " WHERE application_name = :applicationName AND local_execution",
+				new MapSqlParameterSource("applicationName", applicationName), this::mapJob);
+	}
+
+
+	/**
+	 * Reconciles Jobs in a single transaction.
+	 * <p>
+	 * New Jobs are inserted with {@code ON CONFLICT DO NOTHING}, and configEnabled is only updated where it must change,
+	 * so several nodes may safely reconcile concurrently.
+	 */
+	@Override
+	public void reconcile(String applicationName, Collection<Job> newJobs, Collection<JobName> configEnabled, Collection<JobName> configDisabled) {
+		transactionTemplate.executeWithoutResult(status -> {
+			long created = 0;
+			if (!newJobs.isEmpty()) {
+				created = affected(jdbc.batchUpdate(INSERT_JOB + " ON CONFLICT DO NOTHING",
+						newJobs.stream().map(this::jobParams).toArray(SqlParameterSource[]::new)));
+				insertLabelRequirements(newJobs);
+			}
+			long changed = 0;
+			if (!configDisabled.isEmpty()) {
+				changed += affected(jdbc.batchUpdate("UPDATE jobs SET config_enabled = FALSE"
+						+ " WHERE application_name = :applicationName AND bean = :bean AND method = :method AND config_enabled",
+						nameParams(applicationName, configDisabled)));
+			}
+			if (!configEnabled.isEmpty()) {
+				changed += affected(jdbc.batchUpdate("UPDATE jobs SET config_enabled = TRUE"
+						+ " WHERE application_name = :applicationName AND bean = :bean AND method = :method AND NOT config_enabled",
+						nameParams(applicationName, configEnabled)));
+			}
+			log.info("Job reconciliation: {} created, {} enabled or disabled.", created, changed);
+		});
+	}
+
+
+	/**
+	 * Inserts a row per label requirement of the Jobs, which lets the claim query exclude Jobs by requirement using an index.
+	 * <p>
+	 * Rows are only inserted for Jobs which exist, as reconcile skips Jobs already created by another node.
+	 */
+	private void insertLabelRequirements(Collection<Job> jobs) {
+		SqlParameterSource[] rows = jobs.stream()
+				.filter(job -> job.getLabelSelector() != null)
+				.flatMap(job -> job.getLabelSelector().stream()
+						.map(requirement -> new MapSqlParameterSource("jobId", job.getId()).addValue("requirement", requirement)))
+				.toArray(SqlParameterSource[]::new);
+		if (rows.length == 0) return;
+		jdbc.batchUpdate("INSERT INTO job_label_requirements (job_id, requirement) SELECT :jobId, :requirement"
+				+ " WHERE EXISTS (SELECT 1 FROM jobs WHERE id = :jobId)", rows);
+	}
+
+
+	private static SqlParameterSource[] nameParams(String applicationName, Collection<JobName> names) {
+		return names.stream()
+				.map(name -> new MapSqlParameterSource("applicationName", applicationName)
+						.addValue("bean", name.bean())
+						.addValue("method", name.method()))
+				.toArray(SqlParameterSource[]::new);
+	}
+
+
+	private static long affected(int[] counts) {
+		return Arrays.stream(counts).filter(count -> count > 0).sum();
+	}
+
+
+	// ----- Job executions -----
+
+
+	private void insertExecution(JobExecution jobExecution) {
+		jdbc.update("INSERT INTO job_executions (id, tenant_id, job_id, success, stack_trace, execution_count, failure_count, created_date)"
+				+ " VALUES (:id, :tenantId, :jobId, :success, :stackTrace, :executionCount, :failureCount, :createdDate)",
+				new MapSqlParameterSource("id", jobExecution.getId())
+				.addValue("tenantId", jobExecution.getTenantId())
+				.addValue("jobId", jobExecution.getJobId())
+				.addValue("success", jobExecution.isSuccess())
+				.addValue("stackTrace", jobExecution.getStackTrace())
+				.addValue("executionCount", jobExecution.getExecutionCount())
+				.addValue("failureCount", jobExecution.getFailureCount())
+				.addValue("createdDate", toOffset(ZonedDateTime.now(clock))));
+	}
+
+
+	@Override
+	public List<JobExecution> findExecutionsByJobId(UUID tenantId, UUID jobId, Pageable pageable) {
+		MapSqlParameterSource params = new MapSqlParameterSource("tenantId", tenantId).addValue("jobId", jobId);
+		StringBuilder sql = new StringBuilder(SELECT_EXECUTIONS)
+				.append(" WHERE tenant_id = :tenantId AND job_id = :jobId")
+				.append(orderBy(pageable.getSort(), EXECUTION_COLUMNS, "created_date DESC"));
+		if (pageable.isPaged()) {
+			sql.append(" LIMIT :limit OFFSET :offset");
+			params.addValue("limit", pageable.getPageSize()).addValue("offset", pageable.getOffset());
+		}
+		return jdbc.query(sql.toString(), params, this::mapExecution);
+	}
+
+
+	@Override
+	public Optional<JobExecution> findExecution(UUID tenantId, UUID jobExecutionId) {
+		return jdbc.query(SELECT_EXECUTIONS + " WHERE tenant_id = :tenantId AND id = :id",
+				idParams(tenantId, jobExecutionId), this::mapExecution).stream().findFirst();
+	}
+
+
+	@Override
+	public Page<JobExecution> findExecutions(UUID tenantId, Boolean success, Pageable pageable) {
+		MapSqlParameterSource params = new MapSqlParameterSource("tenantId", tenantId).addValue("success", success);
+		String condition = " WHERE tenant_id = :tenantId" + (success == null ? "" : " AND success = :success");
+		StringBuilder sql = new StringBuilder(SELECT_EXECUTIONS)
+				.append(condition)
+				.append(orderBy(pageable.getSort(), EXECUTION_COLUMNS, "created_date DESC, id DESC"));
+		if (pageable.isUnpaged()) {
+			return new PageImpl<>(jdbc.query(sql.toString(), params, this::mapExecution));
+		}
+		sql.append(" LIMIT :limit OFFSET :offset");
+		params.addValue("limit", pageable.getPageSize()).addValue("offset", pageable.getOffset());
+		List<JobExecution> content = jdbc.query(sql.toString(), params, this::mapExecution);
+		long total = jdbc.queryForObject("SELECT COUNT(*) FROM job_executions" + condition, params, Long.class);
+		return new PageImpl<>(content, pageable, total);
+	}
+
+
+	@Override
+	public CursorPage<JobExecution> findExecutions(UUID tenantId, Boolean success, String continuationToken, int size, boolean includeCount) {
+		if (size < 1) throw new IllegalArgumentException("Page size must be positive, was " + size);
+		MapSqlParameterSource params = new MapSqlParameterSource("tenantId", tenantId)
+				.addValue("success", success)
+				.addValue("limit", size + 1);
+		String condition = "tenant_id = :tenantId" + (success == null ? "" : " AND success = :success");
+		String pageCondition = condition;
+		if (continuationToken != null) {
+			ContinuationToken token = ContinuationToken.decode(continuationToken);
+			params.addValue("beforePosition", toOffset(token.position())).addValue("beforeId", token.id());
+			pageCondition += " AND (created_date < :beforePosition OR created_date = :beforePosition AND id < :beforeId)";
+		}
+		List<JobExecution> executions = jdbc.query(SELECT_EXECUTIONS + " WHERE " + pageCondition + " ORDER BY created_date DESC, id DESC LIMIT :limit",
+				params, this::mapExecution);
+		Long totalCount = includeCount ? jdbc.queryForObject("SELECT COUNT(*) FROM job_executions WHERE " + condition, params, Long.class) : null;
+		return CursorPage.of(executions, size,
+				execution -> new ContinuationToken(Date.from(execution.getCreatedDate().toInstant()), execution.getId()),
+				totalCount);
+	}
+
+
+	/**
+	 * Streams a tenant's job executions as JSON documents with the same field names as in the MongoDB store.
+	 * <p>
+	 * Executions are read in chunks using keyset pagination, so memory use is constant, and no
+	 * connection or transaction is held while the stream is consumed.
+	 */
+	@Override
+	public Stream<String> streamExecutionsAsJson(UUID tenantId, Instant from, Instant to, Collection<String> fields) {
+		for (String field : fields) {
+			if (!EXECUTION_COLUMNS.containsKey(field)) throw new IllegalArgumentException("Unknown field: " + field);
+		}
+		Collection<String> exportedFields = fields.isEmpty() ? EXECUTION_COLUMNS.keySet() : fields;
+		return Stream.iterate(
+				exportChunk(tenantId, from, to, null),
+				chunk -> !chunk.isEmpty(),
+				chunk -> chunk.size() < EXPORT_CHUNK_SIZE ? List.of() : exportChunk(tenantId, from, to, chunk.getLast()))
+				.flatMap(List::stream)
+				.map(row -> {
+					Map<String, Object> document = new LinkedHashMap<>();
+					exportedFields.forEach(field -> document.put(field, row.get(EXECUTION_COLUMNS.get(field))));
+					return JsonPayloads.toJson(document);
+				});
+	}
+
+
+	private List<Map<String, Object>> exportChunk(UUID tenantId, Instant from, Instant to, Map<String, Object> last) {
+		MapSqlParameterSource params = new MapSqlParameterSource("tenantId", tenantId).addValue("limit", EXPORT_CHUNK_SIZE);
+		StringBuilder sql = new StringBuilder(SELECT_EXECUTIONS).append(" WHERE tenant_id = :tenantId");
+		if (from != null) {
+			sql.append(" AND created_date >= :from");
+			params.addValue("from", from.atOffset(ZoneOffset.UTC));
+		}
+		if (to != null) {
+			sql.append(" AND created_date < :to");
+			params.addValue("to", to.atOffset(ZoneOffset.UTC));
+		}
+		if (last != null) {
+			sql.append(" AND (created_date > :afterPosition OR created_date = :afterPosition AND id > :afterId)");
+			params.addValue("afterPosition", last.get("created_date")).addValue("afterId", last.get("id"));
+		}
+		sql.append(" ORDER BY created_date, id LIMIT :limit");
+		return jdbc.query(sql.toString(), params, (rs, rowNum) -> {
+			Map<String, Object> row = new LinkedHashMap<>();
+			row.put("id", rs.getObject("id", UUID.class));
+			row.put("tenant_id", rs.getObject("tenant_id", UUID.class));
+			row.put("job_id", rs.getObject("job_id", UUID.class));
+			row.put("success", rs.getBoolean("success"));
+			row.put("stack_trace", rs.getString("stack_trace"));
+			row.put("execution_count", rs.getLong("execution_count"));
+			row.put("failure_count", rs.getLong("failure_count"));
+			row.put("created_date", rs.getObject("created_date", OffsetDateTime.class));
+			return row;
+		});
+	}
+
+
+	// ----- Tasks -----
+
+
+	@Override
+	public void enqueue(Collection<Task> tasks) {
+		jdbc.batchUpdate("INSERT INTO job_tasks (id, queue, payload, next_execution, attempts) VALUES (:id, :queue, :payload, :nextExecution, :attempts)",
+				tasks.stream().map(task -> new MapSqlParameterSource("id", task.getId())
+						.addValue("queue", task.getQueue())
+						.addValue("payload", task.getPayload())
+						.addValue("nextExecution", toOffset(task.getNextExecution()))
+						.addValue("attempts", task.getAttempts()))
+				.toArray(SqlParameterSource[]::new));
+	}
+
+
+	/**
+	 * Locks due Tasks with {@code SELECT ... FOR UPDATE SKIP LOCKED}, like Jobs, and leases them with a single update.
+	 */
+	@Override
+	public List<Task> popTasks(Collection<String> queues, int max, Duration lease) {
+		return transactionTemplate.execute(status -> {
+			ZonedDateTime now = ZonedDateTime.now(clock);
+			MapSqlParameterSource params = new MapSqlParameterSource()
+					.addValue("queues", queues)
+					.addValue("now", toOffset(now))
+					.addValue("limit", max);
+			List<Task> tasks = jdbc.query(SELECT_TASKS + " WHERE queue IN (:queues) AND next_execution <= :now"
+					+ " ORDER BY next_execution LIMIT :limit FOR UPDATE SKIP LOCKED", params, this::mapTask);
+			if (tasks.isEmpty()) return tasks;
+			UUID claimId = UUID.randomUUID();
+			ZonedDateTime leaseUntil = now.plus(lease);
+			for (Task task : tasks) {
+				task.setClaimId(claimId);
+				task.setNextExecution(leaseUntil);
+			}
+			jdbc.update("UPDATE job_tasks SET next_execution = :leaseUntil, claim_id = :claimId WHERE id IN (:ids)",
+					new MapSqlParameterSource("leaseUntil", toOffset(leaseUntil))
+					.addValue("claimId", claimId)
+					.addValue("ids", tasks.stream().map(Task::getId).toList()));
+			return tasks;
+		});
+	}
+
+
+	@Override
+	public void completeTask(Task task) {
+		deleteTask(task.getId());
+	}
+
+
+	@Override
+	public void failTask(Task task) {
+		jdbc.update("UPDATE job_tasks SET next_execution = :nextExecution, attempts = :attempts, stack_trace = :stackTrace, claim_id = NULL"
+				+ " WHERE id = :id AND claim_id = :claimId",
+				new MapSqlParameterSource("id", task.getId())
+				.addValue("claimId", task.getClaimId())
+				.addValue("nextExecution", toOffset(task.getNextExecution()))
+				.addValue("attempts", task.getAttempts())
+				.addValue("stackTrace", task.getStackTrace()));
+	}
+
+
+	@Override
+	public boolean deleteTask(UUID id) {
+		return jdbc.update("DELETE FROM job_tasks WHERE id = :id", new MapSqlParameterSource("id", id)) > 0;
+	}
+
+
+	// ----- Mapping -----
+
+
+	private MapSqlParameterSource jobParams(Job job) {
+		return new MapSqlParameterSource()
+				.addValue("id", job.getId())
+				.addValue("tenantId", job.getTenantId())
+				.addValue("applicationName", job.getApplicationName())
+				.addValue("bean", job.getName().bean())
+				.addValue("method", job.getName().method())
+				.addValue("schedule", JsonPayloads.toJson(job.getSchedule()))
+				.addValue("scheduleType", job.getSchedule().getType())
+				.addValue("configEnabled", job.isConfigEnabled())
+				.addValue("userEnabled", job.isUserEnabled())
+				.addValue("nextExecution", toOffset(job.getNextExecution()))
+				.addValue("poppedForExecution", toOffset(job.getPoppedForExecution()))
+				.addValue("jobExecutionId", job.getJobExecutionId())
+				.addValue("profile", job.getProfile())
+				.addValue("deferrable", job.isDeferrable())
+				.addValue("local", job.isLocal())
+				.addValue("weight", job.getWeight())
+				.addValue("lockGroup", job.getLockGroup())
+				.addValue("lockGroupLimit", job.getLockGroupLimit())
+				.addValue("rateLimitBucket", job.getRateLimit() == null ? null : job.getRateLimit().bucket())
+				.addValue("rateLimitPermits", job.getRateLimit() == null ? null : job.getRateLimit().permits())
+				.addValue("rateLimitPeriodMillis", job.getRateLimit() == null ? null : job.getRateLimit().period().toMillis())
+				.addValue("executionCount", job.getExecutionCount())
+				.addValue("averageDurationMillis", job.getAverageDurationMillis())
+				.addValue("lastSuccessfullyExecuted", toOffset(job.getLastSuccessfullyExecuted()))
+				.addValue("lastFailedExecution", toOffset(job.getLastFailedExecution()))
+				.addValue("checkpoint", job.getCheckpoint())
+				.addValue("triggeredAt", toOffset(job.getTriggeredAt()))
+				.addValue("labelSelector", job.getLabelSelector() == null ? null : String.join("\n", job.getLabelSelector()));
+	}
+
+
+	private Job mapJob(ResultSet rs, int rowNum) throws SQLException {
+		Job job = new Job();
+		job.setId(rs.getObject("id", UUID.class));
+		job.setTenantId(rs.getObject("tenant_id", UUID.class));
+		job.setApplicationName(rs.getString("application_name"));
+		job.setName(new JobName(rs.getString("bean"), rs.getString("method")));
+		job.setSchedule(JsonPayloads.fromJson(rs.getString("schedule"), JobSchedule.class));
+		job.setConfigEnabled(rs.getBoolean("config_enabled"));
+		job.setUserEnabled(rs.getBoolean("user_enabled"));
+		job.setNextExecution(toZoned(rs.getObject("next_execution", OffsetDateTime.class)));
+		job.setPoppedForExecution(toZoned(rs.getObject("popped_for_execution", OffsetDateTime.class)));
+		job.setJobExecutionId(rs.getObject("job_execution_id", UUID.class));
+		job.setProfile(rs.getString("profile"));
+		job.setDeferrable(rs.getBoolean("deferrable"));
+		job.setLocal(rs.getBoolean("local_execution"));
+		job.setWeight(rs.getInt("weight"));
+		job.setLockGroup(rs.getString("lock_group"));
+		job.setLockGroupLimit(rs.getInt("lock_group_limit"));
+		String rateLimitBucket = rs.getString("rate_limit_bucket");
+		if (rateLimitBucket != null) {
+			job.setRateLimit(new RateLimit(rateLimitBucket, rs.getInt("rate_limit_permits"), Duration.ofMillis(rs.getLong("rate_limit_period_millis"))));
+		}
+		job.setExecutionCount(rs.getLong("execution_count"));
+		job.setAverageDurationMillis(rs.getLong("average_duration_millis"));
+		job.setLastSuccessfullyExecuted(toZoned(rs.getObject("last_successfully_executed", OffsetDateTime.class)));
+		job.setLastFailedExecution(toZoned(rs.getObject("last_failed_execution", OffsetDateTime.class)));
+		job.setCheckpoint(rs.getString("checkpoint"));
+		job.setTriggeredAt(toZoned(rs.getObject("triggered_at", OffsetDateTime.class)));
+		String labelSelector = rs.getString("label_selector");
+		if (labelSelector != null) job.setLabelSelector(List.of(labelSelector.split("\n")));
+		return job;
+	}
+
+
+	private JobExecution mapExecution(ResultSet rs, int rowNum) throws SQLException {
+		JobExecution jobExecution = new JobExecution(rs.getObject("job_id", UUID.class), rs.getBoolean("success"), rs.getString("stack_trace"),
+				rs.getLong("execution_count"), rs.getLong("failure_count"));
+		jobExecution.setId(rs.getObject("id", UUID.class));
+		jobExecution.setTenantId(rs.getObject("tenant_id", UUID.class));
+		jobExecution.setCreatedDate(toZoned(rs.getObject("created_date", OffsetDateTime.class)));
+		return jobExecution;
+	}
+
+
+	private Task mapTask(ResultSet rs, int rowNum) throws SQLException {
+		Task task = new Task();
+		task.setId(rs.getObject("id", UUID.class));
+		task.setQueue(rs.getString("queue"));
+		task.setPayload(rs.getString("payload"));
+		task.setNextExecution(toZoned(rs.getObject("next_execution", OffsetDateTime.class)));
+		task.setClaimId(rs.getObject("claim_id", UUID.class));
+		task.setAttempts(rs.getInt("attempts"));
+		task.setStackTrace(rs.getString("stack_trace"));
+		return task;
+	}
+
+
+	private static MapSqlParameterSource idParams(UUID tenantId, UUID id) {
+		return new MapSqlParameterSource("tenantId", tenantId).addValue("id", id);
+	}
+
+
+	private static OffsetDateTime toOffset(ZonedDateTime value) {
+		return value == null ? null : value.toOffsetDateTime().truncatedTo(ChronoUnit.MILLIS);
+	}
+
+
+	private static OffsetDateTime toOffset(Date value) {
+		return value == null ? null : value.toInstant().atOffset(ZoneOffset.UTC);
+	}
+
+
+	private static ZonedDateTime toZoned(OffsetDateTime value) {
+		return value == null ? null : value.atZoneSameInstant(ZoneId.systemDefault());
+	}
+
+
+	private static Map<String, String> columns(String... keysAndValues) {
+		Map<String, String> columns = new LinkedHashMap<>();
+		for (int i = 0; i < keysAndValues.length; i += 2) {
+			columns.put(keysAndValues[i], keysAndValues[i + 1]);
+		}
+		return columns;
+	}
+
+
+}
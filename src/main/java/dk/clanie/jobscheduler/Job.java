@@ -17,9 +17,11 @@
  */
 package dk.clanie.jobscheduler;
 
-import static lombok.AccessLevel.PRIVATE;
+import static lombok.AccessLevel.PACKAGE;
 
+import java.time.Clock;
 import java.time.ZonedDateTime;
+import java.util.List;
 import java.util.UUID;
 
 import org.jspecify.annotations.NonNull;
@@ -39,17 +41,27 @@ import lombok.experimental.SuperBuilder;
 @EqualsAndHashCode(callSuper = true)
 @SuperBuilder()
 @SuppressFBWarnings(value = "NP_NONNULL_FIELD_NOT_INITIALIZED_IN_CONSTRUCTOR", justification = "factory method initializes fields - default ctor is only for Spring / Mongo")
-@NoArgsConstructor(access = PRIVATE) // For Spring / Mongo
+@NoArgsConstructor(access = PACKAGE) // For Spring / Mongo and JdbcJobStore
 @Document(collection = Job.COLLECTION_NAME)
 @TypeAlias("Job")
 @CompoundIndexes({
 	@CompoundIndex(def = "{nextExecution: 1}", unique = false, partialFilter = "{configEnabled: true, userEnabled: true, jobExecutionId: null}"),
 	@CompoundIndex(def = "{applicationName: 1, name: 1}", unique = true),
+	@CompoundIndex(def = "{tenantId: 1, nextExecution: 1, _id: 1}"),
+	// Indexes supporting prefix search in admin listings - see JobRepositoryImpl.filterCriteria
+	@CompoundIndex(def = "{tenantId: 1, 'name.bean': 1, 'name.method': 1}"),
+	@CompoundIndex(def = "{tenantId: 1, 'name.method': 1}"),
+	@CompoundIndex(def = "{tenantId: 1, applicationName: 1}"),
+	@CompoundIndex(def = "{tenantId: 1, profile: 1}"),
+	// Finding the label requirements in use - see JobStore.findLabelRequirements
+	@CompoundIndex(def = "{labelSelector: 1}", sparse = true),
 })
 public class Job extends AbstractTenantEntity {
 
 	public static final String COLLECTION_NAME = "jobs";
 
+	static final double AVERAGE_DURATION_WEIGHT = 0.2;
+
 	private String applicationName;
 
 	private JobName name;
@@ -97,12 +109,80 @@ public class Job extends AbstractTenantEntity {
 	 */
 	private String profile;
 
+	/**
+	 * Deferrable jobs are not claimed while the node's LoadGovernor reports pressure,
+	 * outside the configured off-peak windows.
+	 */
+	private boolean deferrable;
+
+	/**
+	 * Number of permits for parallel job executions the job takes while running, eg. higher for a heavy export.
+	 */
+	private int weight;
+
+	/**
+	 * Optional mutual-exclusion group, eg. of jobs writing to the same tables.
+	 * <p>
+	 * A job in a lock group is only claimed while fewer than its {@link #getLockGroupLimit() lockGroupLimit}
+	 * jobs of the group are running, across all nodes.
+	 */
+	private String lockGroup;
+
+	/**
+	 * Maximum number of jobs of the lock group running at the same time, when this job is started.
+	 */
+	private int lockGroupLimit;
+
+	/**
+	 * Optional cluster-wide rate limit of the job, possibly shared with other jobs.
+	 */
+	private RateLimit rateLimit;
+
+	/**
+	 * Optional label requirements, in canonical form, which the labels of the node claiming the job must all satisfy.
+	 *
+	 * @see LabelRequirement
+	 * @see NodeLabels
+	 */
+	private List<String> labelSelector;
+
+	/**
+	 * Local jobs run on every node from an in-process timer, instead of being claimed by one node at a time.
+	 * <p>
+	 * They have no nextExecution, and their executions are recorded in periodic summaries - see {@link LocalJobRunner}.
+	 */
+	private boolean local;
+
+	/**
+	 * Progress recorded by the running or last unsuccessful execution as JSON - see {@link JobContext#checkpoint(Object)}.
+	 */
+	private String checkpoint;
+
+	/**
+	 * The time the job was last triggered manually - repeated triggers within the coalescing window are ignored.
+	 */
+	private ZonedDateTime triggeredAt;
+
 	private long executionCount;
+
+	/**
+	 * Rolling average duration of the job's executions, in milliseconds - 0 until it has been executed.
+	 * <p>
+	 * An exponentially weighted moving average, giving the latest execution a weight of {@value #AVERAGE_DURATION_WEIGHT}.
+	 * For local Jobs it is the mean of all executions, as summaries from all nodes are merged into it.
+	 */
+	private long averageDurationMillis;
+
 	private ZonedDateTime lastSuccessfullyExecuted;
 	private ZonedDateTime lastFailedExecution;
 
 
 	public Job(UUID tenantId, String applicationName, JobName name, JobSchedule schedule) {
+		this(tenantId, applicationName, name, schedule, Clock.systemDefaultZone());
+	}
+
+
+	public Job(UUID tenantId, String applicationName, JobName name, JobSchedule schedule, Clock clock) {
 		setTenantId(tenantId);
 		setId( UUID.randomUUID());
 		this.applicationName = applicationName;
@@ -110,7 +190,8 @@ public class Job extends AbstractTenantEntity {
 		this.schedule = schedule;
 		this.configEnabled = true;
 		this.userEnabled = true;
-		this.nextExecution = schedule.calculateNextExecution(this);
+		this.weight = 1;
+		this.nextExecution = schedule.calculateNextExecution(this, clock);
 	}
 
 
@@ -123,23 +204,50 @@ public class Job extends AbstractTenantEntity {
 
 
 
-	public void registerCompletedSuccessfully() {
-		updateAfterExecution();
-		lastSuccessfullyExecuted = ZonedDateTime.now();
+	/**
+	 * Returns the weight of the job - at least 1, as jobs stored before weights were introduced have none.
+	 */
+	public int getWeight() {
+		return Math.max(weight, 1);
+	}
+
+
+	/**
+	 * Returns the maximum number of jobs of the lock group running at the same time - at least 1.
+	 */
+	public int getLockGroupLimit() {
+		return Math.max(lockGroupLimit, 1);
+	}
+
+
+	public void registerCompletedSuccessfully(Clock clock) {
+		updateAfterExecution(clock);
+		checkpoint = null;
+		lastSuccessfullyExecuted = ZonedDateTime.now(clock);
 	}
 
 
-	public void registerFailed() {
-		updateAfterExecution();
-		lastFailedExecution = ZonedDateTime.now();
+	public void registerFailed(Clock clock) {
+		updateAfterExecution(clock);
+		lastFailedExecution = ZonedDateTime.now(clock);
 	}
 
 
-	private void updateAfterExecution() {
+	private void updateAfterExecution(Clock clock) {
+		if (poppedForExecution != null) {
+			updateAverageDuration(Math.max(0, clock.millis() - poppedForExecution.toInstant().toEpochMilli()));
+		}
 		poppedForExecution = null;
 		jobExecutionId = null;
 		executionCount++;
-		nextExecution = schedule.calculateNextExecution(this);
+		nextExecution = local ? null : schedule.calculateNextExecution(this, clock);
+	}
+
+
+	private void updateAverageDuration(long duration) {
+		averageDurationMillis = averageDurationMillis == 0
+				? duration
+				: Math.round(averageDurationMillis + AVERAGE_DURATION_WEIGHT * (duration - averageDurationMillis));
 	}
 
 
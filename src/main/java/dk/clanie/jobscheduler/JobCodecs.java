@@ -0,0 +1,445 @@
+/*
+ * Copyright (C) 2026, Claus Nielsen, clausn999@gmail.com
+ *
+ * This program is free software; you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation; either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License along
+ * with this program; if not, write to the Free Software Foundation, Inc.,
+ * 51 Franklin Street, Fifth Floor, Boston, MA 02110-1301 USA.
+ */
+package dk.clanie.jobscheduler;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.ZoneId;
+import java.time.ZonedDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+
+import org.bson.BsonReader;
+import org.bson.BsonType;
+import org.bson.BsonWriter;
+import org.bson.codecs.Codec;
+import org.bson.codecs.DecoderContext;
+import org.bson.codecs.EncoderContext;
+import org.bson.codecs.configuration.CodecProvider;
+import org.bson.codecs.configuration.CodecRegistries;
+import org.bson.codecs.configuration.CodecRegistry;
+
+import lombok.RequiredArgsConstructor;
+
+/**
+ * Hand-written BSON codecs for Job, JobSchedule and JobExecution.
+ * <p>
+ * Used instead of Spring Data's reflective MappingMongoConverter when claiming and completing Jobs,
+ * if {@code jobScheduler.mongo.codecs} is true. The codecs read and write the same document format as
+ * the converter: ZonedDateTimes as dates, Durations as ISO-8601 strings, type aliases in {@code _class}
+ * and null values omitted.
+ * <p>
+ * Fields of the base entity other than id and tenantId (eg. auditing fields) are skipped when decoding,
+ * so Jobs read with these codecs are only written back with targeted updates, never saved as a whole.
+ */
+final class JobCodecs {
+
+	private static final String TYPE_KEY = "_class";
+
+
+	private JobCodecs() {
+	}
+
+
+	/**
+	 * Returns a registry with the codecs, falling back to given registry for other types.
+	 * <p>
+	 * UUIDs are encoded with the codec from the registry the codecs are looked up in, so the
+	 * uuidRepresentation of the collection is respected.
+	 *
+	 * @param clock used for the createdDate of JobExecutions
+	 */
+	static CodecRegistry registry(CodecRegistry fallback, Clock clock) {
+		return CodecRegistries.fromRegistries(CodecRegistries.fromProviders(new Provider(clock)), fallback);
+	}
+
+
+	@RequiredArgsConstructor
+	private static final class Provider implements CodecProvider {
+
+		private final Clock clock;
+
+		@Override
+		@SuppressWarnings("unchecked")
+		public <T> Codec<T> get(Class<T> clazz, CodecRegistry registry) {
+			if (clazz == Job.class) return (Codec<T>) new JobCodec(registry);
+			if (clazz == JobExecution.class) return (Codec<T>) new JobExecutionCodec(registry, clock);
+			if (JobSchedule.class.isAssignableFrom(clazz)) return (Codec<T>) JobScheduleCodec.INSTANCE;
+			if (clazz == ZonedDateTime.class) return (Codec<T>) ZonedDateTimeCodec.INSTANCE;
+			return null;
+		}
+
+	}
+
+
+	static final class JobCodec implements Codec<Job> {
+
+		private final Codec<UUID> uuidCodec;
+
+		JobCodec(CodecRegistry registry) {
+			uuidCodec = registry.get(UUID.class);
+		}
+
+		@Override
+		public Class<Job> getEncoderClass() {
+			return Job.class;
+		}
+
+		@Override
+		public void encode(BsonWriter writer, Job job, EncoderContext context) {
+			writer.writeStartDocument();
+			writeUuid(writer, "_id", job.getId(), uuidCodec, context);
+			writeUuid(writer, "tenantId", job.getTenantId(), uuidCodec, context);
+			writeString(writer, "applicationName", job.getApplicationName());
+			if (job.getName() != null) {
+				writer.writeStartDocument("name");
+				writeString(writer, "bean", job.getName().bean());
+				writeString(writer, "method", job.getName().method());
+				writer.writeEndDocument();
+			}
+			if (job.getSchedule() != null) {
+				writer.writeName("schedule");
+				JobScheduleCodec.INSTANCE.encode(writer, job.getSchedule(), context);
+			}
+			writer.writeBoolean("configEnabled", job.isConfigEnabled());
+			writer.writeBoolean("userEnabled", job.isUserEnabled());
+			writeDateTime(writer, "nextExecution", job.getNextExecution());
+			writeDateTime(writer, "poppedForExecution", job.getPoppedForExecution());
+			writeUuid(writer, "jobExecutionId", job.getJobExecutionId(), uuidCodec, context);
+			writeString(writer, "profile", job.getProfile());
+			writer.writeBoolean("deferrable", job.isDeferrable());
+			writer.writeBoolean("local", job.isLocal());
+			writer.writeInt32("weight", job.getWeight());
+			writeString(writer, "lockGroup", job.getLockGroup());
+			writeString(writer, "checkpoint", job.getCheckpoint());
+			writeDateTime(writer, "triggeredAt", job.getTriggeredAt());
+			writer.writeInt32("lockGroupLimit", job.getLockGroupLimit());
+			if (job.getRateLimit() != null) {
+				writer.writeStartDocument("rateLimit");
+				writeString(writer, "bucket", job.getRateLimit().bucket());
+				writer.writeInt32("permits", job.getRateLimit().permits());
+				writeDuration(writer, "period", job.getRateLimit().period());
+				writer.writeEndDocument();
+			}
+			if (job.getLabelSelector() != null) {
+				writer.writeStartArray("labelSelector");
+				job.getLabelSelector().forEach(writer::writeString);
+				writer.writeEndArray();
+			}
+			writer.writeInt64("executionCount", job.getExecutionCount());
+			writer.writeInt64("averageDurationMillis", job.getAverageDurationMillis());
+			writeDateTime(writer, "lastSuccessfullyExecuted", job.getLastSuccessfullyExecuted());
+			writeDateTime(writer, "lastFailedExecution", job.getLastFailedExecution());
+			writer.writeString(TYPE_KEY, "Job");
+			writer.writeEndDocument();
+		}
+
+		@Override
+		public Job decode(BsonReader reader, DecoderContext context) {
+			Job job = new Job();
+			reader.readStartDocument();
+			while (reader.readBsonType() != BsonType.END_OF_DOCUMENT) {
+				String name = reader.readName();
+				if (reader.getCurrentBsonType() == BsonType.NULL) {
+					reader.readNull();
+					continue;
+				}
+				switch (name) {
+				case "_id" -> job.setId(uuidCodec.decode(reader, context));
+				case "tenantId" -> job.setTenantId(uuidCodec.decode(reader, context));
+				case "applicationName" -> job.setApplicationName(reader.readString());
+				case "name" -> job.setName(readJobName(reader));
+				case "schedule" -> job.setSchedule(JobScheduleCodec.INSTANCE.decode(reader, context));
+				case "configEnabled" -> job.setConfigEnabled(reader.readBoolean());
+				case "userEnabled" -> job.setUserEnabled(reader.readBoolean());
+				case "nextExecution" -> job.setNextExecution(readDateTime(reader));
+				case "poppedForExecution" -> job.setPoppedForExecution(readDateTime(reader));
+				case "jobExecutionId" -> job.setJobExecutionId(uuidCodec.decode(reader, context));
+				case "profile" -> job.setProfile(reader.readString());
+				case "deferrable" -> job.setDeferrable(reader.readBoolean());
+				case "local" -> job.setLocal(reader.readBoolean());
+				case "weight" -> job.setWeight((int) readLong(reader));
+				case "lockGroup" -> job.setLockGroup(reader.readString());
+				case "checkpoint" -> job.setCheckpoint(reader.readString());
+				case "triggeredAt" -> job.setTriggeredAt(readDateTime(reader));
+				case "lockGroupLimit" -> job.setLockGroupLimit((int) readLong(reader));
+				case "rateLimit" -> job.setRateLimit(readRateLimit(reader));
+				case "labelSelector" -> job.setLabelSelector(readStrings(reader));
+				case "executionCount" -> job.setExecutionCount(readLong(reader));
+				case "averageDurationMillis" -> job.setAverageDurationMillis(readLong(reader));
+				case "lastSuccessfullyExecuted" -> job.setLastSuccessfullyExecuted(readDateTime(reader));
+				case "lastFailedExecution" -> job.setLastFailedExecution(readDateTime(reader));
+				default -> reader.skipValue();
+				}
+			}
+			reader.readEndDocument();
+			return job;
+		}
+
+		private static JobName readJobName(BsonReader reader) {
+			String bean = null;
+			String method = null;
+			reader.readStartDocument();
+			while (reader.readBsonType() != BsonType.END_OF_DOCUMENT) {
+				switch (reader.readName()) {
+				case "bean" -> bean = reader.readString();
+				case "method" -> method = reader.readString();
+				default -> reader.skipValue();
+				}
+			}
+			reader.readEndDocument();
+			return new JobName(bean, method);
+		}
+
+		private static List<String> readStrings(BsonReader reader) {
+			List<String> strings = new ArrayList<>();
+			reader.readStartArray();
+			while (reader.readBsonType() != BsonType.END_OF_DOCUMENT) {
+				strings.add(reader.readString());
+			}
+			reader.readEndArray();
+			return strings;
+		}
+
+		private static RateLimit readRateLimit(BsonReader reader) {
+			String bucket = null;
+			int permits = 0;
+			Duration period = null;
+			reader.readStartDocument();
+			while (reader.readBsonType() != BsonType.END_OF_DOCUMENT) {
+				switch (reader.readName()) {
+				case "bucket" -> bucket = reader.readString();
+				case "permits" -> permits = (int) readLong(reader);
+				case "period" -> period = Duration.parse(reader.readString());
+				default -> reader.skipValue();
+				}
+			}
+			reader.readEndDocument();
+			return new RateLimit(bucket, permits, period);
+		}
+
+	}
+
+
+	static final class JobScheduleCodec implements Codec<JobSchedule> {
+
+		static final JobScheduleCodec INSTANCE = new JobScheduleCodec();
+
+		@Override
+		public Class<JobSchedule> getEncoderClass() {
+			return JobSchedule.class;
+		}
+
+		@Override
+		public void encode(BsonWriter writer, JobSchedule schedule, EncoderContext context) {
+			writer.writeStartDocument();
+			writer.writeString("type", schedule.getType());
+			switch (schedule) {
+			case JobSchedule.Cron cron -> {
+				writeString(writer, "cron", cron.getCron());
+				if (cron.getZone() != null) writer.writeString("zone", cron.getZone().getId());
+				writeDuration(writer, "spread", cron.getSpread());
+				writer.writeString(TYPE_KEY, "JobSchedule_Cron");
+			}
+			case JobSchedule.Delay delay -> {
+				writeDuration(writer, "delay", delay.getDelay());
+				writer.writeString(TYPE_KEY, "JobSchedule_Delay");
+			}
+			case JobSchedule.Rate rate -> {
+				writeDuration(writer, "rate", rate.getRate());
+				writeDateTime(writer, "firstExecution", rate.getFirstExecution());
+				writeDuration(writer, "spread", rate.getSpread());
+				writer.writeString(TYPE_KEY, "JobSchedule_Rate");
+			}
+			case JobSchedule.Manual _ -> writer.writeString(TYPE_KEY, "JobSchedule_Manual");
+			}
+			writer.writeEndDocument();
+		}
+
+		@Override
+		public JobSchedule decode(BsonReader reader, DecoderContext context) {
+			String type = null;
+			String cron = null;
+			ZoneId zone = null;
+			Duration duration = null;
+			ZonedDateTime firstExecution = null;
+			Duration spread = null;
+			reader.readStartDocument();
+			while (reader.readBsonType() != BsonType.END_OF_DOCUMENT) {
+				String name = reader.readName();
+				if (reader.getCurrentBsonType() == BsonType.NULL) {
+					reader.readNull();
+					continue;
+				}
+				switch (name) {
+				case "type" -> type = reader.readString();
+				case "cron" -> cron = reader.readString();
+				case "zone" -> zone = ZoneId.of(reader.readString());
+				case "delay", "rate" -> duration = Duration.parse(reader.readString());
+				case "firstExecution" -> firstExecution = readDateTime(reader);
+				case "spread" -> spread = Duration.parse(reader.readString());
+				default -> reader.skipValue();
+				}
+			}
+			reader.readEndDocument();
+			return switch (type) {
+			case "cron" -> new JobSchedule.Cron(cron, zone, spread);
+			case "delay" -> new JobSchedule.Delay(duration);
+			case "rate" -> new JobSchedule.Rate(duration, firstExecution, spread);
+			case "manual" -> new JobSchedule.Manual();
+			case null, default -> throw new IllegalArgumentException("Unknown JobSchedule type: " + type);
+			};
+		}
+
+	}
+
+
+	/**
+	 * Codec for JobExecutions, which are only ever inserted.
+	 * <p>
+	 * Sets createdDate to the current time of the Clock when encoding, in place of Spring Data auditing.
+	 */
+	static final class JobExecutionCodec implements Codec<JobExecution> {
+
+		private final Codec<UUID> uuidCodec;
+		private final Clock clock;
+
+		JobExecutionCodec(CodecRegistry registry, Clock clock) {
+			uuidCodec = registry.get(UUID.class);
+			this.clock = clock;
+		}
+
+		@Override
+		public Class<JobExecution> getEncoderClass() {
+			return JobExecution.class;
+		}
+
+		@Override
+		public void encode(BsonWriter writer, JobExecution jobExecution, EncoderContext context) {
+			writer.writeStartDocument();
+			writeUuid(writer, "_id", jobExecution.getId(), uuidCodec, context);
+			writeUuid(writer, "tenantId", jobExecution.getTenantId(), uuidCodec, context);
+			writeUuid(writer, "jobId", jobExecution.getJobId(), uuidCodec, context);
+			writer.writeBoolean("success", jobExecution.isSuccess());
+			writeString(writer, "stackTrace", jobExecution.getStackTrace());
+			writer.writeInt64("executionCount", jobExecution.getExecutionCount());
+			writer.writeInt64("failureCount", jobExecution.getFailureCount());
+			writer.writeDateTime("createdDate", clock.millis());
+			writer.writeString(TYPE_KEY, "JobExecution");
+			writer.writeEndDocument();
+		}
+
+		@Override
+		public JobExecution decode(BsonReader reader, DecoderContext context) {
+			UUID id = null;
+			UUID tenantId = null;
+			UUID jobId = null;
+			boolean success = false;
+			String stackTrace = null;
+			long executionCount = 0;
+			long failureCount = 0;
+			reader.readStartDocument();
+			while (reader.readBsonType() != BsonType.END_OF_DOCUMENT) {
+				String name = reader.readName();
+				if (reader.getCurrentBsonType() == BsonType.NULL) {
+					reader.readNull();
+					continue;
+				}
+				switch (name) {
+				case "_id" -> id = uuidCodec.decode(reader, context);
+				case "tenantId" -> tenantId = uuidCodec.decode(reader, context);
+				case "jobId" -> jobId = uuidCodec.decode(reader, context);
+				case "success" -> success = reader.readBoolean();
+				case "stackTrace" -> stackTrace = reader.readString();
+				case "executionCount" -> executionCount = readLong(reader);
+				case "failureCount" -> failureCount = readLong(reader);
+				default -> reader.skipValue();
+				}
+			}
+			reader.readEndDocument();
+			JobExecution jobExecution = new JobExecution(jobId, success, stackTrace, executionCount, failureCount);
+			jobExecution.setId(id);
+			jobExecution.setTenantId(tenantId);
+			return jobExecution;
+		}
+
+	}
+
+
+	/**
+	 * Stores ZonedDateTimes as dates, like the converter, and reads them in the system default time zone.
+	 * <p>
+	 * Also makes ZonedDateTime values in query and update documents encodable.
+	 */
+	static final class ZonedDateTimeCodec implements Codec<ZonedDateTime> {
+
+		static final ZonedDateTimeCodec INSTANCE = new ZonedDateTimeCodec();
+
+		@Override
+		public Class<ZonedDateTime> getEncoderClass() {
+			return ZonedDateTime.class;
+		}
+
+		@Override
+		public void encode(BsonWriter writer, ZonedDateTime value, EncoderContext context) {
+			writer.writeDateTime(value.toInstant().toEpochMilli());
+		}
+
+		@Override
+		public ZonedDateTime decode(BsonReader reader, DecoderContext context) {
+			return readDateTime(reader);
+		}
+
+	}
+
+
+	private static void writeString(BsonWriter writer, String name, String value) {
+		if (value != null) writer.writeString(name, value);
+	}
+
+
+	private static void writeUuid(BsonWriter writer, String name, UUID value, Codec<UUID> uuidCodec, EncoderContext context) {
+		if (value == null) return;
+		writer.writeName(name);
+		uuidCodec.encode(writer, value, context);
+	}
+
+
+	private static void writeDateTime(BsonWriter writer, String name, ZonedDateTime value) {
+		if (value != null) writer.writeDateTime(name, value.toInstant().toEpochMilli());
+	}
+
+
+	private static void writeDuration(BsonWriter writer, String name, Duration value) {
+		if (value != null) writer.writeString(name, value.toString());
+	}
+
+
+	private static ZonedDateTime readDateTime(BsonReader reader) {
+		return Instant.ofEpochMilli(reader.readDateTime()).atZone(ZoneId.systemDefault());
+	}
+
+
+	private static long readLong(BsonReader reader) {
+		return reader.getCurrentBsonType() == BsonType.INT32 ? reader.readInt32() : reader.readInt64();
+	}
+
+
+}
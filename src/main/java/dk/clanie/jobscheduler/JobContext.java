@@ -0,0 +1,82 @@
+/*
+ * Copyright (C) 2026, Claus Nielsen, clausn999@gmail.com
+ *
+ * This program is free software; you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation; either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License along
+ * with this program; if not, write to the Free Software Foundation, Inc.,
+ * 51 Franklin Street, Fifth Floor, Boston, MA 02110-1301 USA.
+ */
+package dk.clanie.jobscheduler;
+
+import java.util.Optional;
+import java.util.UUID;
+
+/**
+ * Context of a Job execution, passed to a {@link ScheduledJob} method which declares it as its only parameter.
+ * <p>
+ * Long-running jobs can record their progress with {@link #checkpoint(Object)}. If an execution fails, or its node
+ * dies and the job's running status is cleared, the next execution gets the last checkpoint from
+ * {@link #getCheckpoint(Class)}, and can resume from there instead of starting over.
+ * The checkpoint is cleared when an execution completes successfully.
+ */
+public class JobContext {
+
+	private final Job job;
+	private final JobStore jobStore;
+
+
+	JobContext(Job job, JobStore jobStore) {
+		this.job = job;
+		this.jobStore = jobStore;
+	}
+
+
+	public JobName getJobName() {
+		return job.getName();
+	}
+
+
+	public UUID getJobExecutionId() {
+		return job.getJobExecutionId();
+	}
+
+
+	/**
+	 * Returns the last checkpoint recorded by this or a previous, unsuccessful, execution of the job.
+	 *
+	 * @param type type of the checkpoint's state
+	 * @return the checkpoint, or empty if the last execution completed successfully, or no checkpoint was recorded
+	 */
+	public <T> Optional<T> getCheckpoint(Class<T> type) {
+		return Optional.ofNullable(job.getCheckpoint()).map(json -> JsonPayloads.fromJson(json, type));
+	}
+
+
+	/**
+	 * Records a checkpoint of the execution's progress, replacing the previous one. It is stored with a single update of
+	 * the claimed Job, so it is cheap enough to call after each chunk of work.
+	 *
+	 * @param state the progress, eg. the last processed id, which must be serializable as JSON - or null to clear the checkpoint
+	 * @throws IllegalStateException if the job is no longer claimed by this execution, eg. because its running status
+	 *                               was cleared, in which case the execution should stop
+	 */
+	public void checkpoint(Object state) {
+		String checkpoint = state == null ? null : JsonPayloads.toJson(state);
+		if (!jobStore.checkpoint(job, checkpoint)) {
+			throw new IllegalStateException("Job " + job.getName().displayName() + " is no longer claimed by execution "
+					+ job.getJobExecutionId() + " - checkpoint not recorded.");
+		}
+		job.setCheckpoint(checkpoint);
+	}
+
+
+}
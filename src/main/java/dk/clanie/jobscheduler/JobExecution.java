@@ -45,6 +45,9 @@ import lombok.experimental.SuperBuilder;
 @CompoundIndexes({
 	@CompoundIndex(def = "{jobId: 1, createdDate: -1}"),
 	@CompoundIndex(def = "{createdDate: -1}"),
+	// Keyset pagination - see JobExecutionRepositoryImpl
+	@CompoundIndex(def = "{tenantId: 1, createdDate: -1, _id: -1}"),
+	@CompoundIndex(def = "{tenantId: 1, success: 1, createdDate: -1, _id: -1}"),
 })
 public class JobExecution extends AbstractTenantEntity {
 
@@ -65,13 +68,25 @@ public class JobExecution extends AbstractTenantEntity {
 	 */
 	private String stackTrace;
 
+	/**
+	 * Number of executions of a local Job summarised by this JobExecution - 0 for a single execution.
+	 */
+	private long executionCount;
+
+	/**
+	 * Number of the summarised executions which failed.
+	 */
+	private long failureCount;
+
 
-	private JobExecution(UUID tenantId, UUID id, UUID jobId, boolean success, String stackTrace) {
+	private JobExecution(UUID tenantId, UUID id, UUID jobId, boolean success, String stackTrace, long executionCount, long failureCount) {
 		setId(id);
 		setTenantId(tenantId);
 		this.jobId = jobId;
 		this.success = success;
 		this.stackTrace = stackTrace;
+		this.executionCount = executionCount;
+		this.failureCount = failureCount;
 	}
 
 	/**
@@ -92,7 +107,31 @@ public class JobExecution extends AbstractTenantEntity {
 				job.getJobExecutionId(),
 				job.getId(),
 				success,
-				stackTrace
+				stackTrace,
+				0,
+				0
+				);
+	}
+
+
+	/**
+	 * Creates a JobExecution summarising executions of a local Job.
+	 *
+	 * @param job the local job that was executed
+	 * @param executionCount number of executions
+	 * @param failureCount number of the executions which failed
+	 * @param stackTrace stack trace of the last failure, or null
+	 * @return a new JobExecution instance, which is successful if none of the executions failed
+	 */
+	public static JobExecution summaryOf(Job job, long executionCount, long failureCount, String stackTrace) {
+		return new JobExecution(
+				job.getTenantId(),
+				UUID.randomUUID(),
+				job.getId(),
+				failureCount == 0,
+				stackTrace,
+				executionCount,
+				failureCount
 				);
 	}
 
@@ -26,12 +26,12 @@ import org.springframework.data.domain.Pageable;
 import org.springframework.data.mongodb.repository.MongoRepository;
 import org.springframework.data.mongodb.repository.Query;
 
-public interface JobExecutionRepository extends MongoRepository<JobExecution, UUID> {
+public interface JobExecutionRepository extends JobExecutionRepositoryCustom, MongoRepository<JobExecution, UUID> {
 
 	@Query("{ tenantId: ?0, jobId: ?1 }")
 	List<JobExecution> findByJobId(UUID tenantId, UUID jobId, Pageable pageable);
 
-	@Query("{ tenantId: ?0, jobExecutionId: ?1 }")
+	@Query("{ tenantId: ?0, _id: ?1 }")
 	Optional<JobExecution> findByJobExecutionId(UUID tenantId, UUID jobExecutionId);
 
 	@Query("{ tenantId: ?0 }")
@@ -0,0 +1,65 @@
+/*
+ * Copyright (C) 2026, Claus Nielsen, clausn999@gmail.com
+ *
+ * This program is free software; you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation; either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License along
+ * with this program; if not, write to the Free Software Foundation, Inc.,
+ * 51 Franklin Street, Fifth Floor, Boston, MA 02110-1301 USA.
+ */
+package dk.clanie.jobscheduler;
+
+import java.time.Instant;
+import java.util.Collection;
+import java.util.UUID;
+import java.util.stream.Stream;
+
+public interface JobExecutionRepositoryCustom {
+
+
+	/**
+	 * Inserts a new job execution, using the hand-written codecs if {@code jobScheduler.mongo.codecs} is true.
+	 *
+	 * @param jobExecution the job execution to insert
+	 */
+	void record(JobExecution jobExecution);
+
+
+	/**
+	 * Finds job executions for a tenant, newest first, using keyset pagination.
+	 *
+	 * @param tenantId the tenant identifier
+	 * @param success if not null, only executions with this success status are included
+	 * @param continuationToken token from the previous page, or null to get the first page
+	 * @param size maximum number of executions to return
+	 * @param includeCount whether to also count all matching executions
+	 * @return page of job executions
+	 */
+	CursorPage<JobExecution> find(UUID tenantId, Boolean success, String continuationToken, int size, boolean includeCount);
+
+
+	/**
+	 * Streams a tenant's job executions, oldest first, as (relaxed extended) JSON documents.
+	 * <p>
+	 * Documents are read from a cursor and converted one at a time, without mapping to
+	 * entities, so memory use does not depend on the number of executions.
+	 * The returned stream must be closed to release the cursor.
+	 *
+	 * @param tenantId the tenant identifier
+	 * @param from if not null, only executions created at or after this time are included
+	 * @param to if not null, only executions created before this time are included
+	 * @param fields fields to include, or empty to include all fields
+	 * @return stream of JSON documents, one per execution
+	 */
+	Stream<String> streamAsJson(UUID tenantId, Instant from, Instant to, Collection<String> fields);
+
+
+}
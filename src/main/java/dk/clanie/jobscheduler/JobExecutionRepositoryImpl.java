@@ -0,0 +1,134 @@
+/*
+ * Copyright (C) 2026, Claus Nielsen, clausn999@gmail.com
+ *
+ * This program is free software; you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation; either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License along
+ * with this program; if not, write to the Free Software Foundation, Inc.,
+ * 51 Franklin Street, Fifth Floor, Boston, MA 02110-1301 USA.
+ */
+package dk.clanie.jobscheduler;
+
+import static org.springframework.data.mongodb.core.query.Criteria.where;
+import static org.springframework.data.mongodb.core.query.Query.query;
+
+import java.time.Clock;
+import java.time.Instant;
+import java.util.Collection;
+import java.util.Date;
+import java.util.List;
+import java.util.UUID;
+import java.util.stream.Stream;
+
+import org.bson.Document;
+import org.bson.codecs.Codec;
+import org.bson.json.JsonMode;
+import org.bson.json.JsonWriterSettings;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.domain.Sort.Direction;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.stereotype.Component;
+
+import com.mongodb.client.MongoCollection;
+
+import lombok.RequiredArgsConstructor;
+
+@Component
+@RequiredArgsConstructor
+public class JobExecutionRepositoryImpl implements JobExecutionRepositoryCustom {
+
+	private static final JsonWriterSettings JSON_SETTINGS = JsonWriterSettings.builder().outputMode(JsonMode.RELAXED).build();
+
+	private final MongoTemplate mongo;
+
+	@Autowired
+	@Qualifier(JobSchedulerAutoConfiguration.CLOCK_BEAN_NAME)
+	private Clock clock;
+
+	@Value("${jobScheduler.mongo.codecs:false}")
+	private boolean useCodecs;
+
+	private MongoCollection<JobExecution> executionCollection;
+
+
+	@Override
+	public void record(JobExecution jobExecution) {
+		if (!useCodecs) {
+			mongo.insert(jobExecution);
+			return;
+		}
+		if (executionCollection == null) {
+			MongoCollection<Document> collection = mongo.getCollection(JobExecution.COLLECTION_NAME);
+			executionCollection = collection
+					.withCodecRegistry(JobCodecs.registry(collection.getCodecRegistry(), clock))
+					.withDocumentClass(JobExecution.class);
+		}
+		executionCollection.insertOne(jobExecution);
+	}
+
+
+	@Override
+	public CursorPage<JobExecution> find(UUID tenantId, Boolean success, String continuationToken, int size, boolean includeCount) {
+		if (size < 1) throw new IllegalArgumentException("Page size must be positive, was " + size);
+		Criteria criteria = where("tenantId").is(tenantId);
+		if (success != null) criteria = criteria.and("success").is(success);
+		Criteria pageCriteria = continuationToken == null ? criteria
+				: new Criteria().andOperator(criteria, before(ContinuationToken.decode(continuationToken)));
+		List<JobExecution> executions = mongo.find(query(pageCriteria)
+				.with(Sort.by(Direction.DESC, "createdDate", "id"))
+				.limit(size + 1), JobExecution.class);
+		Long totalCount = includeCount ? mongo.count(query(criteria), JobExecution.class) : null;
+		return CursorPage.of(executions, size,
+				execution -> new ContinuationToken(toDate(execution.getCreatedDate()), execution.getId()),
+				totalCount);
+	}
+
+
+	@Override
+	public Stream<String> streamAsJson(UUID tenantId, Instant from, Instant to, Collection<String> fields) {
+		Criteria criteria = where("tenantId").is(tenantId);
+		if (from != null || to != null) {
+			Criteria createdDate = criteria.and("createdDate");
+			if (from != null) createdDate.gte(from);
+			if (to != null) createdDate.lt(to);
+		}
+		Query query = query(criteria)
+				.with(Sort.by("createdDate", "_id"))
+				.cursorBatchSize(1000);
+		fields.forEach(query.fields()::include);
+		// Use the client's codec, as it is configured with the UUID representation used for ids.
+		Codec<Document> codec = mongo.getDb().getCodecRegistry().get(Document.class);
+		return mongo.stream(query, Document.class, JobExecution.COLLECTION_NAME)
+				.map(document -> document.toJson(JSON_SETTINGS, codec));
+	}
+
+
+	/**
+	 * Criteria matching executions before given position when ordered by createdDate and id.
+	 */
+	private static Criteria before(ContinuationToken token) {
+		return new Criteria().orOperator(
+				where("createdDate").lt(token.position()),
+				where("createdDate").is(token.position()).and("id").lt(token.id()));
+	}
+
+
+	private Date toDate(Object value) {
+		return (Date) mongo.getConverter().convertToMongoType(value);
+	}
+
+
+}
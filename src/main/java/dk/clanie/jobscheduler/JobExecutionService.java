@@ -18,15 +18,31 @@
 package dk.clanie.jobscheduler;
 
 import static dk.clanie.core.Utils.stackTraceOf;
+import static java.nio.charset.StandardCharsets.UTF_8;
 
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
 import java.lang.reflect.InvocationTargetException;
 import java.lang.reflect.Method;
+import java.nio.channels.Channels;
+import java.nio.channels.WritableByteChannel;
+import java.time.Clock;
+import java.time.Instant;
+import java.util.Collection;
+import java.util.Iterator;
 import java.util.List;
 import java.util.Map;
 import java.util.Optional;
 import java.util.UUID;
 import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.stream.Stream;
+import java.util.zip.GZIPOutputStream;
 
+import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.context.ApplicationContext;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
@@ -41,17 +57,24 @@ import lombok.extern.slf4j.Slf4j;
 public class JobExecutionService {
 
 	private final ApplicationContext applicationContext;
-	private final JobRepository jobRepository;
-	private final JobExecutionRepository jobExecutionRepository;
+	private final JobStore jobStore;
+	private final Clock clock;
 
 
 	private record BeanAndMethod(Object bean, Method method) {
-		public void invoke() throws IllegalAccessException, InvocationTargetException {
-			method.invoke(bean);
+		public void invoke(JobContext context) throws IllegalAccessException, InvocationTargetException {
+			if (method.getParameterCount() == 0) {
+				method.invoke(bean);
+			} else {
+				method.invoke(bean, context);
+			}
 		}
 	}
 	private final Map<JobName, BeanAndMethod> methodsByJobName = new ConcurrentHashMap<>();
 
+	@Autowired(required = false)
+	private JobListingCache listingCache;
+
 
 
 	/**
@@ -61,24 +84,41 @@ public class JobExecutionService {
 	 * records the execution result (success or failure) in the database.
 	 * 
 	 * @param job the Job to execute
+	 * @return true if the job completed successfully
 	 */
-	public void execute(Job job) {
+	public boolean execute(Job job) {
 		UUID jobExecutionId = job.getJobExecutionId();
 		String displayName = job.getName().displayName();
+		AtomicBoolean succeeded = new AtomicBoolean();
 		JobMdc.applyAndRun(jobExecutionId, displayName, () -> {
 			BeanAndMethod beanAndMethod = methodsByJobName.computeIfAbsent(job.getName(), this::findBeanAndMethod);
+			JobExecution jobExecution;
 			try {
-				beanAndMethod.invoke();
+				beanAndMethod.invoke(new JobContext(job, jobStore));
 				log.debug("Job {} completed successfully.", displayName);
-				jobExecutionRepository.save(JobExecution.of(job, true, null)); // Record success while job still has jobExecutionId
-				job.registerCompletedSuccessfully(); // Clears jobExecutionId
+				jobExecution = JobExecution.of(job, true, null); // Create while job still has jobExecutionId
+				job.registerCompletedSuccessfully(clock); // Clears jobExecutionId
 			} catch (Exception e) {
 				log.error("Job {} failed.", displayName, e);
-				jobExecutionRepository.save(JobExecution.of(job, false, stackTraceOf(e))); // Record failure while job still has jobExecutionId
-				job.registerFailed(); // Clears jobExecutionId
+				jobExecution = JobExecution.of(job, false, stackTraceOf(e)); // Create while job still has jobExecutionId
+				job.registerFailed(clock); // Clears jobExecutionId
 			}
-			jobRepository.save(job);
+			jobStore.complete(job, jobExecution);
+			if (listingCache != null) listingCache.invalidate(job.getTenantId());
+			succeeded.set(jobExecution.isSuccess());
 		});
+		return succeeded.get();
+	}
+
+
+	/**
+	 * Invokes a job's method, without MDC context or tracking - for local jobs, which are tracked by {@link LocalJobRunner}.
+	 *
+	 * @param name name of the job
+	 * @throws Exception if the job failed
+	 */
+	void invoke(JobName name) throws Exception {
+		methodsByJobName.computeIfAbsent(name, this::findBeanAndMethod).invoke(null);
 	}
 
 
@@ -91,7 +131,7 @@ public class JobExecutionService {
 	 * @return list of job executions
 	 */
 	public List<JobExecution> findByJobId(UUID tenantId, UUID jobId, Pageable pageable) {
-		return jobExecutionRepository.findByJobId(tenantId, jobId, pageable);
+		return jobStore.findExecutionsByJobId(tenantId, jobId, pageable);
 	}
 
 
@@ -103,7 +143,7 @@ public class JobExecutionService {
 	 * @return optional containing the job execution if found
 	 */
 	public Optional<JobExecution> findByJobExecutionId(UUID tenantId, UUID jobExecutionId) {
-		return jobExecutionRepository.findByJobExecutionId(tenantId, jobExecutionId);
+		return jobStore.findExecution(tenantId, jobExecutionId);
 	}
 
 
@@ -115,7 +155,7 @@ public class JobExecutionService {
 	 * @return page of job executions
 	 */
 	public Page<JobExecution> findByTenantId(UUID tenantId, Pageable pageable) {
-		return jobExecutionRepository.findByTenantId(tenantId, pageable);
+		return jobStore.findExecutions(tenantId, null, pageable);
 	}
 
 
@@ -128,7 +168,84 @@ public class JobExecutionService {
 	 * @return page of job executions
 	 */
 	public Page<JobExecution> findBySuccess(UUID tenantId, boolean success, Pageable pageable) {
-		return jobExecutionRepository.findByTenantIdAndSuccess(tenantId, success, pageable);
+		return jobStore.findExecutions(tenantId, success, pageable);
+	}
+
+
+	/**
+	 * Finds all job executions for a tenant, newest first, using keyset pagination.
+	 * <p>
+	 * Unlike {@link #findByTenantId(UUID, Pageable)} this performs equally well
+	 * for every page, and only counts when asked to.
+	 *
+	 * @param tenantId the tenant ID
+	 * @param continuationToken token from the previous page, or null to get the first page
+	 * @param size maximum number of executions to return
+	 * @param includeCount whether to also count all matching executions
+	 * @return page of job executions
+	 */
+	public CursorPage<JobExecution> findByTenantId(UUID tenantId, String continuationToken, int size, boolean includeCount) {
+		return jobStore.findExecutions(tenantId, null, continuationToken, size, includeCount);
+	}
+
+
+	/**
+	 * Finds job executions filtered by success status, newest first, using keyset pagination.
+	 *
+	 * @param tenantId the tenant ID
+	 * @param success whether to find successful or failed executions
+	 * @param continuationToken token from the previous page, or null to get the first page
+	 * @param size maximum number of executions to return
+	 * @param includeCount whether to also count all matching executions
+	 * @return page of job executions
+	 */
+	public CursorPage<JobExecution> findBySuccess(UUID tenantId, boolean success, String continuationToken, int size, boolean includeCount) {
+		return jobStore.findExecutions(tenantId, success, continuationToken, size, includeCount);
+	}
+
+
+	/**
+	 * Exports a tenant's job executions, oldest first, as newline delimited JSON.
+	 * <p>
+	 * Executions are streamed from the database and written one at a time, so memory use
+	 * is constant regardless of the size of the export.
+	 * The given stream is flushed, but not closed.
+	 *
+	 * @param tenantId the tenant ID
+	 * @param from if not null, only executions created at or after this time are exported
+	 * @param to if not null, only executions created before this time are exported
+	 * @param fields fields to export, or empty to export all fields
+	 * @param gzip whether to gzip-compress the output
+	 * @param out stream to write to
+	 * @return number of exported executions
+	 */
+	public long exportAsNdjson(UUID tenantId, Instant from, Instant to, Collection<String> fields, boolean gzip, OutputStream out) throws IOException {
+		GZIPOutputStream gzipOut = gzip ? new GZIPOutputStream(out, 64 * 1024) : null;
+		Writer writer = new BufferedWriter(new OutputStreamWriter(gzip ? gzipOut : out, UTF_8), 64 * 1024);
+		long count = 0;
+		try (Stream<String> documents = jobStore.streamExecutionsAsJson(tenantId, from, to, fields)) {
+			for (Iterator<String> iterator = documents.iterator(); iterator.hasNext(); count++) {
+				writer.write(iterator.next());
+				writer.write('\n');
+			}
+		}
+		writer.flush();
+		if (gzip) gzipOut.finish();
+		out.flush();
+		log.debug("Exported {} job executions for tenant {}.", count, tenantId);
+		return count;
+	}
+
+
+	/**
+	 * Exports a tenant's job executions, oldest first, as newline delimited JSON.
+	 * <p>
+	 * The given channel is not closed.
+	 *
+	 * @see #exportAsNdjson(UUID, Instant, Instant, Collection, boolean, OutputStream)
+	 */
+	public long exportAsNdjson(UUID tenantId, Instant from, Instant to, Collection<String> fields, boolean gzip, WritableByteChannel channel) throws IOException {
+		return exportAsNdjson(tenantId, from, to, fields, gzip, Channels.newOutputStream(channel));
 	}
 
 
@@ -136,7 +253,12 @@ public class JobExecutionService {
 		try {
 			Object bean = applicationContext.getBean(jobName.bean());
 			Class<?> clazz = bean.getClass();
-			Method method = clazz.getMethod(jobName.method());
+			Method method;
+			try {
+				method = clazz.getMethod(jobName.method());
+			} catch (NoSuchMethodException e) {
+				method = clazz.getMethod(jobName.method(), JobContext.class);
+			}
 			return new BeanAndMethod(bean, method);
 		} catch (NoSuchMethodException | SecurityException e) {
 			throw new RuntimeException("Method not found", e);
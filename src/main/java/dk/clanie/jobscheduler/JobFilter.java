@@ -17,6 +17,7 @@
  */
 package dk.clanie.jobscheduler;
 
+import java.util.Collection;
 import java.util.UUID;
 
 import lombok.AllArgsConstructor;
@@ -31,7 +32,35 @@ import lombok.NoArgsConstructor;
 public class JobFilter {
 
 	private UUID teantId;
+
+	/**
+	 * Case sensitive prefix matched against the bean name, method name, application name and profile.
+	 * <p>
+	 * A value of the form {@code <bean>.<method>} matches the bean name exactly and the method name
+	 * by prefix, so a Job's display name can be pasted into the search field.
+	 */
 	private String match;
+
 	private Boolean excludeDisabled;
 
+	/**
+	 * Only include Jobs with this schedule type ("cron", "delay", "rate" or "manual").
+	 */
+	private String scheduleType;
+
+	/**
+	 * When true, only include Jobs that are currently running, when false, only those that are not.
+	 */
+	private Boolean running;
+
+	/**
+	 * When true, only include Jobs that are both config and user enabled, when false, only those that are not.
+	 */
+	private Boolean enabled;
+
+	/**
+	 * Only include Jobs with these ids.
+	 */
+	private Collection<UUID> ids;
+
 }
@@ -0,0 +1,202 @@
+/*
+ * Copyright (C) 2026, Claus Nielsen, clausn999@gmail.com
+ *
+ * This program is free software; you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation; either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License along
+ * with this program; if not, write to the Free Software Foundation, Inc.,
+ * 51 Franklin Street, Fifth Floor, Boston, MA 02110-1301 USA.
+ */
+package dk.clanie.jobscheduler;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.TreeMap;
+import java.util.UUID;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Supplier;
+
+/**
+ * Bounded read-through cache of Job listings and counts, for admin UIs repeating the same queries.
+ * <p>
+ * Entries are keyed by tenant and query, evicted least recently used when the cache is full, and expire after the
+ * time to live. All entries of a tenant are invalidated when its Jobs are changed through {@link JobService}, or are
+ * claimed or complete an execution on this node. Changes made by other nodes are only seen when the entries expire, so the time
+ * to live bounds how stale a listing can be.
+ * <p>
+ * Cached Jobs are shared between callers, and must not be modified.
+ */
+public class JobListingCache {
+
+	private record Key(UUID tenantId, Object query) {
+	}
+
+	private record Value(Object result, Instant expires) {
+	}
+
+
+	private final int maxEntries;
+	private final Duration timeToLive;
+	private final Clock clock;
+
+	private final Map<Key, Value> entries; // Guarded by this
+	private long generation; // Incremented on each invalidation. Guarded by this
+	private long allInvalidated; // Generation of the last invalidation of all entries. Guarded by this
+	private final Map<UUID, Long> invalidated = new HashMap<>(); // Generation of the last invalidation of each tenant during loads. Guarded by this
+	private final TreeMap<Long, Integer> loading = new TreeMap<>(); // Number of loads in progress by generation they started in. Guarded by this
+	private final LongAdder hits = new LongAdder();
+	private final LongAdder misses = new LongAdder();
+
+
+	/**
+	 * @param maxEntries maximum number of cached listings and counts
+	 * @param timeToLive how long a cached listing or count is used
+	 */
+	public JobListingCache(int maxEntries, Duration timeToLive, Clock clock) {
+		if (maxEntries < 1) throw new IllegalArgumentException("maxEntries must be positive, was " + maxEntries);
+		this.maxEntries = maxEntries;
+		this.timeToLive = timeToLive;
+		this.clock = clock;
+		this.entries = new LinkedHashMap<>(16, 0.75f, true) {
+			private static final long serialVersionUID = 1L;
+
+			@Override
+			protected boolean removeEldestEntry(Map.Entry<Key, Value> eldest) {
+				return size() > JobListingCache.this.maxEntries;
+			}
+		};
+	}
+
+
+	/**
+	 * Returns the cached result of a query, or loads and caches it.
+	 * <p>
+	 * A result loaded while the tenant's entries are invalidated is returned, but not cached, as it may be stale.
+	 *
+	 * @param query the query's parameters - must have value semantics and must not be modified afterwards
+	 */
+	@SuppressWarnings("unchecked")
+	<T> T get(UUID tenantId, Object query, Supplier<T> loader) {
+		Key key = new Key(tenantId, query);
+		long loadedAt;
+		synchronized (this) {
+			Value value = entries.get(key);
+			if (value != null && value.expires().isAfter(clock.instant())) {
+				hits.increment();
+				return (T) value.result();
+			}
+			if (value != null) entries.remove(key);
+			loadedAt = generation;
+			loading.merge(loadedAt, 1, Integer::sum);
+		}
+		misses.increment();
+		T result;
+		try {
+			result = loader.get();
+		} catch (RuntimeException | Error e) {
+			synchronized (this) {
+				loaded(loadedAt);
+			}
+			throw e;
+		}
+		synchronized (this) {
+			if (allInvalidated <= loadedAt && invalidated.getOrDefault(tenantId, 0L) <= loadedAt) entries.put(key, new Value(result, clock.instant().plus(timeToLive)));
+			loaded(loadedAt);
+		}
+		return result;
+	}
+
+
+	/**
+	 * Ends a load, forgetting the invalidations no load in progress started before.
+	 */
+	private void loaded(long loadedAt) {
+		boolean oldest = loading.firstKey() == loadedAt;
+		loading.computeIfPresent(loadedAt, (_, count) -> count == 1 ? null : count - 1);
+		if (loading.isEmpty()) {
+			invalidated.clear();
+		} else if (oldest && !loading.containsKey(loadedAt)) {
+			long oldestLoad = loading.firstKey();
+			invalidated.values().removeIf(invalidation -> invalidation <= oldestLoad);
+		}
+	}
+
+
+	/**
+	 * Removes all cached listings and counts of a tenant.
+	 */
+	synchronized void invalidate(UUID tenantId) {
+		++generation;
+		if (!loading.isEmpty()) invalidated.put(tenantId, generation); // Only needed until the loads in progress end
+		entries.keySet().removeIf(key -> Objects.equals(key.tenantId(), tenantId));
+	}
+
+
+	/**
+	 * Removes all cached listings and counts.
+	 */
+	synchronized void invalidateAll() {
+		allInvalidated = ++generation;
+		invalidated.clear();
+		entries.clear();
+	}
+
+
+	/**
+	 * Returns a copy of a filter, as JobFilter is mutable and the copy is used in the cache key.
+	 */
+	static JobFilter snapshot(JobFilter filter) {
+		return new JobFilter(filter.getTeantId(), filter.getMatch(), filter.getExcludeDisabled(), filter.getScheduleType(),
+				filter.getRunning(), filter.getEnabled(), filter.getIds() == null ? null : List.copyOf(filter.getIds()));
+	}
+
+
+	/**
+	 * Number of queries answered from the cache.
+	 */
+	public long getHits() {
+		return hits.sum();
+	}
+
+
+	/**
+	 * Number of queries loaded from the JobStore.
+	 */
+	public long getMisses() {
+		return misses.sum();
+	}
+
+
+	/**
+	 * Fraction of queries answered from the cache, or 0 if there have been none.
+	 */
+	public double getHitRate() {
+		long hitCount = hits.sum();
+		long total = hitCount + misses.sum();
+		return total == 0 ? 0 : (double) hitCount / total;
+	}
+
+
+	/**
+	 * Number of cached listings and counts, including expired ones not yet removed.
+	 */
+	public synchronized int getSize() {
+		return entries.size();
+	}
+
+
+}
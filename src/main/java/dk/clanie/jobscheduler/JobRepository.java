@@ -43,16 +43,12 @@ public interface JobRepository extends JobRepositoryCustom, MongoRepository<Job,
 	Set<JobName> findNames(String applicationName);
 
 
-	@Query(value = "{ name: {$in: ?0}}", fields = "{ bean: '$name.bean', method: '$name.method', _id: 0 }")
-	Set<JobName> findNamesByNameIn(Collection<JobName> names);
-
-
-	@Query(value = "{ applicationName: ?0, name: { $in: ?1 }, configEnabled: { $eq: true } }")
-	List<Job> findConfigEnabledJobsByNameIn(String applicationName, Set<JobName> obsoleteJobNames);
+	@Query("{ applicationName: ?0, local: true }")
+	List<Job> findLocal(String applicationName);
 
 
-	@Query(value = "{ applicationName: ?0, name: { $in: ?1 }, configEnabled: { $ne: true } }")
-	List<Job> findConfigDisabledJobsByNameIn(String applicationName, Set<JobName> jobNamesEnabledInConfig);
+	@Query(value = "{ name: {$in: ?0}}", fields = "{ bean: '$name.bean', method: '$name.method', _id: 0 }")
+	Set<JobName> findNamesByNameIn(Collection<JobName> names);
 
 
 	@Query(value = "{ tenantId: ?0, _id: ?1 }", delete = true)
@@ -76,9 +72,9 @@ public interface JobRepository extends JobRepositoryCustom, MongoRepository<Job,
 	int setNextExecution(UUID tenantId, UUID id, ZonedDateTime zonedDateTime);
 
 
-	@Query(value = "{ tenantId: ?0, _id: ?1 }")
-	@Update("{ $unset: { poppedForExecution: '', jobExecutionId: '' } }")
-	int clearRunningStatus(UUID tenantId, UUID id);
+	@Query(value = "{ _id: ?0, jobExecutionId: ?1 }")
+	@Update("{ $set: { checkpoint: ?2 } }")
+	int setCheckpoint(UUID id, UUID jobExecutionId, String checkpoint);
 
 
 	@Query(value = "{ tenantId: ?0, _id: ?1 }")
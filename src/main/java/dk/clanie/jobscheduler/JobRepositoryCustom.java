@@ -17,10 +17,12 @@
  */
 package dk.clanie.jobscheduler;
 
+import java.time.Duration;
 import java.time.ZonedDateTime;
 import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
+import java.util.Set;
 import java.util.UUID;
 
 import org.springframework.data.domain.Pageable;
@@ -39,6 +41,22 @@ public interface JobRepositoryCustom {
 	List<Job> find(UUID tenantId, Pageable pageable, JobFilter filter);
 
 
+	/**
+	 * Finds jobs for a given tenant with optional filtering and keyset pagination.
+	 * <p>
+	 * Jobs are ordered by nextExecution and id, and unlike offset based paging, the cost of
+	 * fetching a page does not depend on how deep into the result it is.
+	 *
+	 * @param tenantId the tenant identifier
+	 * @param filter filter criteria for matching jobs
+	 * @param continuationToken token from the previous page, or null to get the first page
+	 * @param size maximum number of jobs to return
+	 * @param includeCount whether to also count all matching jobs
+	 * @return page of jobs matching the criteria
+	 */
+	CursorPage<Job> find(UUID tenantId, JobFilter filter, String continuationToken, int size, boolean includeCount);
+
+
 	/**
 	 * Finds job IDs for a given tenant with optional filtering.
 	 * 
@@ -59,29 +77,132 @@ public interface JobRepositoryCustom {
 	long count(UUID tenantId, JobFilter filter);
 
 
+	/**
+	 * Reconciles the Jobs of an application with its @ScheduledJob annotated methods in a single ordered bulk write.
+	 * <p>
+	 * New Jobs are upserted on application name and name, so they are only inserted if no such Job exists,
+	 * and the configEnabled property of existing Jobs is only written where it must change.
+	 * All operations are idempotent, so several nodes may safely reconcile concurrently.
+	 *
+	 * @param applicationName the application name
+	 * @param newJobs Jobs to create, unless they already exist
+	 * @param configEnabled names of the Jobs to config enable
+	 * @param configDisabled names of the Jobs to config disable
+	 */
+	void reconcile(String applicationName, Collection<Job> newJobs, Collection<JobName> configEnabled, Collection<JobName> configDisabled);
+
+
 	/**
 	 * Finds the next scheduled execution time among all enabled jobs
-	 * whose profile matches the given set.
+	 * matching the given criteria.
 	 *
-	 * @param matchProfiles profile values to match — typically {@code [null, ""]} for
+	 * @param criteria criteria the jobs must match; its profiles are typically {@code [null, ""]} for
 	 *        production (profileless jobs only) or the active Spring profile names for dev
 	 * @return the next execution time, or empty if no jobs are scheduled
 	 */
-	Optional<ZonedDateTime> findNextExecutionTime(Collection<String> matchProfiles);
+	Optional<ZonedDateTime> findNextExecutionTime(ClaimCriteria criteria);
+
+
+	/**
+	 * @see JobStore#findLabelRequirements()
+	 */
+	Set<String> findLabelRequirements();
+
+
+	/**
+	 * @see JobStore#getLabelMismatches()
+	 */
+	long getLabelMismatches();
 
 
 	/**
 	 * Atomically retrieves and marks the next job ready for execution,
-	 * filtering by profile.
+	 * filtering by the given criteria.
 	 * <p>
 	 * This method finds the next enabled job that is due for execution (nextExecution &lt;= now)
-	 * and whose profile matches the given set, then atomically sets its jobExecutionId
+	 * and matches the given criteria, then atomically sets its jobExecutionId
 	 * and poppedForExecution timestamp.
+	 * <p>
+	 * If the job is in a lock group, it also takes a place in the group, and if the group is full,
+	 * the claim is undone, and the next job outside the group is claimed instead.
 	 *
-	 * @param matchProfiles profile values to match
+	 * @param criteria criteria the job must match
 	 * @return the job ready for execution, or empty if no job is due
 	 */
-	Optional<Job> popForExecution(Collection<String> matchProfiles);
+	Optional<Job> popForExecution(ClaimCriteria criteria);
+
+
+	/**
+	 * Writes the execution related properties of a Job after an execution.
+	 * <p>
+	 * Only the properties updated by {@link Job#registerCompletedSuccessfully(java.time.Clock)} and
+	 * {@link Job#registerFailed(java.time.Clock)} are written, so changes made by others while the Job was
+	 * running, eg. disabling it, are preserved. Nothing is written if the Job has since been
+	 * claimed with another jobExecutionId.
+	 *
+	 * @param job the executed Job
+	 * @param jobExecutionId the jobExecutionId the Job was claimed with
+	 * @return true if the Job was updated
+	 */
+	boolean complete(Job job, UUID jobExecutionId);
+
+
+	/**
+	 * Merges a summary of executions into the execution related properties of a Job with a single pipeline update.
+	 * <p>
+	 * See {@link JobStore#recordSummary(JobExecution, long, ZonedDateTime, ZonedDateTime)}.
+	 *
+	 * @param jobId id of the Job
+	 * @param executions number of summarized executions
+	 * @param totalDurationMillis total duration of the summarized executions
+	 * @param lastSucceeded time the last successful execution completed, or null
+	 * @param lastFailed time the last failed execution completed, or null
+	 * @return true if the Job was updated
+	 */
+	boolean recordSummary(UUID jobId, long executions, long totalDurationMillis, ZonedDateTime lastSucceeded, ZonedDateTime lastFailed);
+
+
+	/**
+	 * Triggers immediate execution of the Jobs matching a filter with a single updateMany.
+	 *
+	 * @see JobStore#trigger(UUID, JobFilter, Duration)
+	 */
+	long trigger(UUID tenantId, JobFilter filter, Duration coalescingWindow);
+
+
+	/**
+	 * @see JobStore#setUserEnabled(UUID, JobFilter, boolean)
+	 */
+	BulkUpdateResult setUserEnabled(UUID tenantId, JobFilter filter, boolean userEnabled);
+
+
+	/**
+	 * @see JobStore#setProfile(UUID, JobFilter, String)
+	 */
+	BulkUpdateResult setProfile(UUID tenantId, JobFilter filter, String profile);
+
+
+	/**
+	 * @see JobStore#clearRunningStatus(UUID, JobFilter, ZonedDateTime)
+	 */
+	BulkUpdateResult clearRunningStatus(UUID tenantId, JobFilter filter, ZonedDateTime startedBefore);
+
+
+	/**
+	 * Clears the running status of a Job, and releases the lock group place of the execution it was claimed by.
+	 *
+	 * @return false if the Job wasn't found
+	 * @see JobStore#clearRunningStatus(UUID, UUID)
+	 */
+	boolean clearRunningStatus(UUID tenantId, UUID id);
+
+
+	/**
+	 * Releases the place in a lock group held by a Job execution, if it holds one.
+	 *
+	 * @param jobExecutionId id of the execution the Job was claimed by
+	 */
+	void releaseLockGroup(UUID jobExecutionId);
 
 
 }
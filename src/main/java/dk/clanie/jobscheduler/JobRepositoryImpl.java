@@ -18,20 +18,36 @@
 package dk.clanie.jobscheduler;
 
 import static dk.clanie.core.Utils.opt;
-import static dk.clanie.mongo.MongoDbUtils.criteriaAndContains;
+import static org.apache.commons.lang3.BooleanUtils.isFalse;
 import static org.apache.commons.lang3.BooleanUtils.isTrue;
+import static org.apache.commons.lang3.StringUtils.isNotBlank;
 import static org.springframework.data.mongodb.core.query.Criteria.where;
 import static org.springframework.data.mongodb.core.query.Query.query;
 
+import java.time.Clock;
+import java.time.Duration;
 import java.time.ZonedDateTime;
+import java.util.ArrayList;
 import java.util.Collection;
+import java.util.Date;
 import java.util.List;
 import java.util.Optional;
+import java.util.Set;
 import java.util.UUID;
+import java.util.concurrent.atomic.LongAdder;
 import java.util.function.Consumer;
 
+import org.bson.Document;
+import org.bson.conversions.Bson;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DuplicateKeyException;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.domain.Sort;
+import org.springframework.data.mongodb.BulkOperationException;
+import org.springframework.data.mongodb.core.BulkOperations;
+import org.springframework.data.mongodb.core.BulkOperations.BulkMode;
 import org.springframework.data.mongodb.core.FindAndModifyOptions;
 import org.springframework.data.mongodb.core.MongoTemplate;
 import org.springframework.data.mongodb.core.query.Criteria;
@@ -39,14 +55,53 @@ import org.springframework.data.mongodb.core.query.Query;
 import org.springframework.data.mongodb.core.query.Update;
 import org.springframework.stereotype.Component;
 
+import com.mongodb.bulk.BulkWriteResult;
+import com.mongodb.client.MongoCollection;
+import com.mongodb.client.model.Filters;
+import com.mongodb.client.model.FindOneAndUpdateOptions;
+import com.mongodb.client.model.ReturnDocument;
+import com.mongodb.client.model.Updates;
+import com.mongodb.client.result.UpdateResult;
+
 import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
 
+@Slf4j
 @Component
 @RequiredArgsConstructor
 public class JobRepositoryImpl implements JobRepositoryCustom {
 
+	private static final int DUPLICATE_KEY = 11000;
+
+	/**
+	 * Collection with a document per lock group, holding the ids of the running Jobs of the group.
+	 */
+	static final String LOCK_GROUPS_COLLECTION_NAME = "job-lock-groups";
+
+	/**
+	 * Collection with a document per rate limit bucket, holding its tokens and when it was last refilled.
+	 */
+	static final String RATE_LIMITS_COLLECTION_NAME = "job-rate-limits";
+
+	private static final int MAX_TOKEN_ATTEMPTS = 3;
+
 	private final MongoTemplate mongo;
 
+	@Autowired
+	@Qualifier(JobSchedulerAutoConfiguration.CLOCK_BEAN_NAME)
+	private Clock clock;
+
+	/**
+	 * Use the hand-written codecs in {@link JobCodecs} instead of the MappingMongoConverter when
+	 * claiming and completing Jobs.
+	 */
+	@Value("${jobScheduler.mongo.codecs:false}")
+	private boolean useCodecs;
+
+	private MongoCollection<Job> jobCollection;
+
+	private final LongAdder labelMismatches = new LongAdder();
+
 
 	@Override
 	public List<Job> find(UUID tenantId, Pageable pageable, JobFilter filter) {
@@ -54,6 +109,42 @@ public class JobRepositoryImpl implements JobRepositoryCustom {
 	}
 
 
+	@Override
+	public CursorPage<Job> find(UUID tenantId, JobFilter filter, String continuationToken, int size, boolean includeCount) {
+		if (size < 1) throw new IllegalArgumentException("Page size must be positive, was " + size);
+		Criteria criteria = filterCriteria(tenantId, filter);
+		Criteria pageCriteria = continuationToken == null ? criteria
+				: new Criteria().andOperator(criteria, after(ContinuationToken.decode(continuationToken)));
+		List<Job> jobs = mongo.find(query(pageCriteria)
+				.with(Sort.by("nextExecution", "id"))
+				.limit(size + 1), Job.class);
+		Long totalCount = includeCount ? mongo.count(query(criteria), Job.class) : null;
+		return CursorPage.of(jobs, size, job -> new ContinuationToken(toDate(job.getNextExecution()), job.getId()), totalCount);
+	}
+
+
+	/**
+	 * Criteria matching Jobs after given position when ordered by nextExecution and id.
+	 * <p>
+	 * MongoDB orders null before any date, so Jobs without a nextExecution come first.
+	 */
+	private static Criteria after(ContinuationToken token) {
+		if (token.position() == null) {
+			return new Criteria().orOperator(
+					where("nextExecution").isNull().and("id").gt(token.id()),
+					where("nextExecution").ne(null));
+		}
+		return new Criteria().orOperator(
+				where("nextExecution").gt(token.position()),
+				where("nextExecution").is(token.position()).and("id").gt(token.id()));
+	}
+
+
+	private Date toDate(Object value) {
+		return (Date) mongo.getConverter().convertToMongoType(value);
+	}
+
+
 	@Override
 	public List<UUID> findIds(UUID tenantId, JobFilter filter) {
 		return mongo.findDistinct(query(filterCriteria(tenantId, filter)), "id", Job.class, UUID.class);
@@ -66,56 +157,413 @@ public class JobRepositoryImpl implements JobRepositoryCustom {
 	}
 
 
+	/**
+	 * Builds the criteria for admin listings and counts.
+	 * <p>
+	 * Text matching uses anchored prefix regexes only, as those can be answered from the
+	 * {tenantId, field} indexes defined on Job, whereas unanchored regexes require a collection scan.
+	 */
 	private Criteria filterCriteria(UUID tenantId, JobFilter filter) {
-		Criteria criteria = where("tenantId").is(tenantId);
-		criteria = criteriaAndContains(criteria, List.of("description", "isin", "symbol"), filter.getMatch());
-		if (isTrue(filter.getExcludeDisabled())) {
-			criteria = criteria
-					.and("configEnabled").is(true)
-					.and("userEnabled").is(true);
+		List<Criteria> criteria = new ArrayList<>();
+		criteria.add(where("tenantId").is(tenantId));
+		if (isNotBlank(filter.getMatch())) {
+			criteria.add(matchCriteria(filter.getMatch().strip()));
+		}
+		if (isNotBlank(filter.getScheduleType())) {
+			criteria.add(where("schedule.type").is(filter.getScheduleType()));
+		}
+		if (isTrue(filter.getRunning())) {
+			criteria.add(where("jobExecutionId").ne(null));
+		} else if (isFalse(filter.getRunning())) {
+			criteria.add(where("jobExecutionId").isNull());
 		}
-		return criteria;
+		if (isTrue(filter.getExcludeDisabled()) || isTrue(filter.getEnabled())) {
+			criteria.add(where("configEnabled").is(true).and("userEnabled").is(true));
+		} else if (isFalse(filter.getEnabled())) {
+			criteria.add(new Criteria().orOperator(where("configEnabled").is(false), where("userEnabled").is(false)));
+		}
+		if (filter.getIds() != null) {
+			criteria.add(where("_id").in(filter.getIds()));
+		}
+		return criteria.size() == 1 ? criteria.getFirst() : new Criteria().andOperator(criteria);
+	}
+
+
+	private Criteria matchCriteria(String match) {
+		int dot = match.indexOf('.');
+		if (dot > 0) {
+			return where("name.bean").is(match.substring(0, dot))
+					.and("name.method").regex(prefixRegex(match.substring(dot + 1)));
+		}
+		String regex = prefixRegex(match);
+		return new Criteria().orOperator(
+				where("name.bean").regex(regex),
+				where("name.method").regex(regex),
+				where("applicationName").regex(regex),
+				where("profile").regex(regex));
+	}
+
+
+	/**
+	 * Anchored regex matching values starting with given prefix.
+	 * <p>
+	 * Metacharacters are escaped individually rather than using \Q..\E quoting,
+	 * because MongoDB only uses index bounds for "simple" prefix expressions.
+	 */
+	private static String prefixRegex(String prefix) {
+		StringBuilder sb = new StringBuilder(prefix.length() + 8).append('^');
+		for (char c : prefix.toCharArray()) {
+			if ("\\^$.|?*+()[]{}".indexOf(c) >= 0) sb.append('\\');
+			sb.append(c);
+		}
+		return sb.toString();
+	}
+
+
+	@Override
+	public void reconcile(String applicationName, Collection<Job> newJobs, Collection<JobName> configEnabled, Collection<JobName> configDisabled) {
+		if (newJobs.isEmpty() && configEnabled.isEmpty() && configDisabled.isEmpty()) return;
+		BulkWriteResult result;
+		try {
+			result = reconcileOperations(applicationName, newJobs, configEnabled, configDisabled).execute();
+		} catch (BulkOperationException e) {
+			if (!e.getErrors().stream().allMatch(error -> error.getCode() == DUPLICATE_KEY)) throw e;
+			// Another node inserted one of the new Jobs concurrently. As all operations are idempotent, just run them again.
+			log.debug("Concurrent job reconciliation detected - retrying.");
+			result = reconcileOperations(applicationName, newJobs, configEnabled, configDisabled).execute();
+		}
+		log.info("Job reconciliation: {} created, {} enabled or disabled.", result.getUpserts().size(), result.getModifiedCount());
+	}
+
+
+	private BulkOperations reconcileOperations(String applicationName, Collection<Job> newJobs, Collection<JobName> configEnabled, Collection<JobName> configDisabled) {
+		BulkOperations bulk = mongo.bulkOps(BulkMode.ORDERED, Job.class);
+		// Auditing doesn't run for bulk updates, so the auditing dates are maintained here.
+		Date now = toDate(ZonedDateTime.now(clock));
+		for (Job job : newJobs) {
+			Document document = new Document();
+			mongo.getConverter().write(job, document);
+			// applicationName and name are set from the query when inserting
+			document.remove("applicationName");
+			document.remove("name");
+			Update update = new Update();
+			document.forEach(update::setOnInsert);
+			update.setOnInsert("createdDate", now).setOnInsert("lastModifiedDate", now);
+			bulk.upsert(query(where("applicationName").is(applicationName)
+					.and("name.bean").is(job.getName().bean())
+					.and("name.method").is(job.getName().method())),
+					update);
+		}
+		if (!configDisabled.isEmpty()) {
+			bulk.updateMulti(query(where("applicationName").is(applicationName)
+					.and("name").in(configDisabled)
+					.and("configEnabled").is(true)),
+					new Update().set("configEnabled", false).set("lastModifiedDate", now));
+		}
+		if (!configEnabled.isEmpty()) {
+			bulk.updateMulti(query(where("applicationName").is(applicationName)
+					.and("name").in(configEnabled)
+					.and("configEnabled").ne(true)),
+					new Update().set("configEnabled", true).set("lastModifiedDate", now));
+		}
+		return bulk;
 	}
 
 
 	@Override
-	public Optional<ZonedDateTime> findNextExecutionTime(Collection<String> matchProfiles) {
-		Query query = nextToSchedule(matchProfiles, null);
+	public Optional<ZonedDateTime> findNextExecutionTime(ClaimCriteria claimCriteria) {
+		Query query = nextToSchedule(claimCriteria, criteria -> criteria.and("nextExecution").ne(null));
 		query.fields().include("nextExecution");
 		return opt(mongo.findOne(query, Job.class)).map(Job::getNextExecution);
 	}
 
 
+	/**
+	 * Finds the distinct label requirements - the criteria lets the sparse labelSelector index be used.
+	 */
+	@Override
+	public Set<String> findLabelRequirements() {
+		return Set.copyOf(mongo.findDistinct(query(where("labelSelector").exists(true)), "labelSelector", Job.class, String.class));
+	}
+
+
+	@Override
+	public long getLabelMismatches() {
+		return labelMismatches.sum();
+	}
+
+
 	@Override
-	public Optional<Job> popForExecution(Collection<String> matchProfiles) {
+	public Optional<Job> popForExecution(ClaimCriteria claimCriteria) {
+		ClaimCriteria criteria = claimCriteria;
+		while (true) {
+			Optional<Job> claimed = claim(criteria);
+			if (claimed.isEmpty()) return claimed;
+			Job job = claimed.get();
+			if (!criteria.nodeLabels().satisfies(job)) {
+				// A requirement added since the node last looked for requirements it doesn't satisfy
+				log.debug("Label selector {} is not satisfied by node labels {} - leaving job {} for other nodes.",
+						job.getLabelSelector(), criteria.nodeLabels(), job.getName().displayName());
+				unclaim(job);
+				labelMismatches.increment();
+				criteria = criteria.withExcludedLabelRequirementsOf(job);
+			} else if (job.getLockGroup() != null && !acquireLockGroup(job)) {
+				log.debug("Lock group {} is full - leaving job {} for later.", job.getLockGroup(), job.getName().displayName());
+				unclaim(job);
+				criteria = criteria.withExcludedLockGroup(job.getLockGroup());
+			} else if (job.getRateLimit() != null && !takeToken(job.getRateLimit())) {
+				log.debug("Rate limit {} is exhausted - leaving job {} for later.", job.getRateLimit().bucket(), job.getName().displayName());
+				if (job.getLockGroup() != null) releaseLockGroup(job.getJobExecutionId());
+				unclaim(job);
+				criteria = criteria.withExcludedRateLimit(job.getRateLimit().bucket());
+			} else {
+				return claimed;
+			}
+		}
+	}
+
+
+	private Optional<Job> claim(ClaimCriteria claimCriteria) {
 		UUID jobExecutionId = UUID.randomUUID();
-		Query query = nextToSchedule(matchProfiles, criteria -> criteria.and("nextExecution").lte(ZonedDateTime.now()));
+		ZonedDateTime now = ZonedDateTime.now(clock);
+		Query query = nextToSchedule(claimCriteria, criteria -> criteria.and("nextExecution").lte(now));
+		if (useCodecs) {
+			return opt(jobCollection().findOneAndUpdate(query.getQueryObject(),
+					Updates.combine(Updates.set("jobExecutionId", jobExecutionId), Updates.set("poppedForExecution", now)),
+					new FindOneAndUpdateOptions().sort(query.getSortObject()).returnDocument(ReturnDocument.AFTER)));
+		}
 		Job job = mongo.findAndModify(query, new Update()
 				.set("jobExecutionId", jobExecutionId)
-				.currentDate("poppedForExecution"),
+				.set("poppedForExecution", now),
 				new FindAndModifyOptions().returnNew(true),
 				Job.class);
 		return opt(job);
 	}
 
 
+	@Override
+	public boolean complete(Job job, UUID jobExecutionId) {
+		if (useCodecs) {
+			Bson update = Updates.combine(
+					Updates.set("schedule", job.getSchedule()),
+					Updates.set("nextExecution", job.getNextExecution()),
+					Updates.set("executionCount", job.getExecutionCount()),
+					Updates.set("averageDurationMillis", job.getAverageDurationMillis()),
+					Updates.set("lastSuccessfullyExecuted", job.getLastSuccessfullyExecuted()),
+					Updates.set("lastFailedExecution", job.getLastFailedExecution()),
+					Updates.set("checkpoint", job.getCheckpoint()),
+					Updates.unset("poppedForExecution"),
+					Updates.unset("jobExecutionId"));
+			Bson filter = Filters.and(Filters.eq("_id", job.getId()), Filters.in("jobExecutionId", jobExecutionId, null));
+			return jobCollection().updateOne(filter, update).getMatchedCount() == 1;
+		}
+		Update update = new Update()
+				.set("schedule", job.getSchedule())
+				.set("nextExecution", job.getNextExecution())
+				.set("executionCount", job.getExecutionCount())
+				.set("averageDurationMillis", job.getAverageDurationMillis())
+				.set("lastSuccessfullyExecuted", job.getLastSuccessfullyExecuted())
+				.set("lastFailedExecution", job.getLastFailedExecution())
+				.set("checkpoint", job.getCheckpoint())
+				.unset("poppedForExecution")
+				.unset("jobExecutionId");
+		// Also match a cleared jobExecutionId, so a Job which had its running status cleared manually is still rescheduled
+		Query query = query(where("id").is(job.getId()).and("jobExecutionId").in(jobExecutionId, null));
+		return mongo.updateFirst(query, update, Job.class).getMatchedCount() == 1;
+	}
+
+
+	@Override
+	public boolean recordSummary(UUID jobId, long executions, long totalDurationMillis, ZonedDateTime lastSucceeded, ZonedDateTime lastFailed) {
+		// An update pipeline, so the new average can be computed from the stored count and average
+		Document count = new Document("$ifNull", List.of("$executionCount", 0L));
+		Document average = new Document("$ifNull", List.of("$averageDurationMillis", 0L));
+		Document weightedAverage = new Document("$divide", List.of(
+				new Document("$add", List.of(new Document("$multiply", List.of(average, count)), totalDurationMillis)),
+				new Document("$add", List.of(count, executions))));
+		Document set = new Document()
+				.append("executionCount", new Document("$add", List.of(count, executions)))
+				.append("averageDurationMillis", new Document("$toLong", new Document("$round", List.of(weightedAverage, 0))));
+		if (lastSucceeded != null) {
+			set.append("lastSuccessfullyExecuted", new Document("$max", List.of("$lastSuccessfullyExecuted", toDate(lastSucceeded))));
+		}
+		if (lastFailed != null) {
+			set.append("lastFailedExecution", new Document("$max", List.of("$lastFailedExecution", toDate(lastFailed))));
+		}
+		return mongo.getCollection(Job.COLLECTION_NAME)
+				.updateOne(Filters.eq("_id", jobId), List.of(new Document("$set", set)))
+				.getMatchedCount() == 1;
+	}
+
+
+	@Override
+	public long trigger(UUID tenantId, JobFilter filter, Duration coalescingWindow) {
+		ZonedDateTime now = ZonedDateTime.now(clock);
+		Criteria notPending = new Criteria().andOperator(
+				filterCriteria(tenantId, filter),
+				where("jobExecutionId").isNull(),
+				where("local").ne(true),
+				new Criteria().orOperator(where("nextExecution").isNull(), where("nextExecution").gt(now)),
+				new Criteria().orOperator(where("triggeredAt").isNull(), where("triggeredAt").lte(now.minus(coalescingWindow))));
+		Update update = new Update().set("nextExecution", now).set("triggeredAt", now);
+		return mongo.updateMulti(query(notPending), update, Job.class).getModifiedCount();
+	}
+
+
+	@Override
+	public BulkUpdateResult setUserEnabled(UUID tenantId, JobFilter filter, boolean userEnabled) {
+		return updateAll(filterCriteria(tenantId, filter), new Update().set("userEnabled", userEnabled));
+	}
+
+
+	@Override
+	public BulkUpdateResult setProfile(UUID tenantId, JobFilter filter, String profile) {
+		return updateAll(filterCriteria(tenantId, filter), profile == null ? new Update().unset("profile") : new Update().set("profile", profile));
+	}
+
+
+	@Override
+	public boolean clearRunningStatus(UUID tenantId, UUID id) {
+		Query query = query(where("tenantId").is(tenantId).and("id").is(id));
+		query.fields().include("jobExecutionId");
+		Job job = mongo.findAndModify(query, new Update().unset("poppedForExecution").unset("jobExecutionId"), Job.class);
+		if (job == null) return false;
+		if (job.getJobExecutionId() != null) releaseLockGroup(job.getJobExecutionId());
+		return true;
+	}
+
+
+	@Override
+	public BulkUpdateResult clearRunningStatus(UUID tenantId, JobFilter filter, ZonedDateTime startedBefore) {
+		Criteria stale = new Criteria().andOperator(
+				filterCriteria(tenantId, filter),
+				where("jobExecutionId").ne(null),
+				where("poppedForExecution").lt(startedBefore));
+		Query query = query(stale);
+		query.fields().include("jobExecutionId");
+		List<UUID> jobExecutionIds = mongo.find(query, Job.class).stream().map(Job::getJobExecutionId).toList();
+		if (jobExecutionIds.isEmpty()) return new BulkUpdateResult(0, 0);
+		// Only the executions found above are cleared, so their lock group places are the ones to release
+		UpdateResult result = mongo.updateMulti(query(new Criteria().andOperator(stale, where("jobExecutionId").in(jobExecutionIds))),
+				new Update().unset("poppedForExecution").unset("jobExecutionId"), Job.class);
+		mongo.updateMulti(query(where("holders").in(jobExecutionIds)), new Update().pull("holders", new Document("$in", jobExecutionIds)),
+				LOCK_GROUPS_COLLECTION_NAME);
+		return new BulkUpdateResult(result.getMatchedCount(), result.getModifiedCount());
+	}
+
+
+	private BulkUpdateResult updateAll(Criteria criteria, Update update) {
+		UpdateResult result = mongo.updateMulti(query(criteria), update, Job.class);
+		return new BulkUpdateResult(result.getMatchedCount(), result.getModifiedCount());
+	}
+
+
+	/**
+	 * Takes a place in the Job's lock group for the execution it is claimed by, unless the group already holds lockGroupLimit Jobs.
+	 * <p>
+	 * The group document is matched only if it has less than lockGroupLimit holders, so when the group is full,
+	 * the upsert tries to insert a second document for the group, which fails with a duplicate key error.
+	 */
+	private boolean acquireLockGroup(Job job) {
+		Query query = query(where("_id").is(job.getLockGroup()).and("holders." + (job.getLockGroupLimit() - 1)).exists(false));
+		try {
+			mongo.upsert(query, new Update().addToSet("holders", job.getJobExecutionId()), LOCK_GROUPS_COLLECTION_NAME);
+			return true;
+		} catch (DuplicateKeyException e) {
+			return false;
+		}
+	}
+
+
+	@Override
+	public void releaseLockGroup(UUID jobExecutionId) {
+		mongo.updateMulti(query(where("holders").is(jobExecutionId)), new Update().pull("holders", jobExecutionId), LOCK_GROUPS_COLLECTION_NAME);
+	}
+
+
+	/**
+	 * Takes a token from a rate limit bucket, if it has one after refilling.
+	 * <p>
+	 * The bucket is updated with compare-and-set, matching the tokens and refill time it was read with,
+	 * so concurrent claims never take the same token. A bucket is created full when first used.
+	 *
+	 * @return false if the bucket is empty, or too contended to take a token now
+	 */
+	private boolean takeToken(RateLimit rateLimit) {
+		for (int attempt = 0; attempt < MAX_TOKEN_ATTEMPTS; attempt++) {
+			long now = clock.millis();
+			Document bucket = mongo.findById(rateLimit.bucket(), Document.class, RATE_LIMITS_COLLECTION_NAME);
+			if (bucket == null) {
+				try {
+					mongo.insert(new Document("_id", rateLimit.bucket())
+							.append("tokens", rateLimit.permits() - 1.0)
+							.append("refilled", new Date(now)), RATE_LIMITS_COLLECTION_NAME);
+					return true;
+				} catch (DuplicateKeyException e) {
+					continue; // Created concurrently by another node
+				}
+			}
+			Date refilled = bucket.getDate("refilled");
+			double tokens = rateLimit.refill(bucket.getDouble("tokens"), now - refilled.getTime());
+			if (tokens < 1) return false;
+			Query unchanged = query(where("_id").is(rateLimit.bucket())
+					.and("tokens").is(bucket.getDouble("tokens"))
+					.and("refilled").is(refilled));
+			Update take = new Update().set("tokens", tokens - 1).set("refilled", new Date(now));
+			if (mongo.updateFirst(unchanged, take, RATE_LIMITS_COLLECTION_NAME).getMatchedCount() == 1) return true;
+		}
+		return false;
+	}
+
+
+	/**
+	 * Undoes the claim of a Job, which could not be started after all.
+	 */
+	private void unclaim(Job job) {
+		mongo.updateFirst(query(where("id").is(job.getId()).and("jobExecutionId").is(job.getJobExecutionId())),
+				new Update().unset("poppedForExecution").unset("jobExecutionId"),
+				Job.class);
+	}
+
+
+	private MongoCollection<Job> jobCollection() {
+		if (jobCollection == null) {
+			MongoCollection<Document> collection = mongo.getCollection(Job.COLLECTION_NAME);
+			jobCollection = collection
+					.withCodecRegistry(JobCodecs.registry(collection.getCodecRegistry(), clock))
+					.withDocumentClass(Job.class);
+		}
+		return jobCollection;
+	}
+
+
 	/**
 	 * Builds a query to select the Job that is the next to be scheduled.
 	 * <p>
 	 * There is a matching partial index defined on Job.
 	 *
-	 * @param matchProfiles profile values to match against the job's profile field
+	 * @param claimCriteria criteria the job must match
 	 * @param criteriaConsumer optional consumer to add additional criteria
 	 * @return the query
 	 */
-	private Query nextToSchedule(Collection<String> matchProfiles, Consumer<Criteria> criteriaConsumer) {
+	private Query nextToSchedule(ClaimCriteria claimCriteria, Consumer<Criteria> criteriaConsumer) {
 		Criteria criteria = where("configEnabled").is(true)
 				.and("userEnabled").is(true)
 				.and("jobExecutionId").isNull()
-				.and("profile").in(matchProfiles);
+				.and("profile").in(claimCriteria.matchProfiles());
+		if (claimCriteria.excludeDeferrable()) criteria.and("deferrable").ne(true);
+		if (claimCriteria.limitsWeight()) criteria.and("weight").not().gt(claimCriteria.maxWeight()); // Jobs without weight weigh 1
+		if (!claimCriteria.excludedLockGroups().isEmpty()) criteria.and("lockGroup").nin(claimCriteria.excludedLockGroups());
+		if (!claimCriteria.excludedRateLimits().isEmpty()) criteria.and("rateLimit.bucket").nin(claimCriteria.excludedRateLimits());
+		if (!claimCriteria.excludedLabelRequirements().isEmpty()) criteria.and("labelSelector").nin(claimCriteria.excludedLabelRequirements());
 		if (criteriaConsumer != null) criteriaConsumer.accept(criteria);
+		Sort sort = switch (claimCriteria.order()) {
+		case NEXT_EXECUTION -> Sort.by("nextExecution");
+		case SHORTEST_FIRST -> Sort.by("nextExecution", "averageDurationMillis");
+		case LONGEST_FIRST -> Sort.by(Sort.Order.asc("nextExecution"), Sort.Order.desc("averageDurationMillis"));
+		};
 		return query(criteria)
-				.with(Sort.by("nextExecution"))
+				.with(sort)
 				.limit(1);
 	}
 
@@ -17,11 +17,20 @@
  */
 package dk.clanie.jobscheduler;
 
+import static lombok.AccessLevel.NONE;
 import static lombok.AccessLevel.PRIVATE;
 
+import java.time.Clock;
 import java.time.Duration;
+import java.time.ZoneId;
 import java.time.ZonedDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
 
+import org.springframework.data.annotation.Transient;
 import org.springframework.data.annotation.TypeAlias;
 import org.springframework.data.mongodb.core.mapping.Document;
 import org.springframework.scheduling.support.CronExpression;
@@ -64,8 +73,38 @@ public abstract sealed class JobSchedule permits Cron, Delay, Rate, Manual {
 	 * 
 	 * This is called when the job is first created, and <b>after</b> each execution, so schedulers will
 	 * never be given the chance to schedule parallel executions of the same Job.
+	 *
+	 * @param job the Job
+	 * @param clock the clock providing the current time
+	 */
+	protected abstract ZonedDateTime calculateNextExecution(Job job, Clock clock);
+
+
+	/**
+	 * Calculates the next execution times after given time, eg. for showing upcoming executions.
+	 * <p>
+	 * For schedules depending on when executions finish, the times are estimates, assuming
+	 * executions take no time.
+	 *
+	 * @param job the Job, which determines the offset of schedules with a spread
+	 * @param after the times returned are after this time
+	 * @param count maximum number of execution times to return
+	 * @return up to count execution times, in order
+	 */
+	public abstract List<ZonedDateTime> nextExecutions(Job job, ZonedDateTime after, int count);
+
+
+	/**
+	 * Returns a Job's offset within given spread, in milliseconds.
+	 * <p>
+	 * The offset is derived from a hash of the Job's name, so it is the same on all nodes and across restarts,
+	 * and Jobs sharing a schedule are spread evenly over the window, similar to Jenkins' {@code H} syntax.
 	 */
-	protected abstract ZonedDateTime calculateNextExecution(Job job);
+	protected static long spreadOffset(Job job, Duration spread) {
+		if (spread == null || spread.toMillis() <= 0) return 0;
+		long hash = job.getName().displayName().hashCode() * 0x9E3779B97F4A7C15L; // Mix bits, so similar names get distant offsets
+		return Math.floorMod(hash ^ (hash >>> 32), spread.toMillis());
+	}
 
 
 	/**
@@ -74,6 +113,12 @@ public abstract sealed class JobSchedule permits Cron, Delay, Rate, Manual {
 	 * Will not schedule multiple instances of a job to run in parallel, so even if the cron expression
 	 * would trigger the job eg. every minute, it will only be scheduled when the previous instance has
 	 * finished.
+	 * <p/>
+	 * The expression is evaluated in the given time zone, or the JVM's default time zone if none is given.
+	 * Parsed expressions are cached, and shared by all schedules with the same expression.
+	 * <p/>
+	 * With a spread, each Job is executed at a stable offset within the spread after the times given by the
+	 * expression, so Jobs with the same expression don't all become due at the same time.
 	 *
 	 * @see CronExpression#parse(String)
 	 */
@@ -84,17 +129,69 @@ public abstract sealed class JobSchedule permits Cron, Delay, Rate, Manual {
 	@TypeAlias("JobSchedule_Cron")
 	public static final class Cron extends JobSchedule {
 
+		private static final int MAX_CACHED_EXPRESSIONS = 1024;
+		private static final Map<String, CronExpression> EXPRESSIONS = new ConcurrentHashMap<>();
+
 		private String cron;
+		private ZoneId zone;
+		private Duration spread;
+
+		@Transient
+		@Getter(NONE)
+		@ToString.Exclude
+		private CronExpression expression;
 
 		@JsonCreator
-		protected Cron(@JsonProperty("cron") String cron) {
+		protected Cron(@JsonProperty("cron") String cron, @JsonProperty("zone") ZoneId zone, @JsonProperty("spread") Duration spread) {
 			type = "cron";
 			this.cron = cron;
+			this.zone = zone;
+			this.spread = spread;
+			this.expression = parse(cron); // Fail early on invalid expressions
+		}
+
+		@Override
+		protected ZonedDateTime calculateNextExecution(Job job, Clock clock) {
+			return next(ZonedDateTime.ofInstant(clock.instant(), zone == null ? clock.getZone() : zone), spreadOffset(job, spread));
 		}
 
 		@Override
-		protected ZonedDateTime calculateNextExecution(Job job) {
-			return CronExpression.parse(cron).next(ZonedDateTime.now());
+		public List<ZonedDateTime> nextExecutions(Job job, ZonedDateTime after, int count) {
+			long offset = spreadOffset(job, spread);
+			List<ZonedDateTime> executions = new ArrayList<>(count);
+			ZonedDateTime next = zone == null ? after : after.withZoneSameInstant(zone);
+			while (executions.size() < count && (next = next(next, offset)) != null) {
+				executions.add(next);
+			}
+			return executions;
+		}
+
+		/**
+		 * Returns the first time after given time given by the expression shifted by offset milliseconds.
+		 */
+		private ZonedDateTime next(ZonedDateTime after, long offset) {
+			if (offset == 0) return expression().next(after);
+			ZonedDateTime next = expression().next(after.minus(offset, ChronoUnit.MILLIS));
+			return next == null ? null : next.plus(offset, ChronoUnit.MILLIS);
+		}
+
+		private CronExpression expression() {
+			if (expression == null) expression = parse(cron); // Not set when read by Spring Data
+			return expression;
+		}
+
+		/**
+		 * Parses a cron expression, using a bounded cache; when it is full, expressions are parsed without being cached.
+		 */
+		private static CronExpression parse(String cron) {
+			CronExpression expression = EXPRESSIONS.get(cron);
+			if (expression != null) return expression;
+			expression = CronExpression.parse(cron);
+			if (EXPRESSIONS.size() < MAX_CACHED_EXPRESSIONS) {
+				CronExpression cached = EXPRESSIONS.putIfAbsent(cron, expression);
+				if (cached != null) return cached;
+			}
+			return expression;
 		}
 
 	}
@@ -120,8 +217,17 @@ public abstract sealed class JobSchedule permits Cron, Delay, Rate, Manual {
 		}
 
 		@Override
-		protected ZonedDateTime calculateNextExecution(Job job) {
-			return ZonedDateTime.now().plus(delay);
+		protected ZonedDateTime calculateNextExecution(Job job, Clock clock) {
+			return ZonedDateTime.now(clock).plus(delay);
+		}
+
+		@Override
+		public List<ZonedDateTime> nextExecutions(Job job, ZonedDateTime after, int count) {
+			List<ZonedDateTime> executions = new ArrayList<>(count);
+			for (int i = 1; i <= count; i++) {
+				executions.add(after.plus(delay.multipliedBy(i)));
+			}
+			return executions;
 		}
 
 	}
@@ -132,6 +238,9 @@ public abstract sealed class JobSchedule permits Cron, Delay, Rate, Manual {
 	 * <p/>
 	 * Will not schedule multiple instances of a job to run in parallel, so invocations will be
 	 * skipped if jobs run for longer the the invocation interval (rate).
+	 * <p/>
+	 * With a spread, each Job is executed at a stable offset within the spread after the times given by
+	 * the first execution and the rate.
 	 */
 	@Getter
 	@ToString
@@ -142,28 +251,53 @@ public abstract sealed class JobSchedule permits Cron, Delay, Rate, Manual {
 
 		private Duration rate;
 		private ZonedDateTime firstExecution;
+		private Duration spread;
 
 		@JsonCreator
 		protected Rate(@JsonProperty("rate") Duration rate,
-				@JsonProperty("firstExecution") ZonedDateTime firstExecution) {
+				@JsonProperty("firstExecution") ZonedDateTime firstExecution,
+				@JsonProperty("spread") Duration spread) {
 			type = "rate";
 			this.rate = rate;
 			this.firstExecution = firstExecution;
+			this.spread = spread;
 		}
 
 		@Override
-		protected ZonedDateTime calculateNextExecution(Job job) {
-			ZonedDateTime now = ZonedDateTime.now();
-
-			// If current time is before notBefore (ie. first execution time), return that;
+		protected ZonedDateTime calculateNextExecution(Job job, Clock clock) {
+			long offset = spreadOffset(job, spread);
 			if (firstExecution == null) {
-				firstExecution = now;
-				return firstExecution;
-			} else { // else calculate next execution time based on rate.
-				Duration elapsed = Duration.between(firstExecution, now);
-				long intervalsPassed = elapsed.dividedBy(rate);
-				return firstExecution.plus(rate.multipliedBy(intervalsPassed + 1));
+				firstExecution = ZonedDateTime.now(clock);
+				return offset == 0 ? firstExecution : firstExecution.plus(offset, ChronoUnit.MILLIS);
+			}
+			return nextAfter(clock.millis(), offset);
+		}
+
+		@Override
+		public List<ZonedDateTime> nextExecutions(Job job, ZonedDateTime after, int count) {
+			long offset = spreadOffset(job, spread);
+			List<ZonedDateTime> executions = new ArrayList<>(count);
+			ZonedDateTime next = firstExecution == null
+					? after.plus(rate).plus(offset, ChronoUnit.MILLIS)
+					: nextAfter(after.toInstant().toEpochMilli(), offset);
+			for (int i = 0; i < count; i++) {
+				executions.add(next);
+				next = next.plus(rate);
 			}
+			return executions;
+		}
+
+		/**
+		 * Returns the first execution time after given time, with the first execution time shifted
+		 * by offset milliseconds. Calculated in epoch milliseconds to avoid intermediate Duration
+		 * and ZonedDateTime instances. If given time is before the first execution time, returns that.
+		 */
+		private ZonedDateTime nextAfter(long epochMillis, long offset) {
+			long first = firstExecution.toEpochSecond() * 1000 + firstExecution.getNano() / 1_000_000 + offset;
+			if (epochMillis < first) return firstExecution.plus(offset, ChronoUnit.MILLIS);
+			long period = Math.max(1, rate.toMillis());
+			long intervalsPassed = (epochMillis - first) / period;
+			return firstExecution.plus(offset + (intervalsPassed + 1) * period, ChronoUnit.MILLIS);
 		}
 
 	}
@@ -184,15 +318,33 @@ public abstract sealed class JobSchedule permits Cron, Delay, Rate, Manual {
 		}
 
 		@Override
-		protected ZonedDateTime calculateNextExecution(Job job) {
+		protected ZonedDateTime calculateNextExecution(Job job, Clock clock) {
 			return null;
 		}
 
+		@Override
+		public List<ZonedDateTime> nextExecutions(Job job, ZonedDateTime after, int count) {
+			return List.of();
+		}
+
 	}
 
 
 	public static Cron cron(String cron) {
-		return new Cron(cron);
+		return new Cron(cron, null, null);
+	}
+
+
+	public static Cron cron(String cron, ZoneId zone) {
+		return new Cron(cron, zone, null);
+	}
+
+
+	/**
+	 * Cron schedule with each Job executed at a stable offset within given spread after the times given by the expression.
+	 */
+	public static Cron cron(String cron, ZoneId zone, Duration spread) {
+		return new Cron(cron, zone, spread);
 	}
 
 
@@ -202,7 +354,15 @@ public abstract sealed class JobSchedule permits Cron, Delay, Rate, Manual {
 
 
 	public static Rate rate(Duration rate) {
-		return new Rate(rate, null);
+		return new Rate(rate, null, null);
+	}
+
+
+	/**
+	 * Rate schedule with each Job executed at a stable offset within given spread.
+	 */
+	public static Rate rate(Duration rate, Duration spread) {
+		return new Rate(rate, null, spread);
 	}
 
 
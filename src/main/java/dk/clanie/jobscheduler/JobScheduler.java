@@ -19,16 +19,19 @@ package dk.clanie.jobscheduler;
 
 import static dk.clanie.core.Utils.opt;
 
+import java.time.Clock;
 import java.time.Duration;
+import java.time.Instant;
 import java.time.ZonedDateTime;
 import java.util.Arrays;
-import java.util.Collection;
+import java.util.List;
 import java.util.concurrent.ExecutorService;
 import java.util.concurrent.Executors;
 import java.util.concurrent.Semaphore;
 import java.util.concurrent.atomic.AtomicBoolean;
 
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.boot.SpringApplication;
 import org.springframework.boot.context.event.ApplicationReadyEvent;
@@ -41,12 +44,14 @@ import lombok.extern.slf4j.Slf4j;
 @Slf4j
 public class JobScheduler {
 
+	private static final Duration BLOCKED_JOB_RETRY_DELAY = Duration.ofSeconds(1);
+
 
 	@Autowired
 	private ApplicationContext applicationContext;
 
 	@Autowired
-	private JobRepository jobRepository;
+	private JobStore jobStore;
 
 	@Autowired
 	private JobExecutionService jobExecutionService;
@@ -54,9 +59,25 @@ public class JobScheduler {
 	@Autowired(required = false)
 	private JobInitializationLatch initializationLatch;
 
+	@Autowired(required = false)
+	private LoadGovernor loadGovernor;
+
+	@Autowired(required = false)
+	private AdaptiveConcurrencyLimit concurrencyLimit;
+
+	@Autowired(required = false)
+	private LocalJobRunner localJobRunner;
+
+	@Autowired(required = false)
+	private JobListingCache listingCache;
+
 	@Autowired
 	private Environment environment;
 
+	@Autowired
+	@Qualifier(JobSchedulerAutoConfiguration.CLOCK_BEAN_NAME)
+	private Clock clock;
+
 
 	@Value(value = "${jobScheduler.pollInterval:PT1M}")
 	private Duration pollInterval;
@@ -70,43 +91,51 @@ public class JobScheduler {
 	@Value("${jobScheduler.requireProfile:false}")
 	private boolean requireProfile;
 
+	@Value("${jobScheduler.dispatchPolicy:NEXT_EXECUTION}")
+	private DispatchPolicy dispatchPolicy;
+
+	@Value("${jobScheduler.nodeLabels:}")
+	private List<String> nodeLabels;
+
 
 	private final ExecutorService executorService = Executors.newVirtualThreadPerTaskExecutor();
 
-	private Collection<String> matchProfiles;
+	private ClaimCriteria claimCriteria;
+	private long labelMismatches; // JobStore's label mismatch count when excluded label requirements were last refreshed
 
 
 	@EventListener(ApplicationReadyEvent.class)
 	public void onApplicationReady() throws Exception {
 		executorService.submit(() -> {
 			opt(initializationLatch).ifPresent(JobInitializationLatch::await); // Wait for JobInitializer to complete (if present)
-			matchProfiles = requireProfile
+			claimCriteria = ClaimCriteria.matching(requireProfile
 					? Arrays.asList(environment.getActiveProfiles())
-					: Arrays.asList(null, "");
-			log.info("Job scheduler started with max {} parallel jobs, polling every {}.{}", maxParallelJobs, pollInterval,
-					requireProfile ? " Require profile: matching " + matchProfiles : "");
-			Semaphore semaphore = new Semaphore(maxParallelJobs);
+					: Arrays.asList(null, ""))
+					.withNodeLabels(NodeLabels.parse(nodeLabels), jobStore.findLabelRequirements());
+			if (localJobRunner != null) localJobRunner.start(claimCriteria.matchProfiles());
+			Semaphore semaphore = concurrencyLimit != null ? concurrencyLimit : new Semaphore(maxParallelJobs);
+			log.info("Job scheduler started with {} parallel jobs, polling every {}.{}{}",
+					concurrencyLimit != null ? "an adaptive limit of " + concurrencyLimit.getLimit() : "max " + maxParallelJobs, pollInterval,
+					requireProfile ? " Require profile: matching " + claimCriteria.matchProfiles() : "",
+					nodeLabels.isEmpty() ? "" : " Node labels: " + claimCriteria.nodeLabels());
 			AtomicBoolean stopping = new AtomicBoolean(false);
 			while (!stopping.get()) {
 				try {
-					semaphore.acquire();
 					try {
-						jobRepository.popForExecution(matchProfiles).ifPresentOrElse(
-								job -> {
-									submit(job, semaphore); // This will release a permit when done
-								},
-								() -> {
-									semaphore.release();  // No job was found - release permit
-									if (exitWhenIdle && semaphore.availablePermits() == maxParallelJobs) {
-										// Ask Spring Boot to shutdown; this will cause the JVM to exit with the given code.
-										log.info("No jobs found and exitWhenIdle is set - shutting down.");
-										SpringApplication.exit(applicationContext, () -> 0);
-										stopping.set(true);
-									} else {
-										sleep();
-									}
-								});
-					} catch (Exception e) {
+						if (claimAndSubmit(semaphore).isEmpty()) {
+							if (exitWhenIdle && semaphore.availablePermits() == currentLimit()) {
+								// Ask Spring Boot to shutdown; this will cause the JVM to exit with the given code.
+								log.info("No jobs found and exitWhenIdle is set - shutting down.");
+								SpringApplication.exit(applicationContext, () -> 0);
+								stopping.set(true);
+							} else {
+								refreshExcludedLabelRequirements();
+								sleep();
+							}
+						} else if (jobStore.getLabelMismatches() != labelMismatches) {
+							refreshExcludedLabelRequirements();
+						}
+					} catch (RuntimeException e) {
 						log.error("Job scheduler failed.", e);
 						Thread.sleep(Duration.ofMinutes(10).toMillis());
 					}
@@ -120,29 +149,99 @@ public class JobScheduler {
 	}
 
 
-	private void submit(Job job, Semaphore semaphore) {
+	/**
+	 * Claims as many due jobs as there are free permits for, and submits them for execution.
+	 * <p>
+	 * Blocks until at least one permit is free. Each submitted job holds as many permits as its weight until it is done.
+	 *
+	 * @param semaphore permits for parallel job executions
+	 * @return the jobs submitted, empty if no jobs were due
+	 */
+	List<Job> claimAndSubmit(Semaphore semaphore) throws InterruptedException {
+		semaphore.acquire();
+		int permits = 1 + semaphore.drainPermits();
+		List<Job> jobs;
+		ClaimCriteria criteria = currentClaimCriteria().withOrder(dispatchPolicy.order(permits, currentLimit()));
+		try {
+			jobs = jobStore.popForExecution(criteria, permits);
+		} catch (RuntimeException e) {
+			semaphore.release(permits);
+			throw e;
+		}
+		semaphore.release(permits - jobs.stream().mapToInt(criteria::weightOf).sum()); // Release permits not used
+		if (listingCache != null) jobs.stream().map(Job::getTenantId).distinct().forEach(listingCache::invalidate); // Listings show running Jobs
+		jobs.forEach(job -> submit(job, criteria.weightOf(job), semaphore)); // This will release the job's permits when it is done
+		return jobs;
+	}
+
+
+	/**
+	 * Submits a claimed Job for execution, holding given permits until it is done.
+	 */
+	private void submit(Job job, int permits, Semaphore semaphore) {
 		String displayName = job.getName().displayName();
 		log.debug("Submitting job {}.", displayName);
 		executorService.submit(() -> {
+			Instant start = clock.instant();
+			boolean succeeded = false;
 			try {
-				jobExecutionService.execute(job);
+				succeeded = jobExecutionService.execute(job);
 			} finally {
-				semaphore.release();  // Release permit when job is done
+				if (concurrencyLimit != null) concurrencyLimit.onCompleted(job.getName(), Duration.between(start, clock.instant()), succeeded);
+				semaphore.release(permits);  // Release permits when job is done
 			}
 		});
 	}
 
 
+	/**
+	 * Looks for label requirements of new or changed Jobs, so those the node doesn't satisfy are excluded by the claim query.
+	 * <p>
+	 * Done while idle, and when the JobStore has left Jobs unclaimed because of requirements not seen yet - such Jobs are
+	 * also left for other nodes when claimed, but only after claiming them.
+	 */
+	private void refreshExcludedLabelRequirements() {
+		labelMismatches = jobStore.getLabelMismatches();
+		claimCriteria = claimCriteria.withNodeLabels(claimCriteria.nodeLabels(), jobStore.findLabelRequirements());
+	}
+
+
+	/**
+	 * Returns the criteria for claiming Jobs now - leaving deferrable Jobs unclaimed if the LoadGovernor says so.
+	 * <p>
+	 * Jobs heavier than the current limit on parallel jobs count as weighing the limit, so they run alone, rather than never,
+	 * and aren't mistaken for Jobs waiting for permits when deciding how long to sleep.
+	 */
+	private ClaimCriteria currentClaimCriteria() {
+		return claimCriteria
+				.withExcludeDeferrable(loadGovernor != null && loadGovernor.shouldDefer())
+				.withWeightLimit(currentLimit());
+	}
+
+
+	private int currentLimit() {
+		return concurrencyLimit != null ? concurrencyLimit.getLimit() : maxParallelJobs;
+	}
+
+
 	private void sleep() {
-		Duration delay = jobRepository.findNextExecutionTime(matchProfiles)
+		ClaimCriteria criteria = currentClaimCriteria();
+		// While deferring, wake up when the load is sampled again, to resume deferrable jobs as soon as the pressure is relieved.
+		Duration maxDelay = criteria.excludeDeferrable() && loadGovernor.getSampleInterval().compareTo(pollInterval) < 0
+				? loadGovernor.getSampleInterval()
+				: pollInterval;
+		Duration delay = jobStore.findNextExecutionTime(criteria)
 				.map(nextExecutionTime -> {
-					Duration durationUntilNextPlannedExecution = Duration.between(ZonedDateTime.now(), nextExecutionTime);
+					Duration durationUntilNextPlannedExecution = Duration.between(ZonedDateTime.now(clock), nextExecutionTime);
 					log.trace("Duration until next currently planned Job execution is: {}.", durationUntilNextPlannedExecution);
+					// A job which is already due, but wasn't claimed, is waiting for its lock group, its rate limit or for permits enough,
+					// so don't poll again right away.
+					if (!durationUntilNextPlannedExecution.isPositive()) durationUntilNextPlannedExecution = BLOCKED_JOB_RETRY_DELAY;
 					// Next planned execution may be far off, and manually scheduled or modified jobs may need to be scheduled
 					// before then, so sleep at most the configured poll interval.
-					return durationUntilNextPlannedExecution.compareTo(pollInterval) < 0 ? durationUntilNextPlannedExecution : pollInterval;
+					return durationUntilNextPlannedExecution.compareTo(maxDelay) < 0 ? durationUntilNextPlannedExecution : maxDelay;
 				})
-				.orElse(pollInterval);
+				.orElse(maxDelay);
 		try {
 			log.trace("Sleeping for {}.", delay);
 			Thread.sleep(delay);
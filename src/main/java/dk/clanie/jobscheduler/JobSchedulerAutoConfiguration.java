@@ -17,35 +17,114 @@
  */
 package dk.clanie.jobscheduler;
 
+import java.time.Clock;
+import java.time.Duration;
+import java.util.List;
+
+import javax.sql.DataSource;
+
 import org.springframework.beans.factory.InitializingBean;
+import org.springframework.beans.factory.ObjectProvider;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.boot.autoconfigure.AutoConfiguration;
 import org.springframework.boot.autoconfigure.EnableAutoConfiguration;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnClass;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnMissingBean;
 import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
 import org.springframework.context.ApplicationContext;
 import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.io.ClassPathResource;
 import org.springframework.data.mongodb.core.mapping.MongoMappingContext;
 import org.springframework.data.mongodb.repository.config.EnableMongoRepositories;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.init.ResourceDatabasePopulator;
 
 /**
  * {@link EnableAutoConfiguration Auto-configuration} for clanie-jobscheduler.
  */
 @AutoConfiguration
-@EnableMongoRepositories
-public class JobSchedulerAutoConfiguration implements InitializingBean {
+public class JobSchedulerAutoConfiguration {
+
+	/**
+	 * Name of the Clock bean providing the current time to the scheduler, the Jobs' schedules and the JobStores.
+	 */
+	public static final String CLOCK_BEAN_NAME = "jobSchedulerClock";
+
+
+	/**
+	 * The system clock, unless another bean named {@value #CLOCK_BEAN_NAME} is defined.
+	 * <p>
+	 * Not a default candidate, so it doesn't interfere with injection of the application's own Clock.
+	 */
+	@Bean(name = CLOCK_BEAN_NAME, defaultCandidate = false)
+	@ConditionalOnMissingBean(name = CLOCK_BEAN_NAME)
+	Clock jobSchedulerClock() {
+		return Clock.systemDefaultZone();
+	}
+
+
+	/**
+	 * The default, MongoDB based, {@link JobStore}.
+	 */
+	@Configuration(proxyBeanMethods = false)
+	@ConditionalOnProperty(value = "jobScheduler.store.type", havingValue = "mongo", matchIfMissing = true)
+	@EnableMongoRepositories(basePackageClasses = JobRepository.class)
+	static class MongoJobStoreConfiguration implements InitializingBean {
+
+		@Autowired
+		private MongoMappingContext mappingContext;
+
+
+		@Override
+		public void afterPropertiesSet() throws Exception {
+			// Force initialization of JobSchedule type mappings so Spring Data MongoDB
+			// can properly map the _class field values to concrete types
+			mappingContext.getPersistentEntity(JobSchedule.Cron.class);
+			mappingContext.getPersistentEntity(JobSchedule.Delay.class);
+			mappingContext.getPersistentEntity(JobSchedule.Rate.class);
+			mappingContext.getPersistentEntity(JobSchedule.Manual.class);
+		}
+
+
+		@Bean
+		@ConditionalOnMissingBean(JobStore.class)
+		MongoJobStore mongoJobStore(JobRepository jobRepository, JobExecutionRepository jobExecutionRepository, TaskRepository taskRepository) {
+			return new MongoJobStore(jobRepository, jobExecutionRepository, taskRepository);
+		}
+
+	}
+
+
+	@Bean
+	@ConditionalOnMissingBean(JobStore.class)
+	@ConditionalOnProperty(value = "jobScheduler.store.type", havingValue = "memory")
+	InMemoryJobStore inMemoryJobStore(@Value("${jobScheduler.store.memory.maxExecutions:10000}") int maxExecutions,
+			@Qualifier(CLOCK_BEAN_NAME) Clock clock) {
+		return new InMemoryJobStore(maxExecutions, clock);
+	}
 
-	@Autowired
-	private MongoMappingContext mappingContext;
 
+	/**
+	 * JDBC based {@link JobStore}, using the application's DataSource.
+	 */
+	@Configuration(proxyBeanMethods = false)
+	@ConditionalOnClass(JdbcTemplate.class)
+	@ConditionalOnProperty(value = "jobScheduler.store.type", havingValue = "jdbc")
+	static class JdbcJobStoreConfiguration {
+
+		@Bean
+		@ConditionalOnMissingBean(JobStore.class)
+		JdbcJobStore jdbcJobStore(DataSource dataSource, @Value("${jobScheduler.store.jdbc.initializeSchema:false}") boolean initializeSchema,
+				@Qualifier(CLOCK_BEAN_NAME) Clock clock) {
+			if (initializeSchema) {
+				new ResourceDatabasePopulator(new ClassPathResource(JdbcJobStore.SCHEMA_LOCATION)).execute(dataSource);
+			}
+			return new JdbcJobStore(dataSource, clock);
+		}
 
-	@Override
-	public void afterPropertiesSet() throws Exception {
-		// Force initialization of JobSchedule type mappings so Spring Data MongoDB
-		// can properly map the _class field values to concrete types
-		mappingContext.getPersistentEntity(JobSchedule.Cron.class);
-		mappingContext.getPersistentEntity(JobSchedule.Delay.class);
-		mappingContext.getPersistentEntity(JobSchedule.Rate.class);
-		mappingContext.getPersistentEntity(JobSchedule.Manual.class);
 	}
 
 
@@ -55,6 +134,15 @@ public class JobSchedulerAutoConfiguration implements InitializingBean {
 	}
 
 
+	@Bean
+	@ConditionalOnProperty(value = "jobScheduler.listingCache.enabled", havingValue = "true")
+	JobListingCache jobListingCache(@Value("${jobScheduler.listingCache.maxEntries:1000}") int maxEntries,
+			@Value("${jobScheduler.listingCache.timeToLive:PT10S}") Duration timeToLive,
+			@Qualifier(CLOCK_BEAN_NAME) Clock clock) {
+		return new JobListingCache(maxEntries, timeToLive, clock);
+	}
+
+
 	@Bean
 	@ConditionalOnProperty(value = "jobScheduler.jobsEnabled.jobService-scanForJobs", havingValue = "true")
 	@ConditionalOnProperty(value = "jobScheduler.enabled", havingValue = "true")
@@ -70,6 +158,42 @@ public class JobSchedulerAutoConfiguration implements InitializingBean {
 	}
 
 
+	@Bean
+	@ConditionalOnProperty(value = "jobScheduler.enabled", havingValue = "true")
+	@ConditionalOnProperty(value = "jobScheduler.loadGovernor.enabled", havingValue = "true")
+	LoadGovernor loadGovernor(@Value("${jobScheduler.loadGovernor.maxCpuLoad:0.8}") double maxCpuLoad,
+			@Value("${jobScheduler.loadGovernor.maxHeapAfterGc:0.85}") double maxHeapAfterGc,
+			@Value("${jobScheduler.loadGovernor.sampleInterval:PT5S}") Duration sampleInterval,
+			@Value("${jobScheduler.loadGovernor.offPeak:}") List<String> offPeak,
+			ObjectProvider<LoadSignal> signals,
+			@Qualifier(CLOCK_BEAN_NAME) Clock clock) {
+		return new LoadGovernor(maxCpuLoad, maxHeapAfterGc, sampleInterval, offPeak, signals.orderedStream().toList(), clock);
+	}
+
+
+	@Bean
+	@ConditionalOnProperty(value = "jobScheduler.enabled", havingValue = "true")
+	@ConditionalOnProperty(value = "jobScheduler.adaptiveLimit.enabled", havingValue = "true")
+	AdaptiveConcurrencyLimit adaptiveConcurrencyLimit(@Value("${jobScheduler.maxParallelJobs}") int maxParallelJobs,
+			@Value("${jobScheduler.adaptiveLimit.minLimit:1}") int minLimit,
+			@Value("${jobScheduler.adaptiveLimit.maxLimit:${jobScheduler.maxParallelJobs}}") int maxLimit,
+			@Value("${jobScheduler.adaptiveLimit.backoffRatio:0.9}") double backoffRatio,
+			@Value("${jobScheduler.adaptiveLimit.latencyTolerance:2.0}") double latencyTolerance) {
+		return new AdaptiveConcurrencyLimit(maxParallelJobs, minLimit, maxLimit, backoffRatio, latencyTolerance);
+	}
+
+
+	@Bean
+	@ConditionalOnProperty(value = "jobScheduler.enabled", havingValue = "true")
+	LocalJobRunner localJobRunner(JobStore jobStore, JobExecutionService jobExecutionService,
+			@Value("${spring.application.name}") String applicationName,
+			@Value("${jobScheduler.local.refreshInterval:PT10S}") Duration refreshInterval,
+			@Value("${jobScheduler.local.summaryInterval:PT1M}") Duration summaryInterval,
+			@Qualifier(CLOCK_BEAN_NAME) Clock clock) {
+		return new LocalJobRunner(jobStore, jobExecutionService, applicationName, refreshInterval, summaryInterval, clock);
+	}
+
+
 	@Bean
 	@ConditionalOnProperty(value = "jobScheduler.enabled", havingValue = "true")
 	JobScheduler jobScheduler() {
@@ -78,9 +202,27 @@ public class JobSchedulerAutoConfiguration implements InitializingBean {
 
 
 	@Bean
-	JobExecutionService jobExecutionService(ApplicationContext applicationContext,
-			JobRepository jobRepository, JobExecutionRepository jobExecutionRepository) {
-		return new JobExecutionService(applicationContext, jobRepository, jobExecutionRepository);
+	TaskQueue taskQueue(JobStore jobStore, @Qualifier(CLOCK_BEAN_NAME) Clock clock) {
+		return new TaskQueue(jobStore, clock);
+	}
+
+
+	@Bean
+	@ConditionalOnProperty(value = "jobScheduler.enabled", havingValue = "true")
+	TaskWorker taskWorker(JobStore jobStore, ObjectProvider<TaskHandler<?>> handlers,
+			@Value("${jobScheduler.tasks.maxParallelTasks:10}") int maxParallelTasks,
+			@Value("${jobScheduler.tasks.pollInterval:PT1S}") Duration pollInterval,
+			@Value("${jobScheduler.tasks.lease:PT5M}") Duration lease,
+			@Value("${jobScheduler.tasks.maxAttempts:5}") int maxAttempts,
+			@Value("${jobScheduler.tasks.retryDelay:PT10S}") Duration retryDelay,
+			@Qualifier(CLOCK_BEAN_NAME) Clock clock) {
+		return new TaskWorker(jobStore, handlers.orderedStream().toList(), maxParallelTasks, pollInterval, lease, maxAttempts, retryDelay, clock);
+	}
+
+
+	@Bean
+	JobExecutionService jobExecutionService(ApplicationContext applicationContext, JobStore jobStore, @Qualifier(CLOCK_BEAN_NAME) Clock clock) {
+		return new JobExecutionService(applicationContext, jobStore, clock);
 	}
 
 
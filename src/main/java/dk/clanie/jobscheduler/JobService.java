@@ -24,22 +24,29 @@ import static dk.clanie.mongo.MongoConstants.ADMIN_TENANT_ID;
 import static java.util.function.Predicate.not;
 
 import java.lang.reflect.Method;
+import java.time.Clock;
 import java.time.Duration;
+import java.time.ZoneId;
 import java.time.ZonedDateTime;
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.Collection;
 import java.util.HashSet;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.Optional;
 import java.util.Set;
 import java.util.UUID;
 
 import org.springframework.aop.support.AopUtils;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.ApplicationContext;
 import org.springframework.core.env.Environment;
 import org.springframework.data.domain.Pageable;
+import org.springframework.util.ClassUtils;
 
 import lombok.extern.slf4j.Slf4j;
 
@@ -54,30 +61,77 @@ public class JobService {
 	private Environment environment;
 
 	@Autowired
-	private JobRepository jobRepository;
+	private JobStore jobStore;
+
+	@Autowired
+	@Qualifier(JobSchedulerAutoConfiguration.CLOCK_BEAN_NAME)
+	private Clock clock;
+
+	@Autowired(required = false)
+	private JobListingCache listingCache;
 
 
 	@Value("${spring.application.name}")
 	private String applicationName;
 
+	@Value("${jobScheduler.jobIndex.enabled:true}")
+	private boolean jobIndexEnabled;
+
+	@Value("${jobScheduler.triggerCoalescingWindow:PT10S}")
+	private Duration triggerCoalescingWindow;
+
+
+	private record PageQuery(Pageable pageable, JobFilter filter) {
+	}
+
+	private record CursorQuery(JobFilter filter, String continuationToken, int size, boolean includeCount) {
+	}
+
+	private record CountQuery(JobFilter filter) {
+	}
+
 
 	public List<Job> find(UUID tenantId, Pageable pageable, JobFilter filter) {
-		return jobRepository.find(tenantId, pageable, filter);
+		if (listingCache == null) return jobStore.find(tenantId, pageable, filter);
+		JobFilter snapshot = JobListingCache.snapshot(filter);
+		return listingCache.get(tenantId, new PageQuery(pageable, snapshot), () -> List.copyOf(jobStore.find(tenantId, pageable, snapshot)));
+	}
+
+
+	/**
+	 * Finds Jobs ordered by next execution using keyset pagination.
+	 * <p>
+	 * Prefer this over the {@link Pageable} variant for large result sets, as it
+	 * performs equally well for every page and only counts when asked to.
+	 *
+	 * @param continuationToken token from the previous page, or null to get the first page
+	 * @param size maximum number of Jobs to return
+	 * @param includeCount whether to also count all matching Jobs
+	 */
+	public CursorPage<Job> find(UUID tenantId, JobFilter filter, String continuationToken, int size, boolean includeCount) {
+		if (listingCache == null) return jobStore.find(tenantId, filter, continuationToken, size, includeCount);
+		JobFilter snapshot = JobListingCache.snapshot(filter);
+		return listingCache.get(tenantId, new CursorQuery(snapshot, continuationToken, size, includeCount),
+				() -> jobStore.find(tenantId, snapshot, continuationToken, size, includeCount));
 	}
 
 
 	public long count(UUID tenantId, JobFilter filter) {
-		return jobRepository.count(tenantId, filter);
+		if (listingCache == null) return jobStore.count(tenantId, filter);
+		JobFilter snapshot = JobListingCache.snapshot(filter);
+		return listingCache.get(tenantId, new CountQuery(snapshot), () -> jobStore.count(tenantId, snapshot));
 	}
 
 
 	public void save(Job job) {
-		jobRepository.save(job);
+		jobStore.save(job);
+		invalidate(job.getTenantId());
 	}
 
 
 	public void delete(UUID tenantId, UUID jobId) {
-		jobRepository.deleteById(tenantId, jobId);
+		jobStore.delete(tenantId, jobId);
+		invalidate(tenantId);
 	}
 
 
@@ -85,7 +139,8 @@ public class JobService {
 	 * Deletes multiple jobs by their IDs in a single operation.
 	 */
 	public void deleteByIdIn(UUID tenantId, Collection<UUID> jobIds) {
-		jobRepository.deleteByIdIn(tenantId, jobIds);
+		jobStore.deleteByIdIn(tenantId, jobIds);
+		invalidate(tenantId);
 	}
 
 
@@ -95,7 +150,17 @@ public class JobService {
 	 * @return true if the Job was found and updated.
 	 */
 	public boolean setUserEnabled(UUID tenantId, UUID id, boolean userEnabled) {
-		return jobRepository.setUserEnabled(tenantId, id, userEnabled) == 1;
+		return invalidateIf(tenantId, jobStore.setUserEnabled(tenantId, id, userEnabled));
+	}
+
+
+	/**
+	 * Sets the userEnabled property of all Jobs matching a filter, with a single update regardless of their number.
+	 * <p>
+	 * Running executions are not interrupted - disabled Jobs are just not claimed again.
+	 */
+	public BulkUpdateResult setUserEnabled(UUID tenantId, JobFilter filter, boolean userEnabled) {
+		return invalidateIf(tenantId, jobStore.setUserEnabled(tenantId, filter, userEnabled));
 	}
 
 
@@ -107,7 +172,32 @@ public class JobService {
 	 * @return true if the Job was updated.
 	 */
 	public boolean setNextExecution(UUID tenantId, UUID id, ZonedDateTime zonedDateTime) {
-		return jobRepository.setNextExecution(tenantId, id, zonedDateTime) == 1;
+		return invalidateIf(tenantId, jobStore.setNextExecution(tenantId, id, zonedDateTime));
+	}
+
+
+	/**
+	 * Triggers immediate execution of Jobs, with a single update regardless of their number.
+	 * <p>
+	 * Repeated triggers are coalesced into one pending execution: Jobs which are running, already due, or were
+	 * triggered within {@code jobScheduler.triggerCoalescingWindow}, are left untouched.
+	 *
+	 * @return the number of Jobs triggered
+	 */
+	public long trigger(UUID tenantId, Collection<UUID> ids) {
+		return trigger(tenantId, JobFilter.builder().ids(ids).build());
+	}
+
+
+	/**
+	 * Triggers immediate execution of the Jobs matching a filter, like {@link #trigger(UUID, Collection)}.
+	 *
+	 * @return the number of Jobs triggered
+	 */
+	public long trigger(UUID tenantId, JobFilter filter) {
+		long triggered = jobStore.trigger(tenantId, filter, triggerCoalescingWindow);
+		if (triggered > 0) invalidate(tenantId);
+		return triggered;
 	}
 
 
@@ -117,7 +207,18 @@ public class JobService {
 	 * @return true if the Job was updated.
 	 */
 	public boolean clearRunningStatus(UUID tenantId, UUID id) {
-		return jobRepository.clearRunningStatus(tenantId, id) == 1;
+		return invalidateIf(tenantId, jobStore.clearRunningStatus(tenantId, id));
+	}
+
+
+	/**
+	 * Clears the running status of the Jobs matching a filter, with a single update regardless of their number.
+	 * <p>
+	 * Only executions claimed before startedBefore are cleared, so executions still in progress can be left alone,
+	 * eg. by passing the time the crashed node went down.
+	 */
+	public BulkUpdateResult clearRunningStatus(UUID tenantId, JobFilter filter, ZonedDateTime startedBefore) {
+		return invalidateIf(tenantId, jobStore.clearRunningStatus(tenantId, filter, startedBefore));
 	}
 
 
@@ -127,7 +228,15 @@ public class JobService {
 	 * @return true if the Job was updated.
 	 */
 	public boolean setProfile(UUID tenantId, UUID id, String profile) {
-		return jobRepository.setProfile(tenantId, id, profile) == 1;
+		return invalidateIf(tenantId, jobStore.setProfile(tenantId, id, profile));
+	}
+
+
+	/**
+	 * Sets the Spring profile of all Jobs matching a filter, with a single update regardless of their number.
+	 */
+	public BulkUpdateResult setProfile(UUID tenantId, JobFilter filter, String profile) {
+		return invalidateIf(tenantId, jobStore.setProfile(tenantId, filter, profile));
 	}
 
 
@@ -137,7 +246,32 @@ public class JobService {
 	 * @return true if the Job was updated.
 	 */
 	public boolean clearProfile(UUID tenantId, UUID id) {
-		return jobRepository.clearProfile(tenantId, id) == 1;
+		return invalidateIf(tenantId, jobStore.clearProfile(tenantId, id));
+	}
+
+
+	/**
+	 * Clears the Spring profile of all Jobs matching a filter, with a single update regardless of their number.
+	 */
+	public BulkUpdateResult clearProfile(UUID tenantId, JobFilter filter) {
+		return invalidateIf(tenantId, jobStore.setProfile(tenantId, filter, null));
+	}
+
+
+	private void invalidate(UUID tenantId) {
+		if (listingCache != null) listingCache.invalidate(tenantId);
+	}
+
+
+	private boolean invalidateIf(UUID tenantId, boolean updated) {
+		if (updated) invalidate(tenantId);
+		return updated;
+	}
+
+
+	private BulkUpdateResult invalidateIf(UUID tenantId, BulkUpdateResult result) {
+		if (result.modified() > 0) invalidate(tenantId);
+		return result;
 	}
 
 
@@ -155,7 +289,7 @@ public class JobService {
 
 		log.debug("Scanning for @ScheduledJob annotated bean methods.");
 		List<JobInput> jobInputs = new ArrayList<>();
-		Map<String, Object> beans = applicationContext.getBeansOfType(Object.class, false, false);
+		Map<String, Object> beans = candidateBeans();
 		for (Map.Entry<String, Object> entry : beans.entrySet()) {
 			String beanName = entry.getKey();
 			Object bean = entry.getValue();
@@ -170,42 +304,51 @@ public class JobService {
 		}
 
 		// Create jobs for methods that do not already have one
-		Set<JobName> existingJobNames = jobRepository.findNames(applicationName);
+		Set<JobName> existingJobNames = jobStore.findNames(applicationName);
 		List<JobInput> inputForMissingJobs = filterList(jobInputs, jobMethod -> !existingJobNames.contains(jobMethod.name()));
+		List<Job> newJobs = new ArrayList<>();
 		inputForMissingJobs.forEach(jobInput -> {
 			Method method = jobInput.method;
 			String qualifiedName = qualifiedName(method);
 			log.atDebug().log("Processing @ScheduledJob annotated method: {}", qualifiedName);
-			if (method.getParameterCount() > 0) {
-				throw new IllegalStateException(qualifiedName + " has @ScheduledJob annotation but has parameters. No parameters are allowed.");
-			}
 			ScheduledJob annotation = jobInput.annotation();
-			int scheduleArgsCount = (annotation.cron().isEmpty() ? 0 : 1) + (annotation.delay().isEmpty() ? 0 : 1) + (annotation.rate().isEmpty() ? 0 : 1);
-			if (scheduleArgsCount > 1) {
-				throw new IllegalStateException(qualifiedName + " has @ScheduledJob annotation with " + scheduleArgsCount + " schedule arguments. Exactly one is required.");
-			}
+			ScheduledJobValidator.validate(annotation, Arrays.stream(method.getParameterTypes()).map(Class::getName).toList()).ifPresent(error -> {
+				throw new IllegalStateException(qualifiedName + " has invalid @ScheduledJob annotation: " + error);
+			});
+			RateLimit rateLimit = annotation.rateLimit().isEmpty() ? null : RateLimit.parse(
+					annotation.rateLimitGroup().isEmpty() ? applicationName + "/" + jobInput.name().displayName() : annotation.rateLimitGroup(),
+					annotation.rateLimit());
+			List<String> labelSelector = Arrays.stream(annotation.labelSelector()).map(LabelRequirement::parse).map(LabelRequirement::toString).distinct().toList();
+			Duration spread = annotation.spread().isEmpty() ? null : Duration.parse(annotation.spread());
 			String scheduleAnnotationUsed = annotation.cron().isEmpty() ? annotation.delay().isEmpty() ? annotation.rate().isEmpty() ? null : "rate" : "delay" : "cron";
 			JobSchedule schedule = switch (scheduleAnnotationUsed) {
-			case "cron" -> JobSchedule.cron(annotation.cron());
+			case "cron" -> JobSchedule.cron(annotation.cron(), annotation.zone().isEmpty() ? null : ZoneId.of(annotation.zone()), spread);
 			case "delay" -> JobSchedule.delay(Duration.parse(annotation.delay()));
-			case "rate" -> JobSchedule.rate(Duration.parse(annotation.rate()));
+			case "rate" -> JobSchedule.rate(Duration.parse(annotation.rate()), spread);
 			case null -> JobSchedule.manual();
 			default -> throw new IllegalStateException("Unexpected value: " + scheduleAnnotationUsed);
 			};
-			Job job = new Job(ADMIN_TENANT_ID, applicationName, jobInput.name(), schedule);
+			Job job = new Job(ADMIN_TENANT_ID, applicationName, jobInput.name(), schedule, clock);
+			job.setDeferrable(annotation.deferrable());
+			job.setWeight(annotation.weight());
+			job.setLockGroup(annotation.lockGroup().isEmpty() ? null : annotation.lockGroup());
+			job.setLockGroupLimit(annotation.lockGroupLimit());
+			job.setRateLimit(rateLimit);
+			job.setLabelSelector(labelSelector.isEmpty() ? null : labelSelector);
+			if (annotation.local()) {
+				job.setLocal(true);
+				job.setNextExecution(null); // Never claimed - run by LocalJobRunner
+			}
 			log.info("Creating job: {}", job);
-			jobRepository.save(job);
+			newJobs.add(job);
 		});
 
 		// Disable obsolete jobs, ie. jobs that are in the repository, but where there is no corresponding annotated method
 		Set<JobName> jobNamesForAnnotatedMethods = mapSet(jobInputs, JobInput::name);
 		Set<JobName> obsoleteJobNames = filterSet(existingJobNames, not(jobNamesForAnnotatedMethods::contains));
-		List<Job> obsoleteJobs = jobRepository.findConfigEnabledJobsByNameIn(applicationName, obsoleteJobNames);
-		obsoleteJobs.forEach(job -> {
-			log.info("Disabling obsolete job: {} because there is no longer a @ScheduledJob annotation matching it.", job);
-			job.setConfigEnabled(false);
-		});
-		jobRepository.saveAll(obsoleteJobs);
+		if (!obsoleteJobNames.isEmpty()) {
+			log.info("Disabling obsolete jobs: {} (unless already disabled) because there is no longer a @ScheduledJob annotation matching them.", obsoleteJobNames);
+		}
 
 		// Enable / disable jobs according to configuration properties
 		Set<JobName> jobNamesEnabledInConfig = new HashSet<>();
@@ -214,18 +357,43 @@ public class JobService {
 			String property = "jobScheduler.jobsEnabled." + jobName.bean() + "-" + jobName.method();
 			(environment.getRequiredProperty(property, Boolean.class) ? jobNamesEnabledInConfig : jobNamesDisabledInConfig).add(jobName);
 		});
-		List<Job> jobsToDisable = jobRepository.findConfigEnabledJobsByNameIn(applicationName, jobNamesDisabledInConfig);
-		jobsToDisable.forEach(job -> {
-			log.info("Disabling job: {} because it was disabled in configuration.", job.getName());
-			job.setConfigEnabled(false);
-		});
-		jobRepository.saveAll(jobsToDisable);
-		List<Job> jobsToEnable = jobRepository.findConfigDisabledJobsByNameIn(applicationName, jobNamesEnabledInConfig);
-		jobsToEnable.forEach(job -> {
-			log.info("Enabling job: {} because it was enabled in configuration.", job.getName());
-			job.setConfigEnabled(true);
-		});
-		jobRepository.saveAll(jobsToEnable);
+		log.debug("Jobs enabled in configuration: {}, disabled in configuration: {}.", jobNamesEnabledInConfig, jobNamesDisabledInConfig);
+
+		// Apply all changes in one bulk write
+		Set<JobName> jobNamesToDisable = new HashSet<>(obsoleteJobNames);
+		jobNamesToDisable.addAll(jobNamesDisabledInConfig);
+		jobStore.reconcile(applicationName, newJobs, jobNamesEnabledInConfig, jobNamesToDisable);
+		if (listingCache != null) listingCache.invalidateAll();
+	}
+
+
+	/**
+	 * Finds the beans which may have @ScheduledJob annotated methods.
+	 * <p>
+	 * If a {@link ScheduledJobIndex} is available, beans loaded from jars (or classes directories)
+	 * with an index file are only returned if their class is indexed. Beans from other locations,
+	 * such as the application itself when it isn't compiled with the processor, are always returned.
+	 * Without an index, all beans are.
+	 */
+	private Map<String, Object> candidateBeans() {
+		ClassLoader classLoader = applicationContext.getClassLoader();
+		Optional<ScheduledJobIndex> index = jobIndexEnabled && classLoader != null
+				? ScheduledJobIndex.load(classLoader)
+				: Optional.empty();
+		if (index.isEmpty()) {
+			log.debug("No @ScheduledJob index found - scanning all beans.");
+			return applicationContext.getBeansOfType(Object.class, false, false);
+		}
+		Map<String, Object> beans = new LinkedHashMap<>();
+		String[] beanNames = applicationContext.getBeanNamesForType(Object.class, false, false);
+		for (String beanName : beanNames) {
+			Class<?> type = applicationContext.getType(beanName, false);
+			if (type == null || index.get().mayDeclareJobs(ClassUtils.getUserClass(type))) {
+				beans.put(beanName, applicationContext.getBean(beanName));
+			}
+		}
+		log.debug("Resolved {} of {} beans using @ScheduledJob index of {} classes.", beans.size(), beanNames.length, index.get().size());
+		return beans;
 	}
 
 
@@ -0,0 +1,350 @@
+/*
+ * Copyright (C) 2026, Claus Nielsen, clausn999@gmail.com
+ *
+ * This program is free software; you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation; either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License along
+ * with this program; if not, write to the Free Software Foundation, Inc.,
+ * 51 Franklin Street, Fifth Floor, Boston, MA 02110-1301 USA.
+ */
+package dk.clanie.jobscheduler;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.time.ZonedDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+import java.util.Set;
+import java.util.UUID;
+import java.util.stream.Stream;
+
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+
+/**
+ * Storage of Jobs and JobExecutions.
+ * <p>
+ * JobScheduler, JobService and JobExecutionService only access storage through this interface.
+ * The default implementation is {@link MongoJobStore}. Set {@code jobScheduler.store.type} to
+ * {@code memory} to use {@link InMemoryJobStore} instead, or define a JobStore bean to
+ * use a custom implementation.
+ * <p>
+ * Implementations must be thread safe, and the claim operation ({@link #popForExecution(ClaimCriteria)})
+ * must be atomic, so a Job is never handed out to more than one caller at a time.
+ */
+public interface JobStore {
+
+
+	// ----- Scheduling -----
+
+
+	/**
+	 * Finds the next scheduled execution time among all enabled jobs
+	 * matching the given criteria.
+	 *
+	 * @param criteria criteria the jobs must match
+	 * @return the next execution time, or empty if no jobs are scheduled
+	 */
+	Optional<ZonedDateTime> findNextExecutionTime(ClaimCriteria criteria);
+
+
+	/**
+	 * Finds the distinct label requirements of all Jobs' label selectors, for a node to find those it doesn't satisfy.
+	 *
+	 * @see ClaimCriteria#withNodeLabels(NodeLabels, java.util.Collection)
+	 */
+	Set<String> findLabelRequirements();
+
+
+	/**
+	 * Number of Jobs this store has left unclaimed after finding that the node doesn't satisfy their label selector,
+	 * because the requirement wasn't excluded by the criteria yet.
+	 * <p>
+	 * When it changes, the node looks for label requirements it doesn't satisfy again, so such Jobs are excluded by
+	 * the claim query. The default implementation returns 0, for stores never claiming such Jobs.
+	 *
+	 * @see #findLabelRequirements()
+	 */
+	default long getLabelMismatches() {
+		return 0;
+	}
+
+
+	/**
+	 * Atomically claims the next enabled Job which is due for execution and matches
+	 * the given criteria, setting its jobExecutionId and poppedForExecution.
+	 *
+	 * @param criteria criteria the job must match
+	 * @return the claimed Job, or empty if no job is due
+	 */
+	Optional<Job> popForExecution(ClaimCriteria criteria);
+
+
+	/**
+	 * Atomically claims Jobs which are due for execution, with a total {@link ClaimCriteria#weightOf(Job) weight}
+	 * of at most {@code capacity}.
+	 * <p>
+	 * Jobs are claimed in order of next execution, skipping Jobs which are too heavy for the remaining capacity,
+	 * so lighter Jobs fill the gaps.
+	 * The default implementation claims one Job at a time.
+	 *
+	 * @param criteria criteria the jobs must match
+	 * @param capacity maximum total weight of the Jobs to claim, eg. the free permits for parallel job executions
+	 * @return the claimed Jobs, in the order they should be started
+	 * @see #popForExecution(ClaimCriteria)
+	 */
+	default List<Job> popForExecution(ClaimCriteria criteria, int capacity) {
+		List<Job> jobs = new ArrayList<>();
+		int remaining = capacity;
+		while (remaining > 0) {
+			Optional<Job> job = popForExecution(criteria.withMaxWeight(Math.min(remaining, criteria.maxWeight())));
+			if (job.isEmpty()) break;
+			jobs.add(job.get());
+			remaining -= criteria.weightOf(job.get());
+		}
+		return jobs;
+	}
+
+
+	/**
+	 * Records a completed execution of a claimed Job.
+	 * <p>
+	 * Stores the JobExecution, and updates the execution related properties of the Job,
+	 * which must already have been updated by {@link Job#registerCompletedSuccessfully(java.time.Clock)} or
+	 * {@link Job#registerFailed(java.time.Clock)}, including the checkpoint. Other properties, which may have been changed by other
+	 * parties while the Job was running, are left untouched.
+	 *
+	 * @param job the executed Job
+	 * @param jobExecution the execution - its id is the jobExecutionId the Job was claimed with
+	 */
+	void complete(Job job, JobExecution jobExecution);
+
+
+	/**
+	 * Records a summary of the executions of a local Job on this node.
+	 * <p>
+	 * Stores the summary JobExecution, and merges it into the execution related properties of the Job,
+	 * atomically, so summaries from several nodes accumulate rather than overwrite each other:
+	 * the execution count is incremented, the average duration becomes the mean weighted by the execution counts,
+	 * and the last success and failure times are only moved forward.
+	 *
+	 * @param summary summary of the executions - see {@link JobExecution#summaryOf(Job, long, long, String)}
+	 * @param totalDurationMillis total duration of the summarized executions
+	 * @param lastSucceeded time the last successful execution completed, or null
+	 * @param lastFailed time the last failed execution completed, or null
+	 */
+	void recordSummary(JobExecution summary, long totalDurationMillis, ZonedDateTime lastSucceeded, ZonedDateTime lastFailed);
+
+
+	/**
+	 * Stores a checkpoint on a claimed Job - see {@link JobContext#checkpoint(Object)}.
+	 *
+	 * @param job the claimed Job
+	 * @param checkpoint the checkpoint as JSON, or null to clear it
+	 * @return false if the Job was deleted, or is no longer claimed with the Job's jobExecutionId
+	 */
+	boolean checkpoint(Job job, String checkpoint);
+
+
+	// ----- Jobs -----
+
+
+	List<Job> find(UUID tenantId, Pageable pageable, JobFilter filter);
+
+
+	/**
+	 * Finds Jobs ordered by nextExecution and id using keyset pagination.
+	 *
+	 * @see JobRepositoryCustom#find(UUID, JobFilter, String, int, boolean)
+	 */
+	CursorPage<Job> find(UUID tenantId, JobFilter filter, String continuationToken, int size, boolean includeCount);
+
+
+	List<UUID> findIds(UUID tenantId, JobFilter filter);
+
+
+	long count(UUID tenantId, JobFilter filter);
+
+
+	void save(Job job);
+
+
+	void delete(UUID tenantId, UUID jobId);
+
+
+	void deleteByIdIn(UUID tenantId, Collection<UUID> jobIds);
+
+
+	/**
+	 * @return true if the Job was found and updated.
+	 */
+	boolean setUserEnabled(UUID tenantId, UUID id, boolean userEnabled);
+
+
+	/**
+	 * Sets userEnabled on all Jobs matching a filter, in a single update.
+	 * <p>
+	 * Running executions are not affected - the change takes effect when the Jobs are next claimed.
+	 */
+	BulkUpdateResult setUserEnabled(UUID tenantId, JobFilter filter, boolean userEnabled);
+
+
+	/**
+	 * Sets nextExecution, unless the Job is running.
+	 *
+	 * @return true if the Job was found and updated.
+	 */
+	boolean setNextExecution(UUID tenantId, UUID id, ZonedDateTime nextExecution);
+
+
+	/**
+	 * Triggers immediate execution of the Jobs matching a filter, eg. a list of ids, with a single update.
+	 * <p>
+	 * Repeated triggers are coalesced: running and local Jobs, Jobs which are already due, and Jobs triggered within the
+	 * coalescing window, are left untouched, so a burst of triggers results in a single pending execution.
+	 *
+	 * @param coalescingWindow how long after a trigger further triggers of the Job are ignored
+	 * @return the number of Jobs triggered
+	 */
+	long trigger(UUID tenantId, JobFilter filter, Duration coalescingWindow);
+
+
+	/**
+	 * Clears the running status of a Job, eg. after the node running it crashed, and releases its place in its lock group.
+	 *
+	 * @return true if the Job was found and updated.
+	 */
+	boolean clearRunningStatus(UUID tenantId, UUID id);
+
+
+	/**
+	 * Clears the running status of the Jobs matching a filter, and releases their places in their lock groups.
+	 * <p>
+	 * Only executions claimed before startedBefore are cleared, so executions still in progress on live nodes can be left alone.
+	 * Jobs which are not running are not matched. Lock group places are only released for the Jobs actually cleared,
+	 * so a Job claimed again while the update runs keeps its place.
+	 */
+	BulkUpdateResult clearRunningStatus(UUID tenantId, JobFilter filter, ZonedDateTime startedBefore);
+
+
+	/**
+	 * @return true if the Job was found and updated.
+	 */
+	boolean setProfile(UUID tenantId, UUID id, String profile);
+
+
+	/**
+	 * Sets the profile of all Jobs matching a filter, in a single update - a null profile clears it.
+	 */
+	BulkUpdateResult setProfile(UUID tenantId, JobFilter filter, String profile);
+
+
+	/**
+	 * @return true if the Job was found and updated.
+	 */
+	boolean clearProfile(UUID tenantId, UUID id);
+
+
+	Set<JobName> findNames(String applicationName);
+
+
+	/**
+	 * Finds an application's {@link Job#isLocal() local} Jobs.
+	 */
+	List<Job> findLocal(String applicationName);
+
+
+	/**
+	 * @see JobRepositoryCustom#reconcile(String, Collection, Collection, Collection)
+	 */
+	void reconcile(String applicationName, Collection<Job> newJobs, Collection<JobName> configEnabled, Collection<JobName> configDisabled);
+
+
+	// ----- Job executions -----
+
+
+	List<JobExecution> findExecutionsByJobId(UUID tenantId, UUID jobId, Pageable pageable);
+
+
+	Optional<JobExecution> findExecution(UUID tenantId, UUID jobExecutionId);
+
+
+	/**
+	 * Finds a tenant's job executions.
+	 *
+	 * @param success if not null, only executions with this success status are included
+	 */
+	Page<JobExecution> findExecutions(UUID tenantId, Boolean success, Pageable pageable);
+
+
+	/**
+	 * Finds a tenant's job executions, newest first, using keyset pagination.
+	 *
+	 * @see JobExecutionRepositoryCustom#find(UUID, Boolean, String, int, boolean)
+	 */
+	CursorPage<JobExecution> findExecutions(UUID tenantId, Boolean success, String continuationToken, int size, boolean includeCount);
+
+
+	/**
+	 * Streams a tenant's job executions, oldest first, as JSON documents.
+	 *
+	 * @see JobExecutionRepositoryCustom#streamAsJson(UUID, Instant, Instant, Collection)
+	 */
+	Stream<String> streamExecutionsAsJson(UUID tenantId, Instant from, Instant to, Collection<String> fields);
+
+
+	// ----- Tasks -----
+
+
+	/**
+	 * Stores new Tasks, in as few round trips as possible.
+	 */
+	void enqueue(Collection<Task> tasks);
+
+
+	/**
+	 * Atomically claims up to {@code max} due Tasks of the given queues, in order of next execution.
+	 * <p>
+	 * The Tasks are leased by setting their nextExecution to the end of the lease, and a new claimId.
+	 * A Task which is neither completed nor failed before its lease ends is due again.
+	 *
+	 * @param queues queues to claim Tasks from
+	 * @param max maximum number of Tasks to claim
+	 * @param lease how long the Tasks are leased
+	 * @return the claimed Tasks
+	 */
+	List<Task> popTasks(Collection<String> queues, int max, Duration lease);
+
+
+	/**
+	 * Deletes a completed Task.
+	 */
+	void completeTask(Task task);
+
+
+	/**
+	 * Records a failed attempt to execute a claimed Task, clearing its claimId.
+	 * <p>
+	 * The Task's attempts, stackTrace and nextExecution - null if it is not to be retried - must already have been updated.
+	 * Ignored if the Task's lease ended and it was claimed again meanwhile.
+	 */
+	void failTask(Task task);
+
+
+	/**
+	 * @return true if the Task was found and deleted.
+	 */
+	boolean deleteTask(UUID id);
+
+
+}
@@ -0,0 +1,123 @@
+/*
+ * Copyright (C) 2026, Claus Nielsen, clausn999@gmail.com
+ *
+ * This program is free software; you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation; either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License along
+ * with this program; if not, write to the Free Software Foundation, Inc.,
+ * 51 Franklin Street, Fifth Floor, Boston, MA 02110-1301 USA.
+ */
+package dk.clanie.jobscheduler;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Map;
+import java.util.Set;
+import java.util.SortedSet;
+import java.util.TreeSet;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * A requirement of a Job's label selector, matched against the labels of the node claiming the Job.
+ * <p>
+ * Written like {@code cache in (orders, customers)}, {@code gpu notin (true)} or just {@code largeMemory}, which
+ * requires the node to have the label regardless of its values. A Job's requirements are stored in their canonical
+ * form - see {@link #toString()} - so the claim query can leave Jobs with requirements known to be unsatisfied unclaimed.
+ *
+ * @param key the label key
+ * @param operator how the node's values of the label are matched
+ * @param values the values matched - empty for {@link Operator#EXISTS}
+ */
+public record LabelRequirement(
+		String key,
+		Operator operator,
+		SortedSet<String> values) {
+
+
+	public enum Operator {
+
+		/** The node has the label with at least one of the values. */
+		IN,
+
+		/** The node doesn't have the label with any of the values - including nodes without the label. */
+		NOTIN,
+
+		/** The node has the label, with any value. */
+		EXISTS
+
+	}
+
+
+	private static final String NAME = "[A-Za-z0-9][A-Za-z0-9._/-]*";
+
+	private static final Pattern REQUIREMENT = Pattern.compile("(" + NAME + ")(?:\\s+(in|notin)\\s*\\(([^)]*)\\))?", Pattern.CASE_INSENSITIVE);
+
+	private static final Pattern VALID_NAME = Pattern.compile(NAME);
+
+
+	public LabelRequirement {
+		values = Collections.unmodifiableSortedSet(new TreeSet<>(values));
+		if (operator == Operator.EXISTS != values.isEmpty()) {
+			throw new IllegalArgumentException("Label requirement on " + key + " must have values with operator IN or NOTIN, and only then");
+		}
+	}
+
+
+	/**
+	 * Parses a requirement like {@code cache in (orders, customers)}, {@code gpu notin (true)} or {@code largeMemory}.
+	 *
+	 * @throws IllegalArgumentException if the requirement is invalid
+	 */
+	public static LabelRequirement parse(String requirement) {
+		Matcher matcher = REQUIREMENT.matcher(requirement.strip());
+		if (!matcher.matches()) throw new IllegalArgumentException("Expected a label requirement like 'key in (a, b)', 'key notin (a)' or 'key', got: " + requirement);
+		if (matcher.group(2) == null) return new LabelRequirement(matcher.group(1), Operator.EXISTS, new TreeSet<>());
+		SortedSet<String> values = new TreeSet<>();
+		for (String value : Arrays.stream(matcher.group(3).split(",")).map(String::strip).toList()) {
+			if (!isValidName(value)) throw new IllegalArgumentException("Invalid label value '" + value + "' in: " + requirement);
+			values.add(value);
+		}
+		return new LabelRequirement(matcher.group(1), Operator.valueOf(matcher.group(2).toUpperCase()), values);
+	}
+
+
+	/**
+	 * Tests whether a label key or value is valid: letters, digits and {@code ._/-}, starting with a letter or digit.
+	 */
+	static boolean isValidName(String name) {
+		return VALID_NAME.matcher(name).matches();
+	}
+
+
+	/**
+	 * Tests whether a node with the given labels satisfies this requirement.
+	 */
+	public boolean matches(Map<String, Set<String>> labels) {
+		Set<String> nodeValues = labels.get(key);
+		return switch (operator) {
+		case IN -> nodeValues != null && nodeValues.stream().anyMatch(values::contains);
+		case NOTIN -> nodeValues == null || nodeValues.stream().noneMatch(values::contains);
+		case EXISTS -> nodeValues != null;
+		};
+	}
+
+
+	/**
+	 * Returns the canonical form of the requirement, with sorted values, eg. {@code cache in (customers,orders)}.
+	 */
+	@Override
+	public String toString() {
+		return operator == Operator.EXISTS ? key : key + " " + operator.name().toLowerCase() + " (" + String.join(",", values) + ")";
+	}
+
+
+}
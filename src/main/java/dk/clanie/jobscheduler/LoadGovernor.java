@@ -0,0 +1,187 @@
+/*
+ * Copyright (C) 2026, Claus Nielsen, clausn999@gmail.com
+ *
+ * This program is free software; you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation; either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License along
+ * with this program; if not, write to the Free Software Foundation, Inc.,
+ * 51 Franklin Street, Fifth Floor, Boston, MA 02110-1301 USA.
+ */
+package dk.clanie.jobscheduler;
+
+import java.lang.management.ManagementFactory;
+import java.lang.management.MemoryPoolMXBean;
+import java.lang.management.MemoryType;
+import java.lang.management.MemoryUsage;
+import java.time.Clock;
+import java.time.Duration;
+import java.time.LocalTime;
+import java.util.Collection;
+import java.util.List;
+
+import com.sun.management.OperatingSystemMXBean;
+
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Decides when a node should stop claiming deferrable Jobs, because it is under load.
+ * <p>
+ * Samples the process CPU load, the heap occupancy after the latest garbage collection and the
+ * {@link LoadSignal}s, at most once per sample interval. The node comes under pressure when the CPU load
+ * or heap occupancy exceeds its limit, or a LoadSignal reports pressure, and stays under pressure until
+ * CPU load and heap occupancy are below 90% of their limits, so it doesn't flap around a limit.
+ * <p>
+ * Within the off-peak windows, deferrable Jobs are claimed regardless of load.
+ */
+@Slf4j
+public class LoadGovernor {
+
+	private static final double HYSTERESIS = 0.9;
+
+
+	/**
+	 * A daily time window, which may span midnight, eg. 22:00-06:00.
+	 */
+	record Window(LocalTime start, LocalTime end) {
+
+		static Window parse(String window) {
+			String[] startAndEnd = window.strip().split("-");
+			if (startAndEnd.length != 2) throw new IllegalArgumentException("Expected a window like 22:00-06:00, got: " + window);
+			return new Window(LocalTime.parse(startAndEnd[0].strip()), LocalTime.parse(startAndEnd[1].strip()));
+		}
+
+		boolean contains(LocalTime time) {
+			return start.isBefore(end)
+					? !time.isBefore(start) && time.isBefore(end)
+					: !time.isBefore(start) || time.isBefore(end);
+		}
+
+	}
+
+
+	private final double maxCpuLoad;
+	private final double maxHeapAfterGc;
+	private final Duration sampleInterval;
+	private final List<Window> offPeakWindows;
+	private final Collection<LoadSignal> signals;
+	private final Clock clock;
+
+	private final OperatingSystemMXBean operatingSystem = ManagementFactory.getPlatformMXBean(OperatingSystemMXBean.class);
+	private final List<MemoryPoolMXBean> heapPools = ManagementFactory.getMemoryPoolMXBeans().stream()
+			.filter(pool -> pool.getType() == MemoryType.HEAP && pool.isCollectionUsageThresholdSupported())
+			.toList();
+
+	private volatile boolean underPressure;
+	private volatile long sampledAt = Long.MIN_VALUE;
+	private volatile double cpuLoad;
+	private volatile double heapAfterGc;
+
+
+	/**
+	 * @param maxCpuLoad process CPU load, between 0 and 1, above which the node is under pressure
+	 * @param maxHeapAfterGc heap occupancy after garbage collection, between 0 and 1, above which the node is under pressure
+	 * @param sampleInterval minimum time between samples
+	 * @param offPeakWindows daily windows, like 22:00-06:00, in which deferrable Jobs are claimed regardless of load
+	 * @param signals application supplied load signals
+	 * @param clock clock providing the current time, and the time zone of the off-peak windows
+	 */
+	public LoadGovernor(double maxCpuLoad, double maxHeapAfterGc, Duration sampleInterval, Collection<String> offPeakWindows,
+			Collection<LoadSignal> signals, Clock clock) {
+		this.maxCpuLoad = maxCpuLoad;
+		this.maxHeapAfterGc = maxHeapAfterGc;
+		this.sampleInterval = sampleInterval;
+		this.offPeakWindows = offPeakWindows.stream().filter(window -> !window.isBlank()).map(Window::parse).toList();
+		this.signals = List.copyOf(signals);
+		this.clock = clock;
+	}
+
+
+	/**
+	 * Tests whether deferrable Jobs should be left unclaimed now, ie. the node is under pressure
+	 * and it is not off-peak.
+	 */
+	public boolean shouldDefer() {
+		return isUnderPressure() && !isOffPeak();
+	}
+
+
+	/**
+	 * Tests whether the node is under pressure, sampling the load if the sample interval has passed.
+	 */
+	public boolean isUnderPressure() {
+		long now = clock.millis();
+		if (now - sampledAt >= sampleInterval.toMillis()) {
+			sample(now);
+		}
+		return underPressure;
+	}
+
+
+	public boolean isOffPeak() {
+		LocalTime time = LocalTime.now(clock);
+		return offPeakWindows.stream().anyMatch(window -> window.contains(time));
+	}
+
+
+	/**
+	 * Process CPU load at the latest sample, between 0 and 1, or negative if not available.
+	 */
+	public double getCpuLoad() {
+		return cpuLoad;
+	}
+
+
+	/**
+	 * Heap occupancy after garbage collection at the latest sample, between 0 and 1.
+	 */
+	public double getHeapAfterGc() {
+		return heapAfterGc;
+	}
+
+
+	public Duration getSampleInterval() {
+		return sampleInterval;
+	}
+
+
+	private synchronized void sample(long now) {
+		if (now - sampledAt < sampleInterval.toMillis()) return; // Sampled by another thread
+		cpuLoad = operatingSystem.getProcessCpuLoad();
+		heapAfterGc = heapAfterGc();
+		boolean signalled = signals.stream().anyMatch(LoadSignal::isUnderPressure);
+		double limitFactor = underPressure ? HYSTERESIS : 1;
+		boolean pressure = cpuLoad > maxCpuLoad * limitFactor || heapAfterGc > maxHeapAfterGc * limitFactor || signalled;
+		if (pressure != underPressure) {
+			log.info("{} - CPU load: {}, heap after GC: {}, load signal: {}.",
+					pressure ? "Under pressure, deferrable jobs are deferred" : "Pressure relieved, deferrable jobs are resumed",
+					cpuLoad, heapAfterGc, signalled);
+		}
+		underPressure = pressure;
+		sampledAt = now;
+	}
+
+
+	/**
+	 * Returns the highest occupancy of the heap pools after the latest garbage collection - in practice that of the old generation.
+	 */
+	private double heapAfterGc() {
+		double occupancy = 0;
+		for (MemoryPoolMXBean pool : heapPools) {
+			MemoryUsage usage = pool.getCollectionUsage();
+			if (usage != null && usage.getMax() > 0) {
+				occupancy = Math.max(occupancy, (double) usage.getUsed() / usage.getMax());
+			}
+		}
+		return occupancy;
+	}
+
+
+}
@@ -0,0 +1,40 @@
+/*
+ * Copyright (C) 2026, Claus Nielsen, clausn999@gmail.com
+ *
+ * This program is free software; you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation; either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License along
+ * with this program; if not, write to the Free Software Foundation, Inc.,
+ * 51 Franklin Street, Fifth Floor, Boston, MA 02110-1301 USA.
+ */
+package dk.clanie.jobscheduler;
+
+/**
+ * Application supplied load signal for the {@link LoadGovernor}, eg. based on request latency
+ * or the health of a downstream system.
+ * <p>
+ * All LoadSignal beans are consulted when the LoadGovernor samples the load.
+ */
+@FunctionalInterface
+public interface LoadSignal {
+
+
+	/**
+	 * Tests whether the application is under pressure, so deferrable Jobs should wait.
+	 * <p>
+	 * Called at most once per sample interval, from the scheduler thread, so it should be fast.
+	 *
+	 * @return true if the application is under pressure
+	 */
+	boolean isUnderPressure();
+
+
+}
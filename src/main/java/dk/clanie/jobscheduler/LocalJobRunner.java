@@ -0,0 +1,266 @@
+/*
+ * Copyright (C) 2026, Claus Nielsen, clausn999@gmail.com
+ *
+ * This program is free software; you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation; either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License along
+ * with this program; if not, write to the Free Software Foundation, Inc.,
+ * 51 Franklin Street, Fifth Floor, Boston, MA 02110-1301 USA.
+ */
+package dk.clanie.jobscheduler;
+
+import static dk.clanie.core.Utils.stackTraceOf;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.ZonedDateTime;
+import java.util.Collection;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.stream.Collectors;
+
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Runs {@link Job#isLocal() local} Jobs on this node, from an in-process timer.
+ * <p>
+ * Local Jobs are meant for very frequent work, eg. metrics flushes or cache refreshes, where claiming the Job
+ * and recording each execution would cost more than the work itself. They run on every node, at their rate
+ * or delay with sub-second precision, while the Job is enabled and its profile matches the node.
+ * <p>
+ * The Jobs, with their enabled state, are reloaded from the JobStore every refresh interval, and the executions
+ * since the last summary are recorded as a single JobExecution every summary interval.
+ */
+@Slf4j
+public class LocalJobRunner implements AutoCloseable {
+
+	/**
+	 * A local Job, and its executions since the last summary.
+	 */
+	private final class LocalJob {
+
+		private volatile Job job;
+		private final AtomicBoolean running = new AtomicBoolean();
+		private volatile ScheduledFuture<?> future;
+
+		// Executions since the last summary - guarded by this
+		private long executions;
+		private long failures;
+		private long totalDurationMillis;
+		private String lastStackTrace;
+		private ZonedDateTime lastSucceeded;
+		private ZonedDateTime lastFailed;
+
+		LocalJob(Job job) {
+			this.job = job;
+		}
+
+		synchronized void record(long durationMillis, String stackTrace) {
+			executions++;
+			totalDurationMillis += durationMillis;
+			if (stackTrace == null) {
+				lastSucceeded = ZonedDateTime.now(clock);
+			} else {
+				failures++;
+				lastStackTrace = stackTrace;
+				lastFailed = ZonedDateTime.now(clock);
+			}
+		}
+
+		synchronized boolean hasFailedSinceSummary() {
+			return failures > 0;
+		}
+
+		/**
+		 * Records the executions since the last summary, if any.
+		 */
+		void summarize() {
+			JobExecution summary;
+			long summarizedDurationMillis;
+			ZonedDateTime summarizedLastSucceeded, summarizedLastFailed;
+			synchronized (this) {
+				if (executions == 0) return;
+				summary = JobExecution.summaryOf(job, executions, failures, lastStackTrace);
+				summarizedDurationMillis = totalDurationMillis;
+				summarizedLastSucceeded = lastSucceeded;
+				summarizedLastFailed = lastFailed;
+				executions = failures = totalDurationMillis = 0;
+				lastStackTrace = null;
+				lastSucceeded = lastFailed = null;
+			}
+			// Merged into the stored Job, as the other nodes running the Job record their summaries too
+			jobStore.recordSummary(summary, summarizedDurationMillis, summarizedLastSucceeded, summarizedLastFailed);
+		}
+
+	}
+
+
+	private final JobStore jobStore;
+	private final JobExecutionService jobExecutionService;
+	private final String applicationName;
+	private final Duration refreshInterval;
+	private final Duration summaryInterval;
+	private final Clock clock;
+
+	private final ScheduledExecutorService timer = Executors.newSingleThreadScheduledExecutor(
+			Thread.ofPlatform().name("local-job-timer").daemon().factory());
+	private final ScheduledExecutorService housekeeping = Executors.newSingleThreadScheduledExecutor(
+			Thread.ofPlatform().name("local-job-housekeeping").daemon().factory());
+	private final ExecutorService executorService = Executors.newVirtualThreadPerTaskExecutor();
+	private final Map<UUID, LocalJob> localJobs = new ConcurrentHashMap<>();
+
+	private volatile Collection<String> matchProfiles;
+
+
+	public LocalJobRunner(JobStore jobStore, JobExecutionService jobExecutionService, String applicationName,
+			Duration refreshInterval, Duration summaryInterval, Clock clock) {
+		if (!refreshInterval.isPositive()) throw new IllegalArgumentException("refreshInterval must be positive, was " + refreshInterval);
+		if (!summaryInterval.isPositive()) throw new IllegalArgumentException("summaryInterval must be positive, was " + summaryInterval);
+		this.jobStore = jobStore;
+		this.jobExecutionService = jobExecutionService;
+		this.applicationName = applicationName;
+		this.refreshInterval = refreshInterval;
+		this.summaryInterval = summaryInterval;
+		this.clock = clock;
+	}
+
+
+	/**
+	 * Loads the application's local Jobs, and starts running them.
+	 *
+	 * @param matchProfiles profile values to match against the Jobs' profile, like when claiming Jobs
+	 */
+	public void start(Collection<String> matchProfiles) {
+		this.matchProfiles = matchProfiles;
+		refresh();
+		housekeeping.scheduleWithFixedDelay(this::refresh, refreshInterval.toMillis(), refreshInterval.toMillis(), TimeUnit.MILLISECONDS);
+		housekeeping.scheduleWithFixedDelay(this::summarize, summaryInterval.toMillis(), summaryInterval.toMillis(), TimeUnit.MILLISECONDS);
+		log.info("Local job runner started with {} local jobs.", localJobs.size());
+	}
+
+
+	/**
+	 * Stops running the local Jobs, and records the executions since the last summary.
+	 */
+	@Override
+	public void close() {
+		timer.shutdownNow();
+		housekeeping.shutdownNow();
+		executorService.close(); // Waits for running executions
+		summarize();
+	}
+
+
+	/**
+	 * Reloads the local Jobs, starting new ones and stopping deleted ones. Running Jobs get the reloaded state,
+	 * eg. enabled, at their next execution.
+	 */
+	private void refresh() {
+		try {
+			Map<UUID, Job> jobs = jobStore.findLocal(applicationName).stream()
+					.collect(Collectors.toMap(Job::getId, job -> job));
+			for (Job job : jobs.values()) {
+				LocalJob localJob = localJobs.get(job.getId());
+				if (localJob != null) {
+					localJob.job = job;
+				} else {
+					localJob = new LocalJob(job);
+					localJobs.put(job.getId(), localJob);
+					schedule(localJob);
+				}
+			}
+			Set<UUID> deleted = localJobs.keySet().stream().filter(id -> !jobs.containsKey(id)).collect(Collectors.toSet());
+			deleted.forEach(id -> {
+				LocalJob localJob = localJobs.remove(id);
+				if (localJob.future != null) localJob.future.cancel(false);
+				log.info("Local job {} was deleted - stopped.", localJob.job.getName().displayName());
+			});
+		} catch (RuntimeException e) {
+			log.warn("Failed to reload local jobs - keeping their last known state.", e);
+		}
+	}
+
+
+	private void schedule(LocalJob localJob) {
+		switch (localJob.job.getSchedule()) {
+		case JobSchedule.Rate rate -> localJob.future = timer.scheduleAtFixedRate(() -> submit(localJob, null),
+				0, rate.getRate().toNanos(), TimeUnit.NANOSECONDS);
+		case JobSchedule.Delay delay -> localJob.future = timer.schedule(() -> submit(localJob, delay.getDelay()),
+				0, TimeUnit.NANOSECONDS);
+		default -> log.warn("Local job {} has schedule {} - only rate and delay schedules are supported for local jobs.",
+				localJob.job.getName().displayName(), localJob.job.getSchedule());
+		}
+	}
+
+
+	/**
+	 * Executes a local Job in a virtual thread, unless its previous execution is still running.
+	 *
+	 * @param delay if not null, the Job is scheduled again this long after the execution
+	 */
+	private void submit(LocalJob localJob, Duration delay) {
+		if (!localJob.running.compareAndSet(false, true)) return; // Skip, like a rate schedule does when the job runs late
+		executorService.submit(() -> {
+			try {
+				execute(localJob);
+			} finally {
+				localJob.running.set(false);
+				if (delay != null && localJobs.get(localJob.job.getId()) == localJob && !timer.isShutdown()) {
+					localJob.future = timer.schedule(() -> submit(localJob, delay), delay.toNanos(), TimeUnit.NANOSECONDS);
+				}
+			}
+		});
+	}
+
+
+	private void execute(LocalJob localJob) {
+		Job job = localJob.job;
+		if (!job.isConfigEnabled() || !job.isUserEnabled() || !matchProfiles.contains(job.getProfile())) return;
+		long start = clock.millis();
+		String stackTrace = null;
+		try {
+			jobExecutionService.invoke(job.getName());
+		} catch (Exception e) {
+			// Log each failure, but only the first one of a summary interval with its stack trace, to avoid flooding the log
+			if (!localJob.hasFailedSinceSummary()) {
+				log.error("Local job {} failed.", job.getName().displayName(), e);
+			} else {
+				log.error("Local job {} failed: {}", job.getName().displayName(), e.toString());
+			}
+			stackTrace = stackTraceOf(e);
+		}
+		localJob.record(clock.millis() - start, stackTrace);
+	}
+
+
+	/**
+	 * Records the executions of all local Jobs since their last summary.
+	 */
+	private void summarize() {
+		localJobs.values().forEach(localJob -> {
+			try {
+				localJob.summarize();
+			} catch (RuntimeException e) {
+				log.warn("Failed to record summary of local job {}.", localJob.job.getName().displayName(), e);
+			}
+		});
+	}
+
+
+}
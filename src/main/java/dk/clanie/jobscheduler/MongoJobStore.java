@@ -0,0 +1,275 @@
+/*
+ * Copyright (C) 2026, Claus Nielsen, clausn999@gmail.com
+ *
+ * This program is free software; you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation; either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License along
+ * with this program; if not, write to the Free Software Foundation, Inc.,
+ * 51 Franklin Street, Fifth Floor, Boston, MA 02110-1301 USA.
+ */
+package dk.clanie.jobscheduler;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.time.ZonedDateTime;
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+import java.util.Set;
+import java.util.UUID;
+import java.util.stream.Stream;
+
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * {@link JobStore} backed by MongoDB, using the Spring Data repositories.
+ */
+@Slf4j
+@RequiredArgsConstructor
+public class MongoJobStore implements JobStore {
+
+	private final JobRepository jobRepository;
+	private final JobExecutionRepository jobExecutionRepository;
+	private final TaskRepository taskRepository;
+
+
+	@Override
+	public Optional<ZonedDateTime> findNextExecutionTime(ClaimCriteria criteria) {
+		return jobRepository.findNextExecutionTime(criteria);
+	}
+
+
+	@Override
+	public Set<String> findLabelRequirements() {
+		return jobRepository.findLabelRequirements();
+	}
+
+
+	@Override
+	public long getLabelMismatches() {
+		return jobRepository.getLabelMismatches();
+	}
+
+
+	@Override
+	public Optional<Job> popForExecution(ClaimCriteria criteria) {
+		return jobRepository.popForExecution(criteria);
+	}
+
+
+	@Override
+	public void complete(Job job, JobExecution jobExecution) {
+		jobExecutionRepository.record(jobExecution);
+		if (!jobRepository.complete(job, jobExecution.getId())) {
+			log.warn("Job {} was deleted or claimed by another execution while execution {} was running - Job not updated.",
+					job.getName().displayName(), jobExecution.getId());
+		}
+		// Holders are execution ids, so a stale execution never releases the place of the one which claimed the Job again
+		if (job.getLockGroup() != null) jobRepository.releaseLockGroup(jobExecution.getId());
+	}
+
+
+	@Override
+	public void recordSummary(JobExecution summary, long totalDurationMillis, ZonedDateTime lastSucceeded, ZonedDateTime lastFailed) {
+		jobExecutionRepository.record(summary);
+		if (!jobRepository.recordSummary(summary.getJobId(), summary.getExecutionCount(), totalDurationMillis, lastSucceeded, lastFailed)) {
+			log.warn("Job {} was deleted - summary {} not merged into it.", summary.getJobId(), summary.getId());
+		}
+	}
+
+
+	@Override
+	public boolean checkpoint(Job job, String checkpoint) {
+		return jobRepository.setCheckpoint(job.getId(), job.getJobExecutionId(), checkpoint) == 1;
+	}
+
+
+	@Override
+	public List<Job> find(UUID tenantId, Pageable pageable, JobFilter filter) {
+		return jobRepository.find(tenantId, pageable, filter);
+	}
+
+
+	@Override
+	public CursorPage<Job> find(UUID tenantId, JobFilter filter, String continuationToken, int size, boolean includeCount) {
+		return jobRepository.find(tenantId, filter, continuationToken, size, includeCount);
+	}
+
+
+	@Override
+	public List<UUID> findIds(UUID tenantId, JobFilter filter) {
+		return jobRepository.findIds(tenantId, filter);
+	}
+
+
+	@Override
+	public long count(UUID tenantId, JobFilter filter) {
+		return jobRepository.count(tenantId, filter);
+	}
+
+
+	@Override
+	public void save(Job job) {
+		jobRepository.save(job);
+	}
+
+
+	@Override
+	public void delete(UUID tenantId, UUID jobId) {
+		jobRepository.deleteById(tenantId, jobId);
+	}
+
+
+	@Override
+	public void deleteByIdIn(UUID tenantId, Collection<UUID> jobIds) {
+		jobRepository.deleteByIdIn(tenantId, jobIds);
+	}
+
+
+	@Override
+	public boolean setUserEnabled(UUID tenantId, UUID id, boolean userEnabled) {
+		return jobRepository.setUserEnabled(tenantId, id, userEnabled) == 1;
+	}
+
+
+	@Override
+	public BulkUpdateResult setUserEnabled(UUID tenantId, JobFilter filter, boolean userEnabled) {
+		return jobRepository.setUserEnabled(tenantId, filter, userEnabled);
+	}
+
+
+	@Override
+	public boolean setNextExecution(UUID tenantId, UUID id, ZonedDateTime nextExecution) {
+		return jobRepository.setNextExecution(tenantId, id, nextExecution) == 1;
+	}
+
+
+	@Override
+	public long trigger(UUID tenantId, JobFilter filter, Duration coalescingWindow) {
+		return jobRepository.trigger(tenantId, filter, coalescingWindow);
+	}
+
+
+	@Override
+	public boolean clearRunningStatus(UUID tenantId, UUID id) {
+		return jobRepository.clearRunningStatus(tenantId, id);
+	}
+
+
+	@Override
+	public BulkUpdateResult clearRunningStatus(UUID tenantId, JobFilter filter, ZonedDateTime startedBefore) {
+		return jobRepository.clearRunningStatus(tenantId, filter, startedBefore);
+	}
+
+
+	@Override
+	public boolean setProfile(UUID tenantId, UUID id, String profile) {
+		return jobRepository.setProfile(tenantId, id, profile) == 1;
+	}
+
+
+	@Override
+	public BulkUpdateResult setProfile(UUID tenantId, JobFilter filter, String profile) {
+		return jobRepository.setProfile(tenantId, filter, profile);
+	}
+
+
+	@Override
+	public boolean clearProfile(UUID tenantId, UUID id) {
+		return jobRepository.clearProfile(tenantId, id) == 1;
+	}
+
+
+	@Override
+	public Set<JobName> findNames(String applicationName) {
+		return jobRepository.findNames(applicationName);
+	}
+
+
+	@Override
+	public List<Job> findLocal(String applicationName) {
+		return jobRepository.findLocal(applicationName);
+	}
+
+
+	@Override
+	public void reconcile(String applicationName, Collection<Job> newJobs, Collection<JobName> configEnabled, Collection<JobName> configDisabled) {
+		jobRepository.reconcile(applicationName, newJobs, configEnabled, configDisabled);
+	}
+
+
+	@Override
+	public List<JobExecution> findExecutionsByJobId(UUID tenantId, UUID jobId, Pageable pageable) {
+		return jobExecutionRepository.findByJobId(tenantId, jobId, pageable);
+	}
+
+
+	@Override
+	public Optional<JobExecution> findExecution(UUID tenantId, UUID jobExecutionId) {
+		return jobExecutionRepository.findByJobExecutionId(tenantId, jobExecutionId);
+	}
+
+
+	@Override
+	public Page<JobExecution> findExecutions(UUID tenantId, Boolean success, Pageable pageable) {
+		return success == null
+				? jobExecutionRepository.findByTenantId(tenantId, pageable)
+				: jobExecutionRepository.findByTenantIdAndSuccess(tenantId, success, pageable);
+	}
+
+
+	@Override
+	public CursorPage<JobExecution> findExecutions(UUID tenantId, Boolean success, String continuationToken, int size, boolean includeCount) {
+		return jobExecutionRepository.find(tenantId, success, continuationToken, size, includeCount);
+	}
+
+
+	@Override
+	public Stream<String> streamExecutionsAsJson(UUID tenantId, Instant from, Instant to, Collection<String> fields) {
+		return jobExecutionRepository.streamAsJson(tenantId, from, to, fields);
+	}
+
+
+	@Override
+	public void enqueue(Collection<Task> tasks) {
+		taskRepository.insert(tasks);
+	}
+
+
+	@Override
+	public List<Task> popTasks(Collection<String> queues, int max, Duration lease) {
+		return taskRepository.claim(queues, max, lease);
+	}
+
+
+	@Override
+	public void completeTask(Task task) {
+		taskRepository.deleteById(task.getId());
+	}
+
+
+	@Override
+	public void failTask(Task task) {
+		taskRepository.fail(task);
+	}
+
+
+	@Override
+	public boolean deleteTask(UUID id) {
+		return taskRepository.deleteTask(id) > 0;
+	}
+
+
+}
@@ -0,0 +1,124 @@
+/*
+ * Copyright (C) 2026, Claus Nielsen, clausn999@gmail.com
+ *
+ * This program is free software; you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation; either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License along
+ * with this program; if not, write to the Free Software Foundation, Inc.,
+ * 51 Franklin Street, Fifth Floor, Boston, MA 02110-1301 USA.
+ */
+package dk.clanie.jobscheduler;
+
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+/**
+ * Labels of a node, eg. {@code cache=orders} or {@code memory=large}, matched against the label selectors of Jobs.
+ * <p>
+ * Labels are multi-valued, so a node holding several caches can have both {@code cache=orders} and {@code cache=customers}.
+ *
+ * @param labels values of each label key - an empty set for a label given without a value
+ */
+public record NodeLabels(Map<String, Set<String>> labels) {
+
+	/**
+	 * No labels - Jobs with label selectors only run on such nodes if all their requirements are {@code notin}.
+	 */
+	public static final NodeLabels NONE = new NodeLabels(Map.of());
+
+	/**
+	 * Maximum number of parsed requirements kept - requirements come from the Jobs' label selectors, so they are few.
+	 */
+	private static final int MAX_PARSED_REQUIREMENTS = 1000;
+
+	/**
+	 * Parsed requirements, as the same requirements are tested on every claim.
+	 */
+	private static final Map<String, LabelRequirement> PARSED_REQUIREMENTS = new ConcurrentHashMap<>();
+
+
+	public NodeLabels {
+		labels = labels.entrySet().stream().collect(Collectors.toUnmodifiableMap(Map.Entry::getKey, entry -> Set.copyOf(entry.getValue())));
+	}
+
+
+	/**
+	 * Parses labels like {@code cache=orders}, or just {@code gpu} for a label without a value.
+	 *
+	 * @throws IllegalArgumentException if a label is invalid
+	 */
+	public static NodeLabels parse(Collection<String> labels) {
+		Map<String, Set<String>> parsed = new HashMap<>();
+		for (String label : labels) {
+			if (label.isBlank()) continue;
+			String[] keyAndValue = label.strip().split("=", 2);
+			for (String name : keyAndValue) {
+				if (!LabelRequirement.isValidName(name)) throw new IllegalArgumentException("Invalid node label: " + label);
+			}
+			Set<String> values = parsed.computeIfAbsent(keyAndValue[0], _ -> new HashSet<>());
+			if (keyAndValue.length == 2) values.add(keyAndValue[1]);
+		}
+		return new NodeLabels(parsed);
+	}
+
+
+	/**
+	 * Tests whether this node satisfies a requirement, in the canonical form stored on Jobs.
+	 */
+	public boolean satisfies(String requirement) {
+		return parsed(requirement).matches(labels);
+	}
+
+
+	private static LabelRequirement parsed(String requirement) {
+		LabelRequirement parsed = PARSED_REQUIREMENTS.get(requirement);
+		if (parsed == null) {
+			parsed = LabelRequirement.parse(requirement);
+			if (PARSED_REQUIREMENTS.size() < MAX_PARSED_REQUIREMENTS) PARSED_REQUIREMENTS.put(requirement, parsed);
+		}
+		return parsed;
+	}
+
+
+	/**
+	 * Tests whether this node satisfies all requirements of a Job's label selector.
+	 */
+	public boolean satisfies(Job job) {
+		return job.getLabelSelector() == null || job.getLabelSelector().stream().allMatch(this::satisfies);
+	}
+
+
+	/**
+	 * Returns the requirements this node doesn't satisfy.
+	 */
+	public List<String> unsatisfied(Collection<String> requirements) {
+		return requirements.stream().filter(requirement -> !satisfies(requirement)).toList();
+	}
+
+
+	@Override
+	public String toString() {
+		return labels.entrySet().stream()
+				.flatMap(entry -> entry.getValue().isEmpty() ? Stream.of(entry.getKey())
+						: entry.getValue().stream().sorted().map(value -> entry.getKey() + "=" + value))
+				.sorted()
+				.collect(Collectors.joining(",", "[", "]"));
+	}
+
+
+}
@@ -0,0 +1,76 @@
+/*
+ * Copyright (C) 2026, Claus Nielsen, clausn999@gmail.com
+ *
+ * This program is free software; you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation; either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License along
+ * with this program; if not, write to the Free Software Foundation, Inc.,
+ * 51 Franklin Street, Fifth Floor, Boston, MA 02110-1301 USA.
+ */
+package dk.clanie.jobscheduler;
+
+import java.time.Duration;
+import java.time.format.DateTimeParseException;
+
+/**
+ * Cluster-wide token bucket rate limit of a Job.
+ * <p>
+ * The bucket holds up to {@code permits} tokens, and is refilled continuously at {@code permits} tokens per
+ * {@code period}. Starting a Job takes a token, and a Job whose bucket is empty is left due until a token is available.
+ * Jobs sharing a bucket, eg. all jobs calling the same partner API, should have the same permits and period.
+ *
+ * @param bucket name of the bucket - the rate limit group, or derived from the Job's name if it has a rate limit of its own
+ * @param permits number of executions allowed per period, and the maximum burst
+ * @param period the period
+ */
+public record RateLimit(
+		String bucket,
+		int permits,
+		Duration period) {
+
+
+	public RateLimit {
+		if (permits < 1) throw new IllegalArgumentException("Rate limit permits must be at least 1, was " + permits);
+		if (!period.isPositive()) throw new IllegalArgumentException("Rate limit period must be positive, was " + period);
+	}
+
+
+	/**
+	 * Parses a rate limit like {@code 10/PT1M}, ie. 10 executions per minute.
+	 *
+	 * @param bucket name of the bucket
+	 * @param rateLimit permits and ISO-8601 period separated by a slash
+	 * @return the rate limit
+	 * @throws IllegalArgumentException if the rate limit is invalid
+	 */
+	public static RateLimit parse(String bucket, String rateLimit) {
+		String[] permitsAndPeriod = rateLimit.split("/");
+		if (permitsAndPeriod.length != 2) throw new IllegalArgumentException("Expected a rate limit like 10/PT1M, got: " + rateLimit);
+		try {
+			return new RateLimit(bucket, Integer.parseInt(permitsAndPeriod[0].strip()), Duration.parse(permitsAndPeriod[1].strip()));
+		} catch (NumberFormatException | DateTimeParseException e) {
+			throw new IllegalArgumentException("Invalid rate limit: " + rateLimit, e);
+		}
+	}
+
+
+	/**
+	 * Returns the tokens in the bucket after refilling it for the given time.
+	 *
+	 * @param tokens tokens in the bucket when it was last refilled
+	 * @param elapsedMillis time since the bucket was last refilled
+	 */
+	public double refill(double tokens, long elapsedMillis) {
+		return Math.min(permits, tokens + (double) Math.max(0, elapsedMillis) * permits / period.toMillis());
+	}
+
+
+}
@@ -34,6 +34,8 @@ import org.springframework.scheduling.support.CronExpression;
  * method, and you must also add a configuration property named
  * {@code jobScheduler.job.<beanName>.<methodName>.enabled},
  * so the job can be enabled or disabled in the configuration.
+ * <p>
+ * The method must have no parameters, or a single {@link JobContext} parameter, eg. for recording checkpoints.
  */
 @Retention(RetentionPolicy.RUNTIME)
 @Target(ElementType.METHOD)
@@ -51,6 +53,16 @@ public @interface ScheduledJob {
 	String cron() default "";
 
 
+	/**
+	 * Time zone to evaluate the {@link #cron()} expression in, eg. {@code "Europe/Copenhagen"}.
+	 * <p>
+	 * Defaults to the JVM's default time zone.
+	 *
+	 * @see java.time.ZoneId#of(String)
+	 */
+	String zone() default "";
+
+
 	/**
 	 * Execute the annotated method with a fixed period between the end of the
 	 * last invocation and the start of the next.
@@ -68,4 +80,101 @@ public @interface ScheduledJob {
 	String rate() default "";
 
 
+	/**
+	 * Spread executions of jobs with a {@link #cron()} or {@link #rate()} schedule over a window
+	 * after the scheduled times, so jobs sharing a schedule don't all become due at the same time.
+	 * <p>
+	 * Each job is executed at a stable offset within the window, derived from a hash of its name,
+	 * similar to Jenkins' {@code H} syntax. The window would typically be less than the interval
+	 * between executions.
+	 * <p>
+	 * Spread must be given as a ISO-8601 duration (PnDTnHnMnS).
+	 */
+	String spread() default "";
+
+
+	/**
+	 * Whether execution of the job may be deferred while the node is under load.
+	 * <p>
+	 * Deferrable jobs are left for other nodes, or until the pressure is relieved or an off-peak window
+	 * begins, when the {@link LoadGovernor} is enabled. Use it for low-priority work like clean-ups and reports.
+	 * <p>
+	 * Only applied when the job is created, like the schedule.
+	 */
+	boolean deferrable() default false;
+
+
+	/**
+	 * Number of permits for parallel job executions ({@code jobScheduler.maxParallelJobs}) the job takes while running,
+	 * eg. higher for a heavy export than for a cache refresh.
+	 * <p>
+	 * Jobs are only claimed when there are free permits enough, so lighter jobs may run before a heavier one which
+	 * is due first - there is no reservation of permits, so a heavy job may wait for long on a node busy with lighter jobs.
+	 * A job heavier than the node's limit on parallel jobs counts as weighing the limit, so it runs alone.
+	 * <p>
+	 * Only applied when the job is created, like the schedule.
+	 */
+	int weight() default 1;
+
+
+	/**
+	 * Mutual-exclusion group of the job, eg. for jobs writing to the same tables, which deadlock when they overlap.
+	 * <p>
+	 * At most {@link #lockGroupLimit()} jobs of a lock group run at the same time, across all nodes.
+	 * The limit is enforced when jobs are claimed, so a job whose group is full waits until a job of the group completes.
+	 * <p>
+	 * Only applied when the job is created, like the schedule.
+	 */
+	String lockGroup() default "";
+
+
+	/**
+	 * Maximum number of jobs of the {@link #lockGroup()} running at the same time. Should be the same for all jobs of the group.
+	 */
+	int lockGroupLimit() default 1;
+
+
+	/**
+	 * Cluster-wide rate limit of the job, as permits per ISO-8601 period, eg. {@code 10/PT1M} for at most 10 executions
+	 * a minute, with bursts of up to 10. Useful for jobs calling quota-limited partner APIs.
+	 * <p>
+	 * The limit is enforced when jobs are claimed - a job whose rate limit is exhausted stays due until a token is available.
+	 * <p>
+	 * Only applied when the job is created, like the schedule.
+	 */
+	String rateLimit() default "";
+
+
+	/**
+	 * Name of a rate limit shared by several jobs, eg. all jobs calling the same API. Requires {@link #rateLimit()},
+	 * which should be the same for all jobs of the group. If empty, the job has a rate limit of its own.
+	 */
+	String rateLimitGroup() default "";
+
+
+	/**
+	 * Label requirements the node running the job must satisfy, eg. to run cache-heavy jobs on the nodes holding the cache.
+	 * Each is either {@code key in (value, ...)}, {@code key notin (value, ...)} or just {@code key}, which requires the
+	 * node to have the label with any value. Node labels are set with {@code jobScheduler.nodeLabels}, eg. {@code cache=orders}.
+	 * <p>
+	 * Only applied when the job is created, like the schedule.
+	 */
+	String[] labelSelector() default {};
+
+
+	/**
+	 * Run the job on every node from an in-process timer, instead of on one node at a time, eg. for metrics flushes
+	 * or cache refreshes every second or faster. Requires a {@link #rate()} or {@link #delay()}, which may be
+	 * sub-second, like {@code PT0.1S}.
+	 * <p>
+	 * Local jobs are not claimed through the job store, so they can't have a lock group, rate limit or label selector.
+	 * Their enabled state is still taken from the job, and their executions are recorded as periodic summaries.
+	 * <p>
+	 * Only applied when the job is created, like the schedule.
+	 *
+	 * @see LocalJobRunner
+	 */
+	boolean local() default false;
+
+
 }
@@ -0,0 +1,120 @@
+/*
+ * Copyright (C) 2026, Claus Nielsen, clausn999@gmail.com
+ *
+ * This program is free software; you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation; either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License along
+ * with this program; if not, write to the Free Software Foundation, Inc.,
+ * 51 Franklin Street, Fifth Floor, Boston, MA 02110-1301 USA.
+ */
+package dk.clanie.jobscheduler;
+
+import static java.nio.charset.StandardCharsets.UTF_8;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.UncheckedIOException;
+import java.net.URL;
+import java.util.Enumeration;
+import java.util.HashSet;
+import java.util.LinkedHashSet;
+import java.util.Optional;
+import java.util.Set;
+
+import org.springframework.util.ClassUtils;
+
+/**
+ * Compile-time index of classes declaring {@link ScheduledJob} annotated methods.
+ * <p>
+ * The index is generated by {@link ScheduledJobIndexProcessor}, and lists the binary names
+ * of the classes, one per line. Each jar (or classes directory) has its own index file,
+ * so all of them are loaded and combined.
+ * <p>
+ * The index only covers the jars (or classes directories) containing an index file.
+ * Classes from other locations aren't known to the index, and may still declare jobs.
+ */
+final class ScheduledJobIndex {
+
+	static final String LOCATION = "META-INF/clanie-jobscheduler/scheduled-jobs.idx";
+
+	private final ClassLoader classLoader;
+	private final Set<String> indexedLocations;
+	private final Set<String> classNames;
+
+
+	private ScheduledJobIndex(ClassLoader classLoader, Set<String> indexedLocations, Set<String> classNames) {
+		this.classLoader = classLoader;
+		this.indexedLocations = indexedLocations;
+		this.classNames = classNames;
+	}
+
+
+	/**
+	 * Loads the index files of all jars (and classes directories).
+	 *
+	 * @return the index, or empty if there is no index on the class path
+	 */
+	static Optional<ScheduledJobIndex> load(ClassLoader classLoader) {
+		try {
+			Enumeration<URL> resources = classLoader.getResources(LOCATION);
+			if (!resources.hasMoreElements()) return Optional.empty();
+			Set<String> indexedLocations = new HashSet<>();
+			Set<String> classNames = new LinkedHashSet<>();
+			while (resources.hasMoreElements()) {
+				URL resource = resources.nextElement();
+				indexedLocations.add(locationOf(resource, LOCATION));
+				try (BufferedReader reader = new BufferedReader(new InputStreamReader(resource.openStream(), UTF_8))) {
+					reader.lines()
+					.map(String::strip)
+					.filter(line -> !line.isEmpty() && !line.startsWith("#"))
+					.forEach(classNames::add);
+				}
+			}
+			return Optional.of(new ScheduledJobIndex(classLoader, indexedLocations, classNames));
+		} catch (IOException e) {
+			throw new UncheckedIOException("Failed to load " + LOCATION, e);
+		}
+	}
+
+
+	/**
+	 * Number of indexed classes.
+	 */
+	int size() {
+		return classNames.size();
+	}
+
+
+	/**
+	 * Tells if given class may declare {@link ScheduledJob} annotated methods.
+	 * <p>
+	 * That is the case if the class is listed in the index, or if it is loaded from a location
+	 * without an index file (or its location can't be determined), in which case it must be scanned.
+	 */
+	boolean mayDeclareJobs(Class<?> clazz) {
+		if (classNames.contains(clazz.getName())) return true;
+		String classFile = ClassUtils.convertClassNameToResourcePath(clazz.getName()) + ClassUtils.CLASS_FILE_SUFFIX;
+		URL resource = classLoader.getResource(classFile);
+		return resource == null || !indexedLocations.contains(locationOf(resource, classFile));
+	}
+
+
+	/**
+	 * Location of the jar (or classes directory) containing the given resource.
+	 */
+	private static String locationOf(URL resource, String resourcePath) {
+		String url = resource.toExternalForm();
+		return url.endsWith(resourcePath) ? url.substring(0, url.length() - resourcePath.length()) : url;
+	}
+
+
+}
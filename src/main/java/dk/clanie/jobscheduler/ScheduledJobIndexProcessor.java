@@ -0,0 +1,132 @@
+/*
+ * Copyright (C) 2026, Claus Nielsen, clausn999@gmail.com
+ *
+ * This program is free software; you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation; either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License along
+ * with this program; if not, write to the Free Software Foundation, Inc.,
+ * 51 Franklin Street, Fifth Floor, Boston, MA 02110-1301 USA.
+ */
+package dk.clanie.jobscheduler;
+
+import static java.nio.charset.StandardCharsets.UTF_8;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.Writer;
+import java.util.List;
+import java.util.Optional;
+import java.util.Set;
+import java.util.TreeSet;
+
+import javax.annotation.processing.AbstractProcessor;
+import javax.annotation.processing.RoundEnvironment;
+import javax.annotation.processing.SupportedAnnotationTypes;
+import javax.lang.model.SourceVersion;
+import javax.lang.model.element.Element;
+import javax.lang.model.element.ElementKind;
+import javax.lang.model.element.ExecutableElement;
+import javax.lang.model.element.TypeElement;
+import javax.lang.model.util.ElementFilter;
+import javax.tools.Diagnostic.Kind;
+import javax.tools.FileObject;
+import javax.tools.StandardLocation;
+
+/**
+ * Annotation processor generating the {@link ScheduledJobIndex}.
+ * <p>
+ * With the index present, JobService only has to look at the beans of the indexed classes
+ * when scanning for jobs, instead of reflecting over every method of every bean.
+ * <p>
+ * Also reports invalid {@link ScheduledJob} declarations as compile errors.
+ * <p>
+ * Incremental builds only present the changed classes to the processor, so classes from
+ * an existing index are kept if they still declare annotated methods.
+ */
+@SupportedAnnotationTypes("dk.clanie.jobscheduler.ScheduledJob")
+public class ScheduledJobIndexProcessor extends AbstractProcessor {
+
+	private final Set<String> classNames = new TreeSet<>();
+
+
+	@Override
+	public SourceVersion getSupportedSourceVersion() {
+		return SourceVersion.latestSupported();
+	}
+
+
+	@Override
+	public boolean process(Set<? extends TypeElement> annotations, RoundEnvironment roundEnv) {
+		for (Element element : roundEnv.getElementsAnnotatedWith(ScheduledJob.class)) {
+			if (element.getKind() != ElementKind.METHOD) continue;
+			ExecutableElement method = (ExecutableElement) element;
+			if (validate(method)) {
+				TypeElement type = (TypeElement) method.getEnclosingElement();
+				classNames.add(processingEnv.getElementUtils().getBinaryName(type).toString());
+			}
+		}
+		if (roundEnv.processingOver() && !classNames.isEmpty()) {
+			addStillAnnotatedClassesFromExistingIndex();
+			writeIndex();
+		}
+		return false;
+	}
+
+
+	private boolean validate(ExecutableElement method) {
+		List<String> parameterTypes = method.getParameters().stream().map(parameter -> parameter.asType().toString()).toList();
+		Optional<String> error = ScheduledJobValidator.validate(method.getAnnotation(ScheduledJob.class), parameterTypes);
+		error.ifPresent(message -> processingEnv.getMessager().printMessage(Kind.ERROR, "@ScheduledJob " + message, method));
+		return error.isEmpty();
+	}
+
+
+	private void addStillAnnotatedClassesFromExistingIndex() {
+		try {
+			FileObject existing = processingEnv.getFiler().getResource(StandardLocation.CLASS_OUTPUT, "", ScheduledJobIndex.LOCATION);
+			try (BufferedReader reader = new BufferedReader(new InputStreamReader(existing.openInputStream(), UTF_8))) {
+				reader.lines()
+				.map(String::strip)
+				.filter(line -> !line.isEmpty() && !line.startsWith("#"))
+				.filter(this::hasScheduledJobMethods)
+				.forEach(classNames::add);
+			}
+		} catch (IOException | IllegalArgumentException e) {
+			// No existing index - ie. this is a full build
+		}
+	}
+
+
+	private boolean hasScheduledJobMethods(String binaryName) {
+		TypeElement type = processingEnv.getElementUtils().getTypeElement(binaryName.replace('$', '.'));
+		return type != null && ElementFilter.methodsIn(type.getEnclosedElements()).stream()
+				.anyMatch(method -> method.getAnnotation(ScheduledJob.class) != null);
+	}
+
+
+	private void writeIndex() {
+		try {
+			FileObject index = processingEnv.getFiler().createResource(StandardLocation.CLASS_OUTPUT, "", ScheduledJobIndex.LOCATION);
+			try (Writer writer = index.openWriter()) {
+				writer.write("# Classes with @ScheduledJob annotated methods - generated by " + getClass().getSimpleName() + "\n");
+				for (String className : classNames) {
+					writer.write(className);
+					writer.write('\n');
+				}
+			}
+		} catch (IOException e) {
+			processingEnv.getMessager().printMessage(Kind.ERROR, "Failed to write " + ScheduledJobIndex.LOCATION + ": " + e);
+		}
+	}
+
+
+}
@@ -0,0 +1,111 @@
+/*
+ * Copyright (C) 2026, Claus Nielsen, clausn999@gmail.com
+ *
+ * This program is free software; you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation; either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License along
+ * with this program; if not, write to the Free Software Foundation, Inc.,
+ * 51 Franklin Street, Fifth Floor, Boston, MA 02110-1301 USA.
+ */
+package dk.clanie.jobscheduler;
+
+import java.time.DateTimeException;
+import java.time.Duration;
+import java.time.ZoneId;
+import java.time.format.DateTimeParseException;
+import java.util.List;
+import java.util.Optional;
+
+/**
+ * Checks {@link ScheduledJob} declarations - used by JobService when scanning for jobs,
+ * and by ScheduledJobIndexProcessor to report the same problems as compile errors.
+ * <p>
+ * Only depends on the JDK, as it runs inside the compiler.
+ */
+final class ScheduledJobValidator {
+
+
+	private ScheduledJobValidator() {
+	}
+
+
+	/**
+	 * Returns what is wrong with a {@link ScheduledJob} declaration, if anything.
+	 *
+	 * @param annotation the annotation
+	 * @param parameterTypes names of the types of the annotated method's parameters
+	 */
+	static Optional<String> validate(ScheduledJob annotation, List<String> parameterTypes) {
+		if (parameterTypes.size() > 1 || parameterTypes.size() == 1 && !parameterTypes.getFirst().equals(JobContext.class.getName())) {
+			return Optional.of("methods must have no parameters, or a single JobContext parameter.");
+		}
+		if (!parameterTypes.isEmpty() && annotation.local()) {
+			return Optional.of("local methods must not have parameters, as local jobs get no JobContext.");
+		}
+		int scheduleArgsCount = (annotation.cron().isEmpty() ? 0 : 1) + (annotation.delay().isEmpty() ? 0 : 1) + (annotation.rate().isEmpty() ? 0 : 1);
+		if (scheduleArgsCount > 1) {
+			return Optional.of("has " + scheduleArgsCount + " schedule arguments. At most one is allowed.");
+		}
+		if (annotation.weight() < 1) {
+			return Optional.of("weight must be at least 1, was " + annotation.weight() + ".");
+		}
+		if (annotation.lockGroupLimit() < 1) {
+			return Optional.of("lockGroupLimit must be at least 1, was " + annotation.lockGroupLimit() + ".");
+		}
+		if (!annotation.rateLimit().isEmpty()) {
+			try {
+				RateLimit.parse(annotation.rateLimitGroup(), annotation.rateLimit());
+			} catch (IllegalArgumentException e) {
+				return Optional.of("has invalid rateLimit: " + e.getMessage());
+			}
+		} else if (!annotation.rateLimitGroup().isEmpty()) {
+			return Optional.of("rateLimitGroup is only allowed together with rateLimit.");
+		}
+		for (String requirement : annotation.labelSelector()) {
+			try {
+				LabelRequirement.parse(requirement);
+			} catch (IllegalArgumentException e) {
+				return Optional.of("has invalid labelSelector: " + e.getMessage());
+			}
+		}
+		if (annotation.local()) {
+			if (annotation.rate().isEmpty() && annotation.delay().isEmpty()) {
+				return Optional.of("local requires rate or delay.");
+			}
+			if (!annotation.lockGroup().isEmpty() || !annotation.rateLimit().isEmpty() || annotation.labelSelector().length > 0) {
+				return Optional.of("local is not allowed together with lockGroup, rateLimit or labelSelector.");
+			}
+		}
+		if (!annotation.zone().isEmpty()) {
+			if (annotation.cron().isEmpty()) {
+				return Optional.of("zone is only allowed together with cron.");
+			}
+			try {
+				ZoneId.of(annotation.zone());
+			} catch (DateTimeException e) {
+				return Optional.of("has invalid zone: " + e.getMessage());
+			}
+		}
+		if (!annotation.spread().isEmpty()) {
+			if (annotation.cron().isEmpty() && annotation.rate().isEmpty()) {
+				return Optional.of("spread is only allowed together with cron or rate.");
+			}
+			try {
+				Duration.parse(annotation.spread());
+			} catch (DateTimeParseException e) {
+				return Optional.of("has invalid spread: " + e.getMessage());
+			}
+		}
+		return Optional.empty();
+	}
+
+
+}
@@ -0,0 +1,94 @@
+/*
+ * Copyright (C) 2026, Claus Nielsen, clausn999@gmail.com
+ *
+ * This program is free software; you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation; either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License along
+ * with this program; if not, write to the Free Software Foundation, Inc.,
+ * 51 Franklin Street, Fifth Floor, Boston, MA 02110-1301 USA.
+ */
+package dk.clanie.jobscheduler;
+
+import static lombok.AccessLevel.PACKAGE;
+
+import java.time.ZonedDateTime;
+import java.util.UUID;
+
+import org.springframework.data.annotation.Id;
+import org.springframework.data.annotation.TypeAlias;
+import org.springframework.data.mongodb.core.index.CompoundIndex;
+import org.springframework.data.mongodb.core.index.CompoundIndexes;
+import org.springframework.data.mongodb.core.mapping.Document;
+
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * A one-off task in a {@link TaskQueue}, executed by the queue's {@link TaskHandler} once it is due.
+ * <p>
+ * Tasks are deliberately lean compared to Jobs: no name, schedule or auditing, so millions of them can be enqueued.
+ * Completed tasks are deleted. Tasks which failed too many times are kept with no next execution, for inspection.
+ */
+@Data
+@NoArgsConstructor(access = PACKAGE) // For Spring / Mongo and JdbcJobStore
+@Document(collection = Task.COLLECTION_NAME)
+@TypeAlias("Task")
+@CompoundIndexes({
+	@CompoundIndex(def = "{queue: 1, nextExecution: 1}"),
+})
+public class Task {
+
+	public static final String COLLECTION_NAME = "job-tasks";
+
+	@Id
+	private UUID id;
+
+	/**
+	 * Name of the queue, ie. of the {@link TaskHandler} which executes the task.
+	 */
+	private String queue;
+
+	/**
+	 * The task's payload as JSON.
+	 */
+	private String payload;
+
+	/**
+	 * When the task is due. While the task is claimed, the end of its lease, after which it is claimed again,
+	 * in case the node executing it died. Null when the task has failed permanently.
+	 */
+	private ZonedDateTime nextExecution;
+
+	/**
+	 * A random id assigned when the task is claimed.
+	 */
+	private UUID claimId;
+
+	/**
+	 * Number of failed attempts to execute the task.
+	 */
+	private int attempts;
+
+	/**
+	 * Stack trace of the latest failure.
+	 */
+	private String stackTrace;
+
+
+	Task(String queue, String payload, ZonedDateTime nextExecution) {
+		this.id = UUID.randomUUID();
+		this.queue = queue;
+		this.payload = payload;
+		this.nextExecution = nextExecution;
+	}
+
+
+}
@@ -0,0 +1,51 @@
+/*
+ * Copyright (C) 2026, Claus Nielsen, clausn999@gmail.com
+ *
+ * This program is free software; you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation; either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License along
+ * with this program; if not, write to the Free Software Foundation, Inc.,
+ * 51 Franklin Street, Fifth Floor, Boston, MA 02110-1301 USA.
+ */
+package dk.clanie.jobscheduler;
+
+/**
+ * Executes the tasks of a {@link TaskQueue} queue.
+ * <p>
+ * Define a TaskHandler bean per queue. Tasks are executed at least once - a task may be executed again if the node
+ * executing it dies, or takes longer than {@code jobScheduler.tasks.lease} - so handlers should be idempotent.
+ *
+ * @param <P> type of the tasks' payload, which is stored as JSON
+ */
+public interface TaskHandler<P> {
+
+
+	/**
+	 * Name of the queue this handler executes the tasks of.
+	 */
+	String queue();
+
+
+	/**
+	 * Type of the tasks' payload.
+	 */
+	Class<P> payloadType();
+
+
+	/**
+	 * Executes a task. If it throws, the task is retried with backoff, up to {@code jobScheduler.tasks.maxAttempts} times.
+	 *
+	 * @param payload the task's payload
+	 */
+	void handle(P payload) throws Exception;
+
+
+}
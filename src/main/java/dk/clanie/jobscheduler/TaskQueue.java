@@ -0,0 +1,93 @@
+/*
+ * Copyright (C) 2026, Claus Nielsen, clausn999@gmail.com
+ *
+ * This program is free software; you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation; either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License along
+ * with this program; if not, write to the Free Software Foundation, Inc.,
+ * 51 Franklin Street, Fifth Floor, Boston, MA 02110-1301 USA.
+ */
+package dk.clanie.jobscheduler;
+
+import java.time.Clock;
+import java.time.ZonedDateTime;
+import java.util.Collection;
+import java.util.List;
+import java.util.UUID;
+
+import lombok.RequiredArgsConstructor;
+
+/**
+ * Durable queue of one-off tasks, eg. "send reminder R to customer C at time T".
+ * <p>
+ * Each task belongs to a named queue, and has a payload, which is stored as JSON, and a due time.
+ * Due tasks are claimed in batches, and executed by the queue's {@link TaskHandler} bean, by {@link TaskWorker} on
+ * the nodes with the scheduler enabled. Completed tasks are deleted, and failed tasks retried with backoff.
+ * <p>
+ * Tasks are stored by the {@link JobStore}, separately from Jobs, and unlike Jobs need no bean method per task.
+ */
+@RequiredArgsConstructor
+public class TaskQueue {
+
+	/**
+	 * A task to enqueue.
+	 *
+	 * @param queue name of the queue, ie. of the {@link TaskHandler} to execute the task
+	 * @param payload the payload, which must be serializable as JSON
+	 * @param executeAt when the task is due, or null if it is due right away
+	 */
+	public record NewTask(String queue, Object payload, ZonedDateTime executeAt) {
+	}
+
+
+	private final JobStore jobStore;
+	private final Clock clock;
+
+
+	/**
+	 * Enqueues a task.
+	 *
+	 * @param queue name of the queue, ie. of the {@link TaskHandler} to execute the task
+	 * @param payload the payload, which must be serializable as JSON
+	 * @param executeAt when the task is due, or null if it is due right away
+	 * @return the task's id
+	 */
+	public UUID enqueue(String queue, Object payload, ZonedDateTime executeAt) {
+		return enqueueAll(List.of(new NewTask(queue, payload, executeAt))).getFirst();
+	}
+
+
+	/**
+	 * Enqueues tasks in a single batch, eg. an insertMany with MongoDB.
+	 *
+	 * @return the tasks' ids, in the order of the given tasks
+	 */
+	public List<UUID> enqueueAll(Collection<NewTask> newTasks) {
+		ZonedDateTime now = ZonedDateTime.now(clock);
+		List<Task> tasks = newTasks.stream()
+				.map(newTask -> new Task(newTask.queue(), JsonPayloads.toJson(newTask.payload()), newTask.executeAt() != null ? newTask.executeAt() : now))
+				.toList();
+		jobStore.enqueue(tasks);
+		return tasks.stream().map(Task::getId).toList();
+	}
+
+
+	/**
+	 * Deletes a task, unless it was already completed.
+	 *
+	 * @return true if the task was found and deleted
+	 */
+	public boolean cancel(UUID taskId) {
+		return jobStore.deleteTask(taskId);
+	}
+
+
+}
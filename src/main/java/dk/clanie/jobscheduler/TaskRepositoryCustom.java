@@ -0,0 +1,41 @@
+/*
+ * Copyright (C) 2026, Claus Nielsen, clausn999@gmail.com
+ *
+ * This program is free software; you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation; either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License along
+ * with this program; if not, write to the Free Software Foundation, Inc.,
+ * 51 Franklin Street, Fifth Floor, Boston, MA 02110-1301 USA.
+ */
+package dk.clanie.jobscheduler;
+
+import java.time.Duration;
+import java.util.Collection;
+import java.util.List;
+
+public interface TaskRepositoryCustom {
+
+
+	/**
+	 * Claims up to {@code max} due Tasks in a few round trips, independent of the number of Tasks.
+	 *
+	 * @see JobStore#popTasks(Collection, int, Duration)
+	 */
+	List<Task> claim(Collection<String> queues, int max, Duration lease);
+
+
+	/**
+	 * @see JobStore#failTask(Task)
+	 */
+	void fail(Task task);
+
+
+}
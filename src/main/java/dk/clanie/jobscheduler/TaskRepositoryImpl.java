@@ -0,0 +1,84 @@
+/*
+ * Copyright (C) 2026, Claus Nielsen, clausn999@gmail.com
+ *
+ * This program is free software; you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation; either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License along
+ * with this program; if not, write to the Free Software Foundation, Inc.,
+ * 51 Franklin Street, Fifth Floor, Boston, MA 02110-1301 USA.
+ */
+package dk.clanie.jobscheduler;
+
+import static org.springframework.data.mongodb.core.query.Criteria.where;
+import static org.springframework.data.mongodb.core.query.Query.query;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.ZonedDateTime;
+import java.util.Collection;
+import java.util.List;
+import java.util.UUID;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+import org.springframework.stereotype.Component;
+
+import lombok.RequiredArgsConstructor;
+
+@Component
+@RequiredArgsConstructor
+public class TaskRepositoryImpl implements TaskRepositoryCustom {
+
+	private final MongoTemplate mongo;
+
+	@Autowired
+	@Qualifier(JobSchedulerAutoConfiguration.CLOCK_BEAN_NAME)
+	private Clock clock;
+
+
+	/**
+	 * Finds the ids of due Tasks using the {queue, nextExecution} index, leases them with a single updateMany, and
+	 * reads back those which were leased by this claim. Tasks found by concurrent claims are only leased by one of them,
+	 * as the update only matches Tasks which are still due.
+	 */
+	@Override
+	public List<Task> claim(Collection<String> queues, int max, Duration lease) {
+		ZonedDateTime now = ZonedDateTime.now(clock);
+		Query due = query(where("queue").in(queues).and("nextExecution").lte(now))
+				.with(Sort.by("nextExecution"))
+				.limit(max);
+		due.fields().include("_id");
+		List<UUID> ids = mongo.find(due, Task.class).stream().map(Task::getId).toList();
+		if (ids.isEmpty()) return List.of();
+		UUID claimId = UUID.randomUUID();
+		mongo.updateMulti(query(where("_id").in(ids).and("nextExecution").lte(now)),
+				new Update().set("nextExecution", now.plus(lease)).set("claimId", claimId),
+				Task.class);
+		return mongo.find(query(where("_id").in(ids).and("claimId").is(claimId)), Task.class);
+	}
+
+
+	@Override
+	public void fail(Task task) {
+		Update update = new Update()
+				.set("nextExecution", task.getNextExecution())
+				.set("attempts", task.getAttempts())
+				.set("stackTrace", task.getStackTrace())
+				.unset("claimId");
+		mongo.updateFirst(query(where("_id").is(task.getId()).and("claimId").is(task.getClaimId())), update, Task.class);
+	}
+
+
+}
@@ -0,0 +1,158 @@
+/*
+ * Copyright (C) 2026, Claus Nielsen, clausn999@gmail.com
+ *
+ * This program is free software; you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation; either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License along
+ * with this program; if not, write to the Free Software Foundation, Inc.,
+ * 51 Franklin Street, Fifth Floor, Boston, MA 02110-1301 USA.
+ */
+package dk.clanie.jobscheduler;
+
+import static dk.clanie.core.Utils.stackTraceOf;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.ZonedDateTime;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Semaphore;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Executes the due tasks of the {@link TaskQueue} queues which have a {@link TaskHandler} on this node.
+ * <p>
+ * Claims as many due tasks as there are free permits for parallel task executions in a single batch, and executes them
+ * in virtual threads. A failed task is retried after {@code retryDelay}, doubled for each further attempt, until it has
+ * failed {@code maxAttempts} times, after which it is kept, with no next execution, for inspection.
+ */
+@Slf4j
+public class TaskWorker {
+
+	private static final int MAX_BACKOFF_DOUBLINGS = 20;
+
+
+	private final JobStore jobStore;
+	private final Map<String, TaskHandler<?>> handlers;
+	private final int maxParallelTasks;
+	private final Duration pollInterval;
+	private final Duration lease;
+	private final int maxAttempts;
+	private final Duration retryDelay;
+	private final Clock clock;
+
+	private final ExecutorService executorService = Executors.newVirtualThreadPerTaskExecutor();
+
+
+	public TaskWorker(JobStore jobStore, Collection<TaskHandler<?>> handlers, int maxParallelTasks, Duration pollInterval,
+			Duration lease, int maxAttempts, Duration retryDelay, Clock clock) {
+		if (maxParallelTasks < 1) throw new IllegalArgumentException("maxParallelTasks must be at least 1, was " + maxParallelTasks);
+		if (maxAttempts < 1) throw new IllegalArgumentException("maxAttempts must be at least 1, was " + maxAttempts);
+		this.jobStore = jobStore;
+		this.handlers = handlers.stream().collect(Collectors.toMap(TaskHandler::queue, Function.identity(), (first, second) -> {
+			throw new IllegalStateException("TaskHandlers " + first.getClass().getName() + " and " + second.getClass().getName()
+					+ " both handle queue " + first.queue() + ".");
+		}));
+		this.maxParallelTasks = maxParallelTasks;
+		this.pollInterval = pollInterval;
+		this.lease = lease;
+		this.maxAttempts = maxAttempts;
+		this.retryDelay = retryDelay;
+		this.clock = clock;
+	}
+
+
+	@EventListener(ApplicationReadyEvent.class)
+	public void onApplicationReady() {
+		if (handlers.isEmpty()) return;
+		executorService.submit(() -> {
+			Semaphore semaphore = new Semaphore(maxParallelTasks);
+			log.info("Task worker started for queues {} with max {} parallel tasks.", handlers.keySet(), maxParallelTasks);
+			while (!Thread.currentThread().isInterrupted()) {
+				try {
+					try {
+						if (claimAndSubmit(semaphore).isEmpty()) Thread.sleep(pollInterval);
+					} catch (RuntimeException e) {
+						log.error("Task worker failed.", e);
+						Thread.sleep(pollInterval.multipliedBy(10));
+					}
+				} catch (InterruptedException e) {
+					Thread.currentThread().interrupt();
+					log.info("Task worker interrupted - stopping.");
+				}
+			}
+		});
+	}
+
+
+	/**
+	 * Claims as many due tasks as there are free permits for, and submits them for execution.
+	 *
+	 * @param semaphore permits for parallel task executions
+	 * @return the tasks submitted, empty if no tasks were due
+	 */
+	List<Task> claimAndSubmit(Semaphore semaphore) throws InterruptedException {
+		semaphore.acquire();
+		int permits = 1 + semaphore.drainPermits();
+		List<Task> tasks;
+		try {
+			tasks = jobStore.popTasks(handlers.keySet(), permits, lease);
+		} catch (RuntimeException e) {
+			semaphore.release(permits);
+			throw e;
+		}
+		semaphore.release(permits - tasks.size()); // Release permits not used
+		tasks.forEach(task -> executorService.submit(() -> {
+			try {
+				execute(task);
+			} finally {
+				semaphore.release();
+			}
+		}));
+		return tasks;
+	}
+
+
+	private void execute(Task task) {
+		try {
+			handle(handlers.get(task.getQueue()), task.getPayload());
+			jobStore.completeTask(task);
+		} catch (Exception e) {
+			task.setAttempts(task.getAttempts() + 1);
+			task.setStackTrace(stackTraceOf(e));
+			if (task.getAttempts() < maxAttempts) {
+				Duration delay = retryDelay.multipliedBy(1L << Math.min(task.getAttempts() - 1, MAX_BACKOFF_DOUBLINGS));
+				task.setNextExecution(ZonedDateTime.now(clock).plus(delay));
+				log.warn("Task {} in queue {} failed - retrying in {}.", task.getId(), task.getQueue(), delay, e);
+			} else {
+				task.setNextExecution(null);
+				log.error("Task {} in queue {} failed {} times - giving up.", task.getId(), task.getQueue(), task.getAttempts(), e);
+			}
+			jobStore.failTask(task);
+		}
+	}
+
+
+	private static <P> void handle(TaskHandler<P> handler, String payload) throws Exception {
+		handler.handle(JsonPayloads.fromJson(payload, handler.payloadType()));
+	}
+
+
+}
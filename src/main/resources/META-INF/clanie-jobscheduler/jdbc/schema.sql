@@ -0,0 +1,111 @@
+-- Schema for JdbcJobStore.
+--
+-- Written for PostgreSQL, and also works with H2 in PostgreSQL compatibility mode (MODE=PostgreSQL),
+-- where nodes claim jobs one at a time, as H2 locks all due jobs while one of them claims.
+-- Indexes correspond to those defined on the Job and JobExecution MongoDB documents.
+-- On PostgreSQL, prefix searches (LIKE 'abc%') only use the search indexes with C collation,
+-- otherwise consider recreating them with text_pattern_ops.
+
+CREATE TABLE IF NOT EXISTS jobs (
+	id UUID PRIMARY KEY,
+	tenant_id UUID,
+	application_name VARCHAR(255),
+	bean VARCHAR(255) NOT NULL,
+	method VARCHAR(255) NOT NULL,
+	schedule VARCHAR(4000) NOT NULL,
+	schedule_type VARCHAR(32) NOT NULL,
+	config_enabled BOOLEAN NOT NULL,
+	user_enabled BOOLEAN NOT NULL,
+	next_execution TIMESTAMP WITH TIME ZONE,
+	popped_for_execution TIMESTAMP WITH TIME ZONE,
+	job_execution_id UUID,
+	profile VARCHAR(255),
+	deferrable BOOLEAN NOT NULL DEFAULT FALSE,
+	weight INTEGER NOT NULL DEFAULT 1,
+	lock_group VARCHAR(255),
+	lock_group_limit INTEGER NOT NULL DEFAULT 1,
+	rate_limit_bucket VARCHAR(255),
+	rate_limit_permits INTEGER,
+	rate_limit_period_millis BIGINT,
+	local_execution BOOLEAN NOT NULL DEFAULT FALSE,
+	label_selector VARCHAR(4000),
+	checkpoint TEXT,
+	triggered_at TIMESTAMP WITH TIME ZONE,
+	execution_count BIGINT NOT NULL DEFAULT 0,
+	average_duration_millis BIGINT NOT NULL DEFAULT 0,
+	last_successfully_executed TIMESTAMP WITH TIME ZONE,
+	last_failed_execution TIMESTAMP WITH TIME ZONE,
+	CONSTRAINT jobs_application_name_name_key UNIQUE (application_name, bean, method)
+);
+
+-- Claiming and next execution time
+CREATE INDEX IF NOT EXISTS jobs_next_execution_idx ON jobs (next_execution);
+
+-- Keyset pagination
+CREATE INDEX IF NOT EXISTS jobs_tenant_next_execution_idx ON jobs (tenant_id, next_execution, id);
+
+-- Prefix search
+CREATE INDEX IF NOT EXISTS jobs_tenant_bean_idx ON jobs (tenant_id, bean, method);
+CREATE INDEX IF NOT EXISTS jobs_tenant_method_idx ON jobs (tenant_id, method);
+CREATE INDEX IF NOT EXISTS jobs_tenant_application_name_idx ON jobs (tenant_id, application_name);
+CREATE INDEX IF NOT EXISTS jobs_tenant_profile_idx ON jobs (tenant_id, profile);
+
+
+-- Lock groups: a row per group, locked while taking a place in the group, and the executions holding places in each group
+CREATE TABLE IF NOT EXISTS job_lock_groups (
+	name VARCHAR(255) PRIMARY KEY
+);
+
+CREATE TABLE IF NOT EXISTS job_lock_group_holders (
+	job_execution_id UUID PRIMARY KEY,
+	lock_group VARCHAR(255) NOT NULL
+);
+
+CREATE INDEX IF NOT EXISTS job_lock_group_holders_group_idx ON job_lock_group_holders (lock_group);
+
+-- Rate limit token buckets
+CREATE TABLE IF NOT EXISTS job_rate_limits (
+	bucket VARCHAR(255) PRIMARY KEY,
+	tokens DOUBLE PRECISION NOT NULL,
+	refilled TIMESTAMP WITH TIME ZONE NOT NULL
+);
+
+-- Label requirements of the jobs' label selectors, a row per requirement, so jobs can be excluded by requirement when claiming
+CREATE TABLE IF NOT EXISTS job_label_requirements (
+	job_id UUID NOT NULL REFERENCES jobs (id) ON DELETE CASCADE,
+	requirement VARCHAR(255) NOT NULL,
+	PRIMARY KEY (job_id, requirement)
+);
+
+CREATE INDEX IF NOT EXISTS job_label_requirements_requirement_idx ON job_label_requirements (requirement);
+
+
+CREATE TABLE IF NOT EXISTS job_executions (
+	id UUID PRIMARY KEY,
+	tenant_id UUID,
+	job_id UUID NOT NULL,
+	success BOOLEAN NOT NULL,
+	stack_trace TEXT,
+	execution_count BIGINT NOT NULL DEFAULT 0,
+	failure_count BIGINT NOT NULL DEFAULT 0,
+	created_date TIMESTAMP WITH TIME ZONE NOT NULL
+);
+
+CREATE INDEX IF NOT EXISTS job_executions_job_idx ON job_executions (job_id, created_date DESC);
+CREATE INDEX IF NOT EXISTS job_executions_created_date_idx ON job_executions (created_date DESC);
+CREATE INDEX IF NOT EXISTS job_executions_tenant_idx ON job_executions (tenant_id, created_date DESC, id DESC);
+CREATE INDEX IF NOT EXISTS job_executions_tenant_success_idx ON job_executions (tenant_id, success, created_date DESC, id DESC);
+
+
+-- Task queue - see TaskQueue
+CREATE TABLE IF NOT EXISTS job_tasks (
+	id UUID PRIMARY KEY,
+	queue VARCHAR(255) NOT NULL,
+	payload TEXT,
+	next_execution TIMESTAMP WITH TIME ZONE,
+	claim_id UUID,
+	attempts INTEGER NOT NULL DEFAULT 0,
+	stack_trace TEXT
+);
+
+CREATE INDEX IF NOT EXISTS job_tasks_due_idx ON job_tasks (queue, next_execution);
@@ -0,0 +1,53 @@
+/*
+ * Copyright (C) 2026, Claus Nielsen, clausn999@gmail.com
+ *
+ * This program is free software; you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation; either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License along
+ * with this program; if not, write to the Free Software Foundation, Inc.,
+ * 51 Franklin Street, Fifth Floor, Boston, MA 02110-1301 USA.
+ */
+package dk.clanie.jobscheduler;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.time.Duration;
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+
+/**
+ * Tests of updating the Jobs matching a filter at once.
+ */
+interface BulkUpdateContractTest extends JobStoreContractTest {
+
+
+	@Test
+	default void bulkUpdatesReportMatchedAndModifiedJobs() {
+		save(dueJob("alpha1", Duration.ofMinutes(3)));
+		save(dueJob("alpha2", Duration.ofMinutes(2)));
+		Job beta = save(dueJob("beta", Duration.ofMinutes(1)));
+		JobFilter alphas = JobFilter.builder().match("test.alpha").build();
+
+		assertThat(jobStore().setUserEnabled(TENANT_ID, alphas, false)).isEqualTo(new BulkUpdateResult(2, 2));
+		assertThat(jobStore().setUserEnabled(TENANT_ID, alphas, false)).isEqualTo(new BulkUpdateResult(2, 0));
+		assertThat(jobStore().count(TENANT_ID, JobFilter.builder().enabled(false).build())).isEqualTo(2);
+		assertThat(jobStore().setProfile(TENANT_ID, JobFilter.builder().build(), "batch")).isEqualTo(new BulkUpdateResult(3, 3));
+		assertThat(jobStore().popForExecution(CLAIM_CRITERIA, 5)).isEmpty();
+
+		List<Job> claimed = jobStore().popForExecution(ClaimCriteria.matching(List.of("batch")), 5);
+
+		assertThat(claimed).extracting(Job::getId).containsExactly(beta.getId());
+		assertThat(jobStore().count(TENANT_ID, JobFilter.builder().running(true).build())).isEqualTo(1);
+	}
+
+
+}
@@ -0,0 +1,65 @@
+/*
+ * Copyright (C) 2026, Claus Nielsen, clausn999@gmail.com
+ *
+ * This program is free software; you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation; either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License along
+ * with this program; if not, write to the Free Software Foundation, Inc.,
+ * 51 Franklin Street, Fifth Floor, Boston, MA 02110-1301 USA.
+ */
+package dk.clanie.jobscheduler;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatIllegalStateException;
+
+import java.time.Duration;
+import java.util.UUID;
+
+import org.junit.jupiter.api.Test;
+
+/**
+ * Tests of checkpoints saved by running Jobs, for resuming after a failure.
+ */
+interface CheckpointContractTest extends JobStoreContractTest {
+
+
+	@Test
+	default void checkpointIsKeptAfterFailureAndClearedAfterSuccess() {
+		save(dueJob("chunked", Duration.ofMinutes(1)));
+		Job claimed = jobStore().popForExecution(CLAIM_CRITERIA).orElseThrow();
+		new JobContext(claimed, jobStore()).checkpoint(42);
+
+		complete(claimed, false);
+		clock().advance(Duration.ofHours(1));
+		Job resumed = jobStore().popForExecution(CLAIM_CRITERIA).orElseThrow();
+
+		assertThat(new JobContext(resumed, jobStore()).getCheckpoint(Integer.class)).contains(42);
+		complete(resumed, true);
+		assertThat(jobStore().find(TENANT_ID, JobFilter.builder().build(), null, 1, false).content())
+		.singleElement().extracting(Job::getCheckpoint).isNull();
+	}
+
+
+	@Test
+	default void checkpointIsRejectedWhenTheJobIsNoLongerClaimedByTheExecution() {
+		save(dueJob("chunked", Duration.ofMinutes(1)));
+		Job claimed = jobStore().popForExecution(CLAIM_CRITERIA).orElseThrow();
+		Job stale = dueJob("chunked", Duration.ofMinutes(1));
+		stale.setId(claimed.getId());
+		stale.setJobExecutionId(UUID.randomUUID());
+
+		assertThat(jobStore().checkpoint(stale, "{}")).isFalse();
+		assertThatIllegalStateException().isThrownBy(() -> new JobContext(stale, jobStore()).checkpoint(1));
+		assertThat(jobStore().checkpoint(claimed, "{}")).isTrue();
+	}
+
+
+}
@@ -0,0 +1,139 @@
+/*
+ * Copyright (C) 2026, Claus Nielsen, clausn999@gmail.com
+ *
+ * This program is free software; you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation; either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License along
+ * with this program; if not, write to the Free Software Foundation, Inc.,
+ * 51 Franklin Street, Fifth Floor, Boston, MA 02110-1301 USA.
+ */
+package dk.clanie.jobscheduler;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatIllegalArgumentException;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.data.domain.Pageable;
+
+/**
+ * Tests of {@link InMemoryJobStore}.
+ */
+class InMemoryJobStoreTest implements
+		WeightedBatchClaimContractTest, LockGroupContractTest, RateLimitContractTest, TriggerContractTest,
+		BulkUpdateContractTest, KeysetPaginationContractTest, CheckpointContractTest, TaskQueueContractTest,
+		LocalJobSummaryContractTest {
+
+	private final TestClock clock = new TestClock(Instant.parse("2026-01-01T12:00:00Z"));
+	private final InMemoryJobStore jobStore = new InMemoryJobStore(100, clock);
+
+
+	@Override
+	public JobStore jobStore() {
+		return jobStore;
+	}
+
+
+	@Override
+	public TestClock clock() {
+		return clock;
+	}
+
+
+	@Test
+	void returnsCopiesOfTheStoredJobs() {
+		Job job = save(dueJob("job", Duration.ofSeconds(1)));
+		job.setUserEnabled(false);
+		Job found = jobStore.find(TENANT_ID, Pageable.unpaged(), JobFilter.builder().build()).getFirst();
+		assertThat(found).isNotSameAs(job);
+		assertThat(found.isUserEnabled()).isTrue();
+		found.setNextExecution(null);
+
+		Job claimed = jobStore.popForExecution(CLAIM_CRITERIA).orElseThrow();
+
+		assertThat(claimed).isNotSameAs(job).isNotSameAs(found);
+		claimed.setJobExecutionId(null);
+		assertThat(jobStore.find(TENANT_ID, Pageable.unpaged(), JobFilter.builder().build()))
+		.extracting(Job::getJobExecutionId).doesNotContainNull();
+	}
+
+
+	@Test
+	void pagesThroughExecutionsNewestFirst() {
+		List<UUID> recorded = new ArrayList<>();
+		for (int i = 0; i < 5; i++) {
+			recorded.addFirst(recordExecution(save(dueJob("job" + i, Duration.ofSeconds(1))), i % 2 == 0).getId());
+		}
+
+		List<UUID> paged = new ArrayList<>();
+		String continuationToken = null;
+		do {
+			CursorPage<JobExecution> page = jobStore.findExecutions(TENANT_ID, null, continuationToken, 2, true);
+			assertThat(page.totalCount()).isEqualTo(5);
+			page.content().forEach(execution -> paged.add(execution.getId()));
+			continuationToken = page.continuationToken();
+		} while (continuationToken != null);
+
+		assertThat(paged).isEqualTo(recorded);
+		assertThat(jobStore.findExecutions(TENANT_ID, true, null, 10, false).content()).hasSize(3);
+	}
+
+
+	@Test
+	void rejectsContinuationTokensOfOtherQueries() {
+		save(dueJob("job1", Duration.ofSeconds(1)));
+		save(dueJob("job2", Duration.ofSeconds(1)));
+		String jobsToken = jobStore.find(TENANT_ID, JobFilter.builder().build(), null, 1, false).continuationToken();
+
+		assertThatIllegalArgumentException().isThrownBy(() -> jobStore.findExecutions(TENANT_ID, null, jobsToken, 1, false));
+	}
+
+
+	@Test
+	void exportsExecutionsInTimeRangeOldestFirst() {
+		JobExecution before = recordExecution(save(dueJob("before", Duration.ofSeconds(1))), true);
+		clock.advance(Duration.ofMinutes(1));
+		Instant from = clock.instant();
+		JobExecution first = recordExecution(save(dueJob("first", Duration.ofSeconds(1))), true);
+		clock.advance(Duration.ofMinutes(1));
+		JobExecution second = recordExecution(save(dueJob("second", Duration.ofSeconds(1))), false);
+		clock.advance(Duration.ofMinutes(1));
+		Instant to = clock.instant();
+		recordExecution(save(dueJob("after", Duration.ofSeconds(1))), true);
+
+		List<String> exported = jobStore.streamExecutionsAsJson(TENANT_ID, from, to, List.of("_id", "success", "createdDate")).toList();
+
+		assertThat(exported).containsExactly(
+				"{\"_id\":\"" + first.getId() + "\",\"success\":true,\"createdDate\":\"2026-01-01T12:01:00Z\"}",
+				"{\"_id\":\"" + second.getId() + "\",\"success\":false,\"createdDate\":\"2026-01-01T12:02:00Z\"}");
+		assertThat(jobStore.streamExecutionsAsJson(TENANT_ID, null, null, List.of()).toList())
+		.hasSize(4)
+		.first().asString().startsWith("{\"_id\":\"" + before.getId() + "\",\"tenantId\":\"" + TENANT_ID + "\"");
+		assertThatIllegalArgumentException().isThrownBy(() -> jobStore.streamExecutionsAsJson(TENANT_ID, null, null, List.of("unknown")));
+	}
+
+
+	private JobExecution recordExecution(Job job, boolean success) {
+		Job claimed = jobStore.popForExecution(CLAIM_CRITERIA).orElseThrow();
+		assertThat(claimed.getId()).isEqualTo(job.getId());
+		JobExecution jobExecution = JobExecution.of(claimed, success, success ? null : "failed");
+		claimed.registerCompletedSuccessfully(clock);
+		jobStore.complete(claimed, jobExecution);
+		return jobExecution;
+	}
+
+
+}
@@ -0,0 +1,259 @@
+/*
+ * Copyright (C) 2026, Claus Nielsen, clausn999@gmail.com
+ *
+ * This program is free software; you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation; either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License along
+ * with this program; if not, write to the Free Software Foundation, Inc.,
+ * 51 Franklin Street, Fifth Floor, Boston, MA 02110-1301 USA.
+ */
+package dk.clanie.jobscheduler;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import javax.sql.DataSource;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.core.io.ClassPathResource;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+import org.springframework.jdbc.datasource.init.ResourceDatabasePopulator;
+
+/**
+ * Tests of {@link JdbcJobStore} against H2 in PostgreSQL compatibility mode, which the schema claims to work with.
+ */
+class JdbcJobStoreTest implements
+		WeightedBatchClaimContractTest, LockGroupContractTest, RateLimitContractTest, TriggerContractTest,
+		BulkUpdateContractTest, KeysetPaginationContractTest, CheckpointContractTest, TaskQueueContractTest,
+		LocalJobSummaryContractTest {
+
+	private final TestClock clock = new TestClock(Instant.parse("2026-01-01T12:00:00Z"));
+	private DataSource dataSource;
+	private JdbcTemplate jdbcTemplate;
+	private JdbcJobStore jobStore;
+
+
+	@BeforeEach
+	void setUp() {
+		dataSource = new DriverManagerDataSource("jdbc:h2:mem:" + UUID.randomUUID() + ";MODE=PostgreSQL;DB_CLOSE_DELAY=-1");
+		jdbcTemplate = new JdbcTemplate(dataSource);
+		initializeSchema();
+		jobStore = new JdbcJobStore(dataSource, clock);
+	}
+
+
+	@AfterEach
+	void tearDown() {
+		jdbcTemplate.execute("SHUTDOWN");
+	}
+
+
+	@Override
+	public JobStore jobStore() {
+		return jobStore;
+	}
+
+
+	@Override
+	public TestClock clock() {
+		return clock;
+	}
+
+
+	private void initializeSchema() {
+		new ResourceDatabasePopulator(new ClassPathResource(JdbcJobStore.SCHEMA_LOCATION)).execute(dataSource);
+	}
+
+
+	@Test
+	void schemaCanBeInitializedRepeatedly() {
+		Job job = dueJob("repeated", Duration.ofMinutes(1));
+		jobStore.save(job);
+
+		initializeSchema();
+
+		assertThat(jobStore.find(TENANT_ID, JobFilter.builder().build(), null, 10, false).content())
+		.extracting(Job::getId)
+		.containsExactly(job.getId());
+	}
+
+
+	@Test
+	void reconcileSkipsJobsCreatedByAnotherNode() {
+		List<Job> jobs = List.of(dueJob("a", Duration.ofMinutes(1)), dueJob("b", Duration.ofMinutes(1)));
+		jobStore.reconcile("app", jobs, List.of(), List.of());
+
+		// Another node creating the same Jobs, with other ids
+		List<Job> sameNames = List.of(dueJob("a", Duration.ofMinutes(1)), dueJob("c", Duration.ofMinutes(1)));
+		new JdbcJobStore(dataSource, clock).reconcile("app", sameNames, List.of(), List.of(new JobName("test", "b")));
+
+		assertThat(jobStore.findNames("app")).containsExactlyInAnyOrder(
+				new JobName("test", "a"), new JobName("test", "b"), new JobName("test", "c"));
+		assertThat(jobStore.findIds(TENANT_ID, JobFilter.builder().build())).contains(jobs.get(0).getId()).doesNotContain(sameNames.get(0).getId());
+		assertThat(jobStore.count(TENANT_ID, JobFilter.builder().enabled(false).build())).isEqualTo(1);
+	}
+
+
+	@Test
+	void skipsJobsLockedByOtherTransactions() throws Exception {
+		Job locked = save(dueJob("locked", Duration.ofMinutes(2)));
+		Job free = save(dueJob("free", Duration.ofMinutes(1)));
+
+		try (Connection connection = dataSource.getConnection()) {
+			connection.setAutoCommit(false);
+			try (PreparedStatement statement = connection.prepareStatement("SELECT id FROM jobs WHERE id = ? FOR UPDATE")) {
+				statement.setObject(1, locked.getId());
+				statement.executeQuery().close();
+			}
+
+			assertThat(jobStore.popForExecution(CLAIM_CRITERIA, 5)).extracting(Job::getId).containsExactly(free.getId());
+
+			connection.rollback();
+		}
+		assertThat(jobStore.popForExecution(CLAIM_CRITERIA, 5)).extracting(Job::getId).containsExactly(locked.getId());
+	}
+
+
+	@Test
+	void concurrentBatchClaimsNeverClaimAJobTwice() throws Exception {
+		int jobCount = 40;
+		for (int i = 0; i < jobCount; i++) {
+			save(dueJob("job" + i, Duration.ofSeconds(i + 1)));
+		}
+		Set<UUID> claimedIds = ConcurrentHashMap.newKeySet();
+		AtomicInteger claims = new AtomicInteger();
+		CountDownLatch start = new CountDownLatch(1);
+		ExecutorService executor = Executors.newFixedThreadPool(4);
+		try {
+			List<Future<?>> claimers = new ArrayList<>();
+			for (int i = 0; i < 4; i++) {
+				claimers.add(executor.submit(() -> {
+					start.await();
+					long deadline = System.currentTimeMillis() + 10_000;
+					while (claims.get() < jobCount && System.currentTimeMillis() < deadline) {
+						for (Job job : jobStore.popForExecution(CLAIM_CRITERIA, 3)) {
+							claimedIds.add(job.getId());
+							claims.incrementAndGet();
+						}
+					}
+					return null;
+				}));
+			}
+			start.countDown();
+			for (Future<?> claimer : claimers) claimer.get();
+		} finally {
+			executor.shutdown();
+		}
+
+		assertThat(claims.get()).isEqualTo(jobCount);
+		assertThat(claimedIds).hasSize(jobCount);
+	}
+
+
+	@Test
+	void concurrentClaimsOfJobsInDifferentLockGroupsGiveOnePlacePerGroup() throws Exception {
+		for (int i = 0; i < 20; i++) {
+			save(dueJob("job" + i, Duration.ofSeconds(i + 1), i % 2 == 0 ? "a" : "b"));
+		}
+		CountDownLatch start = new CountDownLatch(1);
+		ExecutorService executor = Executors.newFixedThreadPool(4);
+		List<Job> claimed = new CopyOnWriteArrayList<>();
+		try {
+			List<Future<?>> claimers = new ArrayList<>();
+			for (int i = 0; i < 4; i++) {
+				claimers.add(executor.submit(() -> {
+					start.await();
+					claimed.addAll(jobStore.popForExecution(CLAIM_CRITERIA, 5));
+					return null;
+				}));
+			}
+			start.countDown();
+			for (Future<?> claimer : claimers) claimer.get();
+		} finally {
+			executor.shutdown();
+		}
+
+		assertThat(claimed).extracting(Job::getLockGroup).containsExactlyInAnyOrder("a", "b");
+	}
+
+
+	@Test
+	void readsTheCreatedDateOfExecutions() {
+		save(dueJob("job", Duration.ofSeconds(1)));
+		JobExecution recorded = complete(jobStore.popForExecution(CLAIM_CRITERIA).orElseThrow(), true);
+
+		JobExecution found = jobStore.findExecution(TENANT_ID, recorded.getId()).orElseThrow();
+
+		assertThat(found.getCreatedDate().toInstant()).isEqualTo(clock.instant());
+	}
+
+
+	@Test
+	void looksPastFullLockGroupsWithinOneClaim() {
+		Job running = save(dueJob("running", Duration.ofMinutes(5), "group"));
+		assertThat(jobStore.popForExecution(CLAIM_CRITERIA, 1)).extracting(Job::getId).containsExactly(running.getId());
+		save(dueJob("blocked1", Duration.ofMinutes(4), "group"));
+		save(dueJob("blocked2", Duration.ofMinutes(3), "group"));
+		Job free1 = save(dueJob("free1", Duration.ofMinutes(2)));
+		Job free2 = save(dueJob("free2", Duration.ofMinutes(1)));
+
+		// The first select returns the two Jobs of the full group, so both free Jobs are found by selecting again
+		List<Job> claimed = jobStore.popForExecution(CLAIM_CRITERIA, 2);
+
+		assertThat(claimed).extracting(Job::getId).containsExactly(free1.getId(), free2.getId());
+	}
+
+
+	@Test
+	void countsJobsLeftForNodesWithOtherLabels() {
+		Job gpuJob = dueJob("gpu", Duration.ofMinutes(2));
+		gpuJob.setLabelSelector(List.of("gpu"));
+		save(gpuJob);
+		Job plain = save(dueJob("plain", Duration.ofMinutes(1)));
+		ClaimCriteria criteria = CLAIM_CRITERIA.withNodeLabels(NodeLabels.NONE, List.of());
+
+		assertThat(jobStore.popForExecution(criteria, 5)).extracting(Job::getId).containsExactly(plain.getId());
+		assertThat(jobStore.getLabelMismatches()).isEqualTo(1);
+
+		// Once the node has looked for requirements again, the Job is excluded by the claim query
+		criteria = criteria.withNodeLabels(NodeLabels.NONE, jobStore.findLabelRequirements());
+		assertThat(criteria.excludedLabelRequirements()).containsExactly("gpu");
+		assertThat(jobStore.popForExecution(criteria, 5)).isEmpty();
+		assertThat(jobStore.getLabelMismatches()).isEqualTo(1);
+	}
+
+
+	private Job dueJob(String method, Duration overdue, String lockGroup) {
+		Job job = dueJob(method, overdue);
+		job.setLockGroup(lockGroup);
+		return job;
+	}
+
+
+}
@@ -0,0 +1,108 @@
+/*
+ * Copyright (C) 2026, Claus Nielsen, clausn999@gmail.com
+ *
+ * This program is free software; you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation; either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License along
+ * with this program; if not, write to the Free Software Foundation, Inc.,
+ * 51 Franklin Street, Fifth Floor, Boston, MA 02110-1301 USA.
+ */
+package dk.clanie.jobscheduler;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatIllegalStateException;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.UUID;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.jupiter.api.Test;
+
+/**
+ * Tests of {@link JobListingCache}.
+ */
+class JobListingCacheTest {
+
+	private static final UUID TENANT_ID = UUID.randomUUID();
+	private static final UUID OTHER_TENANT_ID = UUID.randomUUID();
+
+	private final TestClock clock = new TestClock(Instant.parse("2026-01-01T12:00:00Z"));
+	private final JobListingCache cache = new JobListingCache(10, Duration.ofSeconds(10), clock);
+	private final AtomicInteger loads = new AtomicInteger();
+
+
+	@Test
+	void cachesUntilExpired() {
+		assertThat(load(TENANT_ID)).isEqualTo(1);
+		assertThat(load(TENANT_ID)).isEqualTo(1);
+		clock.advance(Duration.ofSeconds(10));
+		assertThat(load(TENANT_ID)).isEqualTo(2);
+		assertThat(cache.getHits()).isEqualTo(1);
+		assertThat(cache.getMisses()).isEqualTo(2);
+	}
+
+
+	@Test
+	void doesNotCacheResultLoadedWhileTenantIsInvalidated() {
+		assertThat(cache.get(TENANT_ID, "query", () -> {
+			cache.invalidate(TENANT_ID);
+			return loads.incrementAndGet();
+		})).isEqualTo(1);
+
+		assertThat(load(TENANT_ID)).isEqualTo(2);
+		assertThat(load(TENANT_ID)).isEqualTo(2);
+	}
+
+
+	@Test
+	void cachesResultLoadedWhileOtherTenantIsInvalidated() {
+		assertThat(cache.get(TENANT_ID, "query", () -> {
+			cache.invalidate(OTHER_TENANT_ID);
+			return loads.incrementAndGet();
+		})).isEqualTo(1);
+
+		assertThat(load(TENANT_ID)).isEqualTo(1);
+	}
+
+
+	@Test
+	void invalidationsAreForgottenWhenNoLoadStartedBeforeThem() {
+		// The outer load started before the invalidation, the nested one after it
+		assertThat(cache.get(TENANT_ID, "outer", () -> {
+			cache.invalidate(TENANT_ID);
+			assertThat(cache.get(TENANT_ID, "inner", loads::incrementAndGet)).isEqualTo(1);
+			return loads.incrementAndGet();
+		})).isEqualTo(2);
+
+		assertThat(cache.get(TENANT_ID, "inner", loads::incrementAndGet)).isEqualTo(1);
+		assertThat(cache.get(TENANT_ID, "outer", loads::incrementAndGet)).isEqualTo(3);
+		assertThat(cache.getSize()).isEqualTo(2);
+	}
+
+
+	@Test
+	void failedLoadIsNotCached() {
+		assertThatIllegalStateException().isThrownBy(() -> cache.get(TENANT_ID, "query", () -> {
+			throw new IllegalStateException("Store unavailable");
+		}));
+
+		assertThat(load(TENANT_ID)).isEqualTo(1);
+		assertThat(load(TENANT_ID)).isEqualTo(1);
+	}
+
+
+	private int load(UUID tenantId) {
+		return cache.get(tenantId, "query", loads::incrementAndGet);
+	}
+
+
+}
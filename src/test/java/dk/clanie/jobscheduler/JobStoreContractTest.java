@@ -0,0 +1,123 @@
+/*
+ * Copyright (C) 2026, Claus Nielsen, clausn999@gmail.com
+ *
+ * This program is free software; you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation; either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License along
+ * with this program; if not, write to the Free Software Foundation, Inc.,
+ * 51 Franklin Street, Fifth Floor, Boston, MA 02110-1301 USA.
+ */
+package dk.clanie.jobscheduler;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.time.Duration;
+import java.time.ZonedDateTime;
+import java.util.Arrays;
+import java.util.List;
+import java.util.UUID;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.data.domain.Pageable;
+
+/**
+ * Tests of the {@link JobStore} contract, implemented by the tests of each JobStore.
+ * <p>
+ * The tests of each feature are in a contract extending this one, so a JobStore test states which features the store has.
+ * Jobs returned by a store are copies of the Jobs saved, so they are compared by id.
+ */
+interface JobStoreContractTest {
+
+	UUID TENANT_ID = UUID.randomUUID();
+	ClaimCriteria CLAIM_CRITERIA = ClaimCriteria.matching(Arrays.asList((String) null));
+
+
+	/**
+	 * The JobStore tested - empty when each test starts.
+	 */
+	JobStore jobStore();
+
+
+	/**
+	 * The Clock used by the JobStore.
+	 */
+	TestClock clock();
+
+
+	@Test
+	default void claimsDueJobsInOrderOfNextExecution() {
+		Job later = save(dueJob("later", Duration.ofMinutes(1)));
+		Job first = save(dueJob("first", Duration.ofMinutes(2)));
+		save(dueJob("notDue", Duration.ofMinutes(-1)));
+
+		List<Job> claimed = jobStore().popForExecution(CLAIM_CRITERIA, 5);
+
+		assertThat(claimed).extracting(Job::getId).containsExactly(first.getId(), later.getId());
+		assertThat(claimed).allSatisfy(job -> {
+			assertThat(job.getJobExecutionId()).isNotNull();
+			assertThat(job.getPoppedForExecution().toInstant()).isEqualTo(clock().instant());
+		});
+		assertThat(jobStore().popForExecution(CLAIM_CRITERIA, 5)).isEmpty();
+	}
+
+
+	@Test
+	default void completingMakesTheJobClaimableWhenDueAgain() {
+		save(dueJob("job", Duration.ofMinutes(1)));
+		Job claimed = jobStore().popForExecution(CLAIM_CRITERIA).orElseThrow();
+
+		JobExecution jobExecution = complete(claimed, true);
+
+		assertThat(jobStore().findExecutionsByJobId(TENANT_ID, claimed.getId(), Pageable.unpaged()))
+		.extracting(JobExecution::getId).containsExactly(jobExecution.getId());
+		assertThat(jobStore().popForExecution(CLAIM_CRITERIA)).isEmpty();
+		clock().advance(Duration.ofHours(1));
+		assertThat(jobStore().popForExecution(CLAIM_CRITERIA)).map(Job::getId).contains(claimed.getId());
+	}
+
+
+	default Job save(Job job) {
+		jobStore().save(job);
+		return job;
+	}
+
+
+	/**
+	 * Creates a Job with a delay schedule, which was due the given time ago.
+	 */
+	default Job dueJob(String method, Duration overdue) {
+		Job job = new Job(TENANT_ID, "app", new JobName("test", method), JobSchedule.delay(Duration.ofHours(1)), clock());
+		job.setNextExecution(now().minus(overdue));
+		return job;
+	}
+
+
+	/**
+	 * Completes an execution of a claimed Job, as JobExecutionService does.
+	 */
+	default JobExecution complete(Job claimed, boolean success) {
+		JobExecution jobExecution = JobExecution.of(claimed, success, success ? null : "failed");
+		if (success) {
+			claimed.registerCompletedSuccessfully(clock());
+		} else {
+			claimed.registerFailed(clock());
+		}
+		jobStore().complete(claimed, jobExecution);
+		return jobExecution;
+	}
+
+
+	default ZonedDateTime now() {
+		return ZonedDateTime.now(clock());
+	}
+
+
+}
@@ -0,0 +1,85 @@
+/*
+ * Copyright (C) 2026, Claus Nielsen, clausn999@gmail.com
+ *
+ * This program is free software; you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation; either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License along
+ * with this program; if not, write to the Free Software Foundation, Inc.,
+ * 51 Franklin Street, Fifth Floor, Boston, MA 02110-1301 USA.
+ */
+package dk.clanie.jobscheduler;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+
+import org.junit.jupiter.api.Test;
+
+/**
+ * Tests of listing Jobs page by page with continuation tokens.
+ */
+interface KeysetPaginationContractTest extends JobStoreContractTest {
+
+
+	@Test
+	default void keysetPaginationReturnsEveryJobOnce() {
+		List<UUID> expected = new ArrayList<>();
+		for (int i = 0; i < 4; i++) {
+			Job manual = new Job(TENANT_ID, "app", new JobName("test", "manual" + i), JobSchedule.manual(), clock());
+			manual.setNextExecution(null);
+			expected.add(save(manual).getId());
+		}
+		// Jobs due at the same time are ordered by id
+		List<Job> sameTime = new ArrayList<>();
+		for (int i = 0; i < 3; i++) {
+			sameTime.add(save(dueJob("same" + i, Duration.ofMinutes(1))));
+		}
+		Job last = save(dueJob("last", Duration.ofSeconds(1)));
+
+		List<UUID> paged = new ArrayList<>();
+		String continuationToken = null;
+		do {
+			CursorPage<Job> page = jobStore().find(TENANT_ID, JobFilter.builder().build(), continuationToken, 3, true);
+			assertThat(page.totalCount()).isEqualTo(8);
+			paged.addAll(page.content().stream().map(Job::getId).toList());
+			continuationToken = page.continuationToken();
+		} while (continuationToken != null);
+
+		assertThat(paged).doesNotHaveDuplicates().hasSize(8);
+		// Jobs without a next execution first
+		assertThat(paged.subList(0, 4)).containsExactlyInAnyOrderElementsOf(expected);
+		assertThat(paged.subList(4, 7)).containsExactlyInAnyOrderElementsOf(sameTime.stream().map(Job::getId).toList());
+		assertThat(paged.get(7)).isEqualTo(last.getId());
+	}
+
+
+	@Test
+	default void keysetPaginationAppliesTheFilter() {
+		for (int i = 0; i < 5; i++) {
+			save(dueJob("alpha" + i, Duration.ofMinutes(i)));
+			save(dueJob("beta" + i, Duration.ofMinutes(i)));
+		}
+		JobFilter alphas = JobFilter.builder().match("test.alpha").build();
+
+		CursorPage<Job> first = jobStore().find(TENANT_ID, alphas, null, 3, false);
+		CursorPage<Job> second = jobStore().find(TENANT_ID, alphas, first.continuationToken(), 3, false);
+
+		assertThat(first.totalCount()).isNull();
+		assertThat(first.content()).extracting(job -> job.getName().method()).containsExactly("alpha4", "alpha3", "alpha2");
+		assertThat(second.content()).extracting(job -> job.getName().method()).containsExactly("alpha1", "alpha0");
+		assertThat(second.continuationToken()).isNull();
+	}
+
+
+}
@@ -0,0 +1,54 @@
+/*
+ * Copyright (C) 2026, Claus Nielsen, clausn999@gmail.com
+ *
+ * This program is free software; you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation; either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License along
+ * with this program; if not, write to the Free Software Foundation, Inc.,
+ * 51 Franklin Street, Fifth Floor, Boston, MA 02110-1301 USA.
+ */
+package dk.clanie.jobscheduler;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.time.Duration;
+import java.time.ZonedDateTime;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.data.domain.Pageable;
+
+/**
+ * Tests of merging the execution summaries of local Jobs, reported by each node.
+ */
+interface LocalJobSummaryContractTest extends JobStoreContractTest {
+
+
+	@Test
+	default void summariesFromSeveralNodesAccumulate() {
+		Job local = dueJob("local", Duration.ZERO);
+		local.setLocal(true);
+		save(local);
+		ZonedDateTime earlier = now().minusMinutes(1);
+
+		jobStore().recordSummary(JobExecution.summaryOf(local, 10, 0, null), 1000, now(), null);
+		jobStore().recordSummary(JobExecution.summaryOf(local, 30, 1, "failed"), 6000, earlier, earlier);
+
+		assertThat(jobStore().findLocal("app")).singleElement().satisfies(job -> {
+			assertThat(job.getExecutionCount()).isEqualTo(40);
+			assertThat(job.getAverageDurationMillis()).isEqualTo(175);
+			assertThat(job.getLastSuccessfullyExecuted().toInstant()).isEqualTo(clock().instant());
+			assertThat(job.getLastFailedExecution().toInstant()).isEqualTo(earlier.toInstant());
+		});
+		assertThat(jobStore().findExecutionsByJobId(TENANT_ID, local.getId(), Pageable.unpaged())).hasSize(2);
+	}
+
+
+}
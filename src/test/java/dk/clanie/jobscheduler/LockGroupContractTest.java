@@ -0,0 +1,98 @@
+/*
+ * Copyright (C) 2026, Claus Nielsen, clausn999@gmail.com
+ *
+ * This program is free software; you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation; either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License along
+ * with this program; if not, write to the Free Software Foundation, Inc.,
+ * 51 Franklin Street, Fifth Floor, Boston, MA 02110-1301 USA.
+ */
+package dk.clanie.jobscheduler;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+
+/**
+ * Tests of lock groups limiting the Jobs of a group running at the same time.
+ */
+interface LockGroupContractTest extends JobStoreContractTest {
+
+
+	@Test
+	default void lockGroupLimitsTheJobsRunningAtTheSameTime() {
+		List<Job> grouped = new ArrayList<>();
+		for (int i = 0; i < 3; i++) {
+			Job job = dueJob("grouped" + i, Duration.ofMinutes(3 - i));
+			job.setLockGroup("group");
+			job.setLockGroupLimit(2);
+			grouped.add(save(job));
+		}
+		Job ungrouped = save(dueJob("ungrouped", Duration.ofSeconds(1)));
+
+		List<Job> claimed = jobStore().popForExecution(CLAIM_CRITERIA, 5);
+
+		assertThat(claimed).extracting(Job::getId).containsExactly(grouped.get(0).getId(), grouped.get(1).getId(), ungrouped.getId());
+		complete(claimed.get(1), true);
+		assertThat(jobStore().popForExecution(CLAIM_CRITERIA, 5)).extracting(Job::getId).containsExactly(grouped.get(2).getId());
+	}
+
+
+	@Test
+	default void clearingStaleRunningStatusReleasesTheLockGroup() {
+		Job first = dueJob("first", Duration.ofMinutes(2));
+		first.setLockGroup("group");
+		save(first);
+		Job second = dueJob("second", Duration.ofMinutes(1));
+		second.setLockGroup("group");
+		save(second);
+		assertThat(jobStore().popForExecution(CLAIM_CRITERIA, 5)).extracting(Job::getId).containsExactly(first.getId());
+		clock().advance(Duration.ofMinutes(10));
+
+		BulkUpdateResult result = jobStore().clearRunningStatus(TENANT_ID, JobFilter.builder().build(), now().minusMinutes(5));
+
+		assertThat(result).isEqualTo(new BulkUpdateResult(1, 1));
+		assertThat(jobStore().popForExecution(CLAIM_CRITERIA, 5)).extracting(Job::getId).containsExactly(first.getId());
+		assertThat(jobStore().popForExecution(CLAIM_CRITERIA, 5)).isEmpty();
+		assertThat(jobStore().clearRunningStatus(TENANT_ID, JobFilter.builder().build(), now().minusMinutes(5)))
+		.isEqualTo(new BulkUpdateResult(0, 0));
+	}
+
+
+	@Test
+	default void completingAStaleExecutionKeepsTheLockGroupPlaceOfTheCurrentOne() {
+		Job job = dueJob("job", Duration.ofSeconds(2));
+		job.setLockGroup("group");
+		save(job);
+		Job other = dueJob("other", Duration.ofSeconds(1)); // After job, also when job is claimed again
+		other.setLockGroup("group");
+		save(other);
+		Job stale = jobStore().popForExecution(CLAIM_CRITERIA).orElseThrow();
+		JobExecution staleExecution = JobExecution.of(stale, false, "node crashed");
+		jobStore().clearRunningStatus(TENANT_ID, job.getId());
+		Job current = jobStore().popForExecution(CLAIM_CRITERIA).orElseThrow();
+		assertThat(current.getId()).isEqualTo(job.getId());
+		JobExecution currentExecution = JobExecution.of(current, true, null);
+
+		jobStore().complete(stale, staleExecution);
+
+		assertThat(jobStore().popForExecution(CLAIM_CRITERIA)).isEmpty();
+		current.registerCompletedSuccessfully(clock());
+		jobStore().complete(current, currentExecution);
+		assertThat(jobStore().popForExecution(CLAIM_CRITERIA)).map(Job::getId).contains(other.getId());
+	}
+
+
+}
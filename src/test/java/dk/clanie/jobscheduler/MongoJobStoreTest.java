@@ -0,0 +1,92 @@
+/*
+ * Copyright (C) 2026, Claus Nielsen, clausn999@gmail.com
+ *
+ * This program is free software; you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation; either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License along
+ * with this program; if not, write to the Free Software Foundation, Inc.,
+ * 51 Franklin Street, Fifth Floor, Boston, MA 02110-1301 USA.
+ */
+package dk.clanie.jobscheduler;
+
+import static dk.clanie.jobscheduler.JobSchedulerAutoConfiguration.CLOCK_BEAN_NAME;
+
+import java.time.Instant;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.boot.SpringBootConfiguration;
+import org.springframework.boot.autoconfigure.EnableAutoConfiguration;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.testcontainers.service.connection.ServiceConnection;
+import org.springframework.context.annotation.Bean;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.testcontainers.containers.MongoDBContainer;
+import org.testcontainers.junit.jupiter.Container;
+import org.testcontainers.junit.jupiter.Testcontainers;
+
+/**
+ * Tests of {@link MongoJobStore}, against MongoDB in a container.
+ */
+@SpringBootTest(properties = "spring.application.name=mongoJobStoreTest")
+@Testcontainers(disabledWithoutDocker = true)
+class MongoJobStoreTest implements
+		WeightedBatchClaimContractTest, LockGroupContractTest, RateLimitContractTest, TriggerContractTest,
+		BulkUpdateContractTest, KeysetPaginationContractTest, CheckpointContractTest, TaskQueueContractTest,
+		LocalJobSummaryContractTest {
+
+	@Container
+	@ServiceConnection
+	static final MongoDBContainer MONGO = new MongoDBContainer("mongo:7.0");
+
+	@Autowired
+	private JobStore jobStore;
+
+	@Autowired
+	@Qualifier(CLOCK_BEAN_NAME)
+	private TestClock clock;
+
+	@Autowired
+	private MongoTemplate mongo;
+
+
+	@BeforeEach
+	void dropDatabase() {
+		mongo.getDb().drop();
+	}
+
+
+	@Override
+	public JobStore jobStore() {
+		return jobStore;
+	}
+
+
+	@Override
+	public TestClock clock() {
+		return clock;
+	}
+
+
+	@SpringBootConfiguration
+	@EnableAutoConfiguration
+	static class TestApplication {
+
+		@Bean(name = CLOCK_BEAN_NAME, defaultCandidate = false)
+		TestClock jobSchedulerClock() {
+			return new TestClock(Instant.parse("2026-01-01T12:00:00Z"));
+		}
+
+	}
+
+
+}
@@ -0,0 +1,53 @@
+/*
+ * Copyright (C) 2026, Claus Nielsen, clausn999@gmail.com
+ *
+ * This program is free software; you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation; either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License along
+ * with this program; if not, write to the Free Software Foundation, Inc.,
+ * 51 Franklin Street, Fifth Floor, Boston, MA 02110-1301 USA.
+ */
+package dk.clanie.jobscheduler;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+
+/**
+ * Tests of rate limits taking a token from a bucket for each Job claimed.
+ */
+interface RateLimitContractTest extends JobStoreContractTest {
+
+
+	@Test
+	default void rateLimitBucketIsRefilledOverTime() {
+		List<Job> limited = new ArrayList<>();
+		for (int i = 0; i < 3; i++) {
+			Job job = dueJob("limited" + i, Duration.ofMinutes(3 - i));
+			job.setRateLimit(new RateLimit("bucket", 2, Duration.ofMinutes(1)));
+			limited.add(save(job));
+		}
+		Job unlimited = save(dueJob("unlimited", Duration.ofSeconds(1)));
+
+		assertThat(jobStore().popForExecution(CLAIM_CRITERIA, 5)).extracting(Job::getId)
+		.containsExactly(limited.get(0).getId(), limited.get(1).getId(), unlimited.getId());
+		clock().advance(Duration.ofSeconds(20));
+		assertThat(jobStore().popForExecution(CLAIM_CRITERIA, 5)).isEmpty();
+		clock().advance(Duration.ofSeconds(10));
+		assertThat(jobStore().popForExecution(CLAIM_CRITERIA, 5)).extracting(Job::getId).containsExactly(limited.get(2).getId());
+	}
+
+
+}
@@ -0,0 +1,86 @@
+/*
+ * Copyright (C) 2026, Claus Nielsen, clausn999@gmail.com
+ *
+ * This program is free software; you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation; either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License along
+ * with this program; if not, write to the Free Software Foundation, Inc.,
+ * 51 Franklin Street, Fifth Floor, Boston, MA 02110-1301 USA.
+ */
+package dk.clanie.jobscheduler;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.time.Duration;
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+
+/**
+ * Tests of the Task queue, leasing Tasks to workers until they are completed or the lease ends.
+ */
+interface TaskQueueContractTest extends JobStoreContractTest {
+
+
+	@Test
+	default void tasksAreLeasedUntilCompletedOrTheLeaseEnds() {
+		Task first = new Task("queue", "1", now().minusMinutes(2));
+		Task second = new Task("queue", "2", now().minusMinutes(1));
+		Task otherQueue = new Task("other", "3", now().minusMinutes(3));
+		Task notDue = new Task("queue", "4", now().plusMinutes(1));
+		jobStore().enqueue(List.of(first, second, otherQueue, notDue));
+		Duration lease = Duration.ofMinutes(5);
+
+		List<Task> claimed = jobStore().popTasks(List.of("queue"), 10, lease);
+
+		assertThat(claimed).extracting(Task::getId).containsExactly(first.getId(), second.getId());
+		assertThat(claimed).allSatisfy(task -> {
+			assertThat(task.getClaimId()).isNotNull();
+			assertThat(task.getNextExecution().toInstant()).isEqualTo(clock().instant().plus(lease));
+		});
+		jobStore().completeTask(claimed.get(0));
+		clock().advance(Duration.ofMinutes(2));
+		assertThat(jobStore().popTasks(List.of("queue"), 10, lease)).extracting(Task::getId).containsExactly(notDue.getId());
+
+		clock().advance(lease);
+		List<Task> reclaimed = jobStore().popTasks(List.of("queue"), 10, lease);
+
+		assertThat(reclaimed).extracting(Task::getId).containsExactly(second.getId(), notDue.getId());
+		assertThat(reclaimed.get(0).getClaimId()).isNotEqualTo(claimed.get(1).getClaimId());
+	}
+
+
+	@Test
+	default void failureOfAnExpiredLeaseIsIgnored() {
+		Task task = new Task("queue", "payload", now());
+		jobStore().enqueue(List.of(task));
+		Task expired = jobStore().popTasks(List.of("queue"), 1, Duration.ofMinutes(1)).getFirst();
+		clock().advance(Duration.ofMinutes(1));
+		Task current = jobStore().popTasks(List.of("queue"), 1, Duration.ofMinutes(1)).getFirst();
+
+		expired.setAttempts(1);
+		expired.setNextExecution(null);
+		jobStore().failTask(expired);
+		current.setAttempts(1);
+		current.setStackTrace("failed");
+		current.setNextExecution(now());
+		jobStore().failTask(current);
+
+		assertThat(jobStore().popTasks(List.of("queue"), 1, Duration.ofMinutes(1))).singleElement().satisfies(retried -> {
+			assertThat(retried.getAttempts()).isEqualTo(1);
+			assertThat(retried.getStackTrace()).isEqualTo("failed");
+		});
+		assertThat(jobStore().deleteTask(task.getId())).isTrue();
+		assertThat(jobStore().deleteTask(task.getId())).isFalse();
+	}
+
+
+}
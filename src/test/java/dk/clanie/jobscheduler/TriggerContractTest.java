@@ -0,0 +1,62 @@
+/*
+ * Copyright (C) 2026, Claus Nielsen, clausn999@gmail.com
+ *
+ * This program is free software; you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation; either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License along
+ * with this program; if not, write to the Free Software Foundation, Inc.,
+ * 51 Franklin Street, Fifth Floor, Boston, MA 02110-1301 USA.
+ */
+package dk.clanie.jobscheduler;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.time.Duration;
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+
+/**
+ * Tests of triggering Jobs, with repeated triggers coalesced.
+ */
+interface TriggerContractTest extends JobStoreContractTest {
+
+
+	@Test
+	default void repeatedTriggersAreCoalesced() {
+		Job manual = save(new Job(TENANT_ID, "app", new JobName("test", "manual"), JobSchedule.manual(), clock()));
+		JobFilter filter = JobFilter.builder().ids(List.of(manual.getId())).build();
+		Duration coalescingWindow = Duration.ofSeconds(10);
+
+		assertThat(jobStore().trigger(TENANT_ID, filter, coalescingWindow)).isEqualTo(1);
+		assertThat(jobStore().trigger(TENANT_ID, filter, coalescingWindow)).isZero(); // Already due
+		Job claimed = jobStore().popForExecution(CLAIM_CRITERIA).orElseThrow();
+		assertThat(jobStore().trigger(TENANT_ID, filter, coalescingWindow)).isZero(); // Running
+		complete(claimed, true);
+		assertThat(jobStore().trigger(TENANT_ID, filter, coalescingWindow)).isZero(); // Triggered within the window
+
+		clock().advance(coalescingWindow);
+		assertThat(jobStore().trigger(TENANT_ID, filter, coalescingWindow)).isEqualTo(1);
+		assertThat(jobStore().popForExecution(CLAIM_CRITERIA)).map(Job::getId).contains(manual.getId());
+	}
+
+
+	@Test
+	default void localJobsAreNotTriggered() {
+		Job local = new Job(TENANT_ID, "app", new JobName("test", "local"), JobSchedule.manual(), clock());
+		local.setLocal(true);
+		save(local);
+
+		assertThat(jobStore().trigger(TENANT_ID, JobFilter.builder().build(), Duration.ofSeconds(10))).isZero();
+	}
+
+
+}
@@ -0,0 +1,58 @@
+/*
+ * Copyright (C) 2026, Claus Nielsen, clausn999@gmail.com
+ *
+ * This program is free software; you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation; either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License along
+ * with this program; if not, write to the Free Software Foundation, Inc.,
+ * 51 Franklin Street, Fifth Floor, Boston, MA 02110-1301 USA.
+ */
+package dk.clanie.jobscheduler;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.time.Duration;
+
+import org.junit.jupiter.api.Test;
+
+/**
+ * Tests of claiming several Jobs at once within a capacity, by the weights of the Jobs.
+ */
+interface WeightedBatchClaimContractTest extends JobStoreContractTest {
+
+
+	@Test
+	default void batchClaimSkipsJobsTooHeavyForTheRemainingCapacity() {
+		Job heavy = dueJob("heavy", Duration.ofMinutes(3));
+		heavy.setWeight(3);
+		save(heavy);
+		Job light1 = save(dueJob("light1", Duration.ofMinutes(2)));
+		Job light2 = save(dueJob("light2", Duration.ofMinutes(1)));
+
+		assertThat(jobStore().popForExecution(CLAIM_CRITERIA, 2)).extracting(Job::getId).containsExactly(light1.getId(), light2.getId());
+		assertThat(jobStore().popForExecution(CLAIM_CRITERIA, 3)).extracting(Job::getId).containsExactly(heavy.getId());
+	}
+
+
+	@Test
+	default void batchClaimCountsJobsHeavierThanTheWeightLimitAsWeighingTheLimit() {
+		Job heavy = dueJob("heavy", Duration.ofMinutes(2));
+		heavy.setWeight(10);
+		save(heavy);
+		save(dueJob("light", Duration.ofMinutes(1)));
+		ClaimCriteria criteria = CLAIM_CRITERIA.withWeightLimit(4);
+
+		assertThat(jobStore().popForExecution(CLAIM_CRITERIA, 4)).extracting(Job::getName).extracting(JobName::method).containsExactly("light");
+		assertThat(jobStore().popForExecution(criteria, 4)).extracting(Job::getId).containsExactly(heavy.getId());
+	}
+
+
+}